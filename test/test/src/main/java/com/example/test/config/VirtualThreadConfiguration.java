@@ -0,0 +1,41 @@
+package com.example.test.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// employee.threads.virtual=true : tomcat runs every request on its own virtual thread instead of its
+// fixed platform pool, EmployeeBulkhead then bounds how many of them reach the database.
+// the project still compiles for java 11, the executor is looked up at runtime and needs JDK 21 or later.
+// H2 and MySQL Connector/J synchronize inside the driver and pin the carrier there, the bulkhead keeps that
+// to max-concurrent carriers (-Djdk.tracePinnedThreads=short shows where)
+@Configuration
+@ConditionalOnProperty(name = "employee.threads.virtual", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("employee.threads.virtual=true needs JDK 21 or later, running on "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("could not create the virtual thread executor", e);
+        }
+    }
+}
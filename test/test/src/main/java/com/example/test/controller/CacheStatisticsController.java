@@ -0,0 +1,66 @@
+package com.example.test.controller;
+
+import com.example.test.service.support.EmployeeCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// hit / miss / eviction counters of the service cache and of every hibernate cache region
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/cache/statistics")
+public class CacheStatisticsController {
+
+    private EmployeeCache employeeCache;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    public CacheStatisticsController(EmployeeCache employeeCache, EntityManagerFactory entityManagerFactory) {
+        this.employeeCache = employeeCache;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @GetMapping
+    public Map<String, Object> getCacheStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("employeeCache", employeeCacheStatistics());
+        statistics.put("hibernateRegions", hibernateRegionStatistics());
+        return statistics;
+    }
+
+    private Map<String, Object> employeeCacheStatistics() {
+        CacheStats stats = employeeCache.stats();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("hits", stats.hitCount());
+        values.put("misses", stats.missCount());
+        values.put("evictions", stats.evictionCount());
+        values.put("size", employeeCache.size());
+        return values;
+    }
+
+    private Map<String, Object> hibernateRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("hits", region.getHitCount());
+            values.put("misses", region.getMissCount());
+            values.put("puts", region.getPutCount());
+            regions.put(regionName, values);
+        }
+        return regions;
+    }
+}
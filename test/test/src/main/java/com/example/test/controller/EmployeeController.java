@@ -1,60 +1,315 @@
 package com.example.test.controller;
 
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeDeleteResult;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeeIngestion;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.dto.EmployeeSummary;
+import com.example.test.exception.InvalidDeleteFilterException;
+import com.example.test.exception.StaleEmployeeException;
+import com.example.test.exception.UnsupportedListingException;
 import com.example.test.model.Employee;
 import com.example.test.service.EmployeeService;
+import com.example.test.service.support.EmployeeListCache;
+import com.example.test.service.support.EmployeeSearchIndex;
+import com.example.test.service.support.EmployeeWriteBehind;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
+import static com.example.test.config.SmileConfiguration.APPLICATION_SMILE_VALUE;
+
+// servlet stack, the reactive profile serves the same api from ReactiveEmployeeController
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public static final String APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService){
+    private ObjectMapper objectMapper;
+
+    // only present with employee.write-behind.enabled=true
+    private EmployeeWriteBehind writeBehind;
+
+    // only present with employee.search.enabled=true
+    private EmployeeSearchIndex searchIndex;
+
+    // only present with employee.list-cache.enabled=true
+    private EmployeeListCache listCache;
+
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper,
+                              @Nullable EmployeeWriteBehind writeBehind, @Nullable EmployeeSearchIndex searchIndex,
+                              @Nullable EmployeeListCache listCache){
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.writeBehind = writeBehind;
+        this.searchIndex = searchIndex;
+        this.listCache = listCache;
     }
 
+    // with write-behind the create is queued : 202 and a tracking id, Location points at its status
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee){
-        return employeeService.saveEmployee(employee);
+    public ResponseEntity<Object> createEmployee(@RequestBody Employee employee){
+        if (writeBehind == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(employeeService.saveEmployee(employee));
+        }
+        EmployeeIngestion ingestion = writeBehind.submit(employee);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                        .path("/ingestions/{trackingId}")
+                        .buildAndExpand(ingestion.getTrackingId())
+                        .toUri())
+                .body(ingestion);
+    }
+
+    // PENDING until the writer committed the create, then CREATED (with the id), CONFLICT or FAILED
+    @GetMapping("/ingestions/{trackingId}")
+    public ResponseEntity<EmployeeIngestion> getIngestion(@PathVariable("trackingId") String trackingId){
+        if (writeBehind == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return writeBehind.status(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // bulk create, answers one CREATED / CONFLICT / FAILED result per item in request order
+    @PostMapping("/batch")
+    public List<EmployeeBatchResult> createEmployees(@RequestBody List<Employee> employees){
+        return employeeService.saveEmployees(employees);
     }
 
+    // with the list cache the pre-serialized json (gzip when the client accepts it) is written as is,
+    // a matching If-None-Match is answered 304 by spring
     @GetMapping
-    public List<Employee> getAllEmployees() {
+    public ResponseEntity<?> getAllEmployees(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (listCache == null) {
+            return ResponseEntity.ok(employeeService.getAllEmployees());
+        }
+        EmployeeListCache.Snapshot snapshot = listCache.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.eTag(snapshot.getGzipETag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.getGzip());
+        }
+        return response.eTag(snapshot.getETag()).body(snapshot.getJson());
+    }
+
+    // the cached bytes are json, smile clients get the list encoded per request
+    @GetMapping(produces = APPLICATION_SMILE_VALUE)
+    public List<Employee> getAllEmployeesAsSmile() {
         return employeeService.getAllEmployees();
     }
 
+    // id and email of every employee without loading the entities : /api/employees?view=summary.
+    // any other view is the full listing above
+    @GetMapping(params = {"view=summary", "!size"})
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        return employeeService.getEmployeeSummaries();
+    }
+
+    // the keyset page has no summary view, a 400 rather than full employees the client did not ask for
+    @GetMapping(params = {"view=summary", "size", "!fields"})
+    public EmployeePage getEmployeeSummaryPage() {
+        throw new UnsupportedListingException("view=summary can not be combined with size");
+    }
+
+    // sparse fieldset : /api/employees?fields=id,email selects and writes only those attributes.
+    // unknown names are a 400 (EmployeeFields)
+    @GetMapping(params = {"fields", "!size", "!view"})
+    public List<Map<String, Object>> getEmployees(@RequestParam("fields") String fields) {
+        return employeeService.getEmployees(EmployeeFields.parse(fields));
+    }
+
+    // nor a sparse fieldset
+    @GetMapping(params = {"fields", "size"})
+    public EmployeePage getEmployeeFieldsPage() {
+        throw new UnsupportedListingException("fields can not be combined with size");
+    }
+
+    // keyset paged listing, selected by the size param : /api/employees?size=50&cursor=<nextCursor>
+    @GetMapping(params = "size")
+    public EmployeePage getEmployeePage(@RequestParam("size") int size,
+                                        @RequestParam(value = "cursor", required = false) String cursor) {
+        return employeeService.getEmployeePage(cursor, size);
+    }
+
+    // full table export, one JSON document per line, written while the rows are read
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        generator.writeObject(employee);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    // exact name lookup, every employee with that first and last name
+    @GetMapping(value = "/search", params = {"firstName", "lastName"})
+    public List<Employee> searchEmployeesByName(@RequestParam("firstName") String firstName,
+                                                @RequestParam("lastName") String lastName) {
+        return employeeService.findEmployeesByName(firstName, lastName);
+    }
+
+    // type-ahead over names and emails : every word of q is a prefix, best matches first (EmployeeSearchIndex)
+    @GetMapping(value = "/search", params = "q")
+    public ResponseEntity<List<Employee>> searchEmployees(@RequestParam("q") String query,
+                                                         @RequestParam(value = "limit", required = false, defaultValue = "0") int limit) {
+        if (searchIndex == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(searchIndex.search(query, limit));
+    }
+
+    // the version is the strong ETag : a matching If-None-Match is answered 304 by spring
+    // before the body is serialized
     @GetMapping("{id}")
     public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId) {
         return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee)).body(employee))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // /api/employees/{id}?fields=email : the employee comes from the cache like above (a narrowed SELECT would
+    // bypass it), only the serialization is narrowed. the ETag is the same, the fields derive from that version
+    @GetMapping(value = "{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getEmployeeById(@PathVariable("id") long employeeId,
+                                                               @RequestParam("fields") String fields) {
+        EmployeeFields employeeFields = EmployeeFields.parse(fields);
+        return employeeService.getEmployeeById(employeeId)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee)).body(employeeFields.project(employee)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // with If-Match the update only applies to the version the client has seen, otherwise 412
     @PutMapping("/{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId,
-                                                   @RequestBody Employee employee){
+                                                   @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
         return employeeService.getEmployeeById(employeeId)
                 .map(savedEmployee -> {
+                    if (ifMatch != null && !matchesETag(ifMatch, savedEmployee)) {
+                        throw new StaleEmployeeException("If-Match does not match the current version of employee : " + employeeId);
+                    }
                     savedEmployee.setFirstName(employee.getFirstName());
                     savedEmployee.setLastName(employee.getLastName());
                     savedEmployee.setEmail(employee.getEmail());
 
                     Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+                    return ResponseEntity.ok().eTag(eTag(updatedEmployee)).body(updatedEmployee);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // gzip listed without q=0. a q that is not a number (gzip;q=x) does not accept it either,
+    // the plain body is always a valid answer
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim().replace(" ", "");
+                    if (parameter.startsWith("q=") && !(qValue(parameter.substring(2)) > 0)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // NaN when malformed
+    private static double qValue(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    static String eTag(Employee employee) {
+        return "\"" + employee.getVersion() + "\"";
+    }
+
+    // If-Match uses the strong comparison, weak tags never match
+    static boolean matchesETag(String ifMatch, Employee employee) {
+        String current = eTag(employee);
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // JSON Merge Patch, only the supplied fields are written with one UPDATE and nothing is read back
+    @PatchMapping(value = "/{id}", consumes = {APPLICATION_MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") long employeeId,
+                                              @RequestBody JsonNode mergePatch){
+        boolean patched = employeeService.patchEmployee(employeeId, EmployeePatch.fromMergePatch(mergePatch));
+        return patched ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId){
-        employeeService.deleteEmployee(employeeId);
+        if (!employeeService.deleteEmployee(employeeId)) {
+            return ResponseEntity.notFound().build();
+        }
         return new ResponseEntity<String>("Employee deleted successfully!", HttpStatus.OK);
     }
 
+    // bulk purge, deleted in bounded chunks : /api/employees?ids=1,2,3 or /api/employees?lastName=choi[&firstName=seoin]
+    // one of the two filters is required so a bare DELETE can not wipe the table
+    @DeleteMapping
+    public EmployeeDeleteResult deleteEmployees(@RequestParam(value = "ids", required = false) List<Long> ids,
+                                                @RequestParam(value = "lastName", required = false) String lastName,
+                                                @RequestParam(value = "firstName", required = false) String firstName){
+        if (ids != null && lastName == null && firstName == null) {
+            return employeeService.deleteEmployees(ids);
+        }
+        if (ids == null && lastName != null) {
+            return employeeService.deleteEmployeesByName(lastName, firstName);
+        }
+        throw new InvalidDeleteFilterException("give either ids or lastName (optionally with firstName)");
+    }
+
 }
@@ -0,0 +1,243 @@
+package com.example.test.controller;
+
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeDeleteResult;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.dto.EmployeeSummary;
+import com.example.test.exception.InvalidDeleteFilterException;
+import com.example.test.exception.StaleEmployeeException;
+import com.example.test.exception.UnsupportedListingException;
+import com.example.test.model.Employee;
+import com.example.test.service.ReactiveEmployeeService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.test.config.SmileConfiguration.APPLICATION_SMILE;
+import static com.example.test.config.SmileConfiguration.APPLICATION_SMILE_VALUE;
+import static com.example.test.controller.EmployeeController.APPLICATION_MERGE_PATCH_JSON;
+import static com.example.test.controller.EmployeeController.eTag;
+import static com.example.test.controller.EmployeeController.matchesETag;
+
+// WebFlux variant of EmployeeController for the reactive profile : same paths, status codes and bodies
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/employees")
+public class ReactiveEmployeeController {
+
+    private static final DataBufferFactory BUFFERS = DefaultDataBufferFactory.sharedInstance;
+
+    private static final SmileFactory SMILE = new SmileFactory();
+
+    private ReactiveEmployeeService employeeService;
+
+    private ObjectMapper objectMapper;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService, ObjectMapper objectMapper){
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee){
+        return employeeService.saveEmployee(employee);
+    }
+
+    @PostMapping("/batch")
+    public Mono<List<EmployeeBatchResult>> createEmployees(@RequestBody List<Employee> employees){
+        return employeeService.saveEmployees(employees);
+    }
+
+    // the json encoder would collect a Flux into a list first, the array is written element by element instead
+    // so rows are only read from the database as fast as the client takes them
+    @GetMapping
+    public ResponseEntity<Flux<DataBuffer>> getAllEmployees() {
+        Flux<DataBuffer> elements = employeeService.getAllEmployees()
+                .index()
+                .map(element -> json(element.getT1() == 0 ? "[" : ",", element.getT2()));
+        Flux<DataBuffer> array = elements
+                .switchIfEmpty(Mono.fromSupplier(() -> text("[")))
+                .concatWith(Mono.fromSupplier(() -> text("]")));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(array);
+    }
+
+    // the same array in smile for Accept: application/x-jackson-smile. one generator for the whole response
+    // (smile back-references repeated field names), drained after every element. without that Accept the mapping
+    // above wins, json stays the default
+    @GetMapping(produces = APPLICATION_SMILE_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> getAllEmployeesAsSmile() {
+        Flux<DataBuffer> array = Flux.defer(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JsonGenerator generator = smileArray(out);
+            return employeeService.getAllEmployees()
+                    .map(employee -> drain(out, generator, () -> objectMapper.writeValue(generator, employee)))
+                    .concatWith(Mono.fromSupplier(() -> drain(out, generator, generator::close)));
+        });
+        return ResponseEntity.ok().contentType(APPLICATION_SMILE).body(array);
+    }
+
+    @GetMapping(params = {"view=summary", "!size"})
+    public Flux<EmployeeSummary> getEmployeeSummaries() {
+        return employeeService.getEmployeeSummaries();
+    }
+
+    @GetMapping(params = {"view=summary", "size", "!fields"})
+    public Mono<EmployeePage> getEmployeeSummaryPage() {
+        return Mono.error(new UnsupportedListingException("view=summary can not be combined with size"));
+    }
+
+    @GetMapping(params = {"fields", "!size", "!view"})
+    public Flux<Map<String, Object>> getEmployees(@RequestParam("fields") String fields) {
+        return employeeService.getEmployees(EmployeeFields.parse(fields));
+    }
+
+    @GetMapping(params = {"fields", "size"})
+    public Mono<EmployeePage> getEmployeeFieldsPage() {
+        return Mono.error(new UnsupportedListingException("fields can not be combined with size"));
+    }
+
+    @GetMapping(params = "size")
+    public Mono<EmployeePage> getEmployeePage(@RequestParam("size") int size,
+                                              @RequestParam(value = "cursor", required = false) String cursor) {
+        return employeeService.getEmployeePage(cursor, size);
+    }
+
+    // ndjson is a streaming media type for the encoder, one line per row as the rows arrive
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public Flux<Employee> exportEmployees() {
+        return employeeService.exportEmployees();
+    }
+
+    @GetMapping(value = "/search", params = {"firstName", "lastName"})
+    public Flux<Employee> searchEmployeesByName(@RequestParam("firstName") String firstName,
+                                                @RequestParam("lastName") String lastName) {
+        return employeeService.findEmployeesByName(firstName, lastName);
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long employeeId) {
+        return employeeService.getEmployeeById(employeeId)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee)).body(employee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "{id}", params = "fields")
+    public Mono<ResponseEntity<Map<String, Object>>> getEmployeeById(@PathVariable("id") long employeeId,
+                                                                     @RequestParam("fields") String fields) {
+        EmployeeFields employeeFields = EmployeeFields.parse(fields);
+        return employeeService.getEmployeeById(employeeId)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee)).body(employeeFields.project(employee)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") long employeeId,
+                                                         @RequestBody Employee employee,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return employeeService.getEmployeeById(employeeId)
+                .flatMap(savedEmployee -> {
+                    if (ifMatch != null && !matchesETag(ifMatch, savedEmployee)) {
+                        return Mono.error(new StaleEmployeeException("If-Match does not match the current version of employee : " + employeeId));
+                    }
+                    savedEmployee.setFirstName(employee.getFirstName());
+                    savedEmployee.setLastName(employee.getLastName());
+                    savedEmployee.setEmail(employee.getEmail());
+                    return employeeService.updateEmployee(savedEmployee);
+                })
+                .map(updatedEmployee -> ResponseEntity.ok().eTag(eTag(updatedEmployee)).body(updatedEmployee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {APPLICATION_MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public Mono<ResponseEntity<Void>> patchEmployee(@PathVariable("id") long employeeId,
+                                                    @RequestBody JsonNode mergePatch){
+        return Mono.fromCallable(() -> EmployeePatch.fromMergePatch(mergePatch))
+                .flatMap(patch -> employeeService.patchEmployee(employeeId, patch))
+                .map(patched -> patched ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") long employeeId){
+        return employeeService.deleteEmployee(employeeId)
+                .map(deleted -> deleted
+                        ? new ResponseEntity<String>("Employee deleted successfully!", HttpStatus.OK)
+                        : ResponseEntity.notFound().<String>build());
+    }
+
+    @DeleteMapping
+    public Mono<EmployeeDeleteResult> deleteEmployees(@RequestParam(value = "ids", required = false) List<Long> ids,
+                                                      @RequestParam(value = "lastName", required = false) String lastName,
+                                                      @RequestParam(value = "firstName", required = false) String firstName){
+        if (ids != null && lastName == null && firstName == null) {
+            return employeeService.deleteEmployees(ids);
+        }
+        if (ids == null && lastName != null) {
+            return employeeService.deleteEmployeesByName(lastName, firstName);
+        }
+        return Mono.error(new InvalidDeleteFilterException("give either ids or lastName (optionally with firstName)"));
+    }
+
+    private DataBuffer json(String prefix, Employee employee) {
+        try {
+            byte[] element = objectMapper.writeValueAsBytes(employee);
+            DataBuffer buffer = BUFFERS.allocateBuffer(element.length + 1);
+            return buffer.write(prefix.getBytes(StandardCharsets.UTF_8)).write(element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the header and the array start stay in out until the first element is drained
+    private static JsonGenerator smileArray(ByteArrayOutputStream out) {
+        try {
+            JsonGenerator generator = SMILE.createGenerator(out);
+            generator.writeStartArray();
+            return generator;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // what write put into out since the last drain
+    private static DataBuffer drain(ByteArrayOutputStream out, JsonGenerator generator, SmileWrite write) {
+        try {
+            write.run();
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        DataBuffer buffer = BUFFERS.wrap(out.toByteArray());
+        out.reset();
+        return buffer;
+    }
+
+    private interface SmileWrite {
+        void run() throws IOException;
+    }
+
+    private static DataBuffer text(String text) {
+        return BUFFERS.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
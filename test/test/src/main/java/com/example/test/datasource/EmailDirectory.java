@@ -0,0 +1,115 @@
+package com.example.test.datasource;
+
+import com.example.test.service.support.EmailClaims;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// the global email -> shard directory of sharded storage. the per shard unique index only sees its own rows,
+// the primary key of employee_email_directory is what keeps an email unique across all shards :
+// a create reserves its email here before the row is inserted on the shard, and gives it back if that fails.
+// emails are stored lower case, two spellings of one address are the same employee (as with MySQL's collation)
+public class EmailDirectory implements AutoCloseable {
+
+    private final HikariDataSource dataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public EmailDirectory(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    // false when the email already belongs to an employee
+    public boolean reserve(String email, int shard, long employeeId) {
+        try {
+            jdbcTemplate.update("INSERT INTO employee_email_directory (email, shard, employee_id) VALUES (?, ?, ?)",
+                    EmailClaims.normalize(email), shard, employeeId);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // one JDBC batch, when it hits an email taken in the meantime every entry is retried on its own.
+    // returns the employee ids whose email could not be reserved
+    public Set<Long> reserveAll(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return Set.of();
+        }
+        try {
+            jdbcTemplate.batchUpdate("INSERT INTO employee_email_directory (email, shard, employee_id) VALUES (?, ?, ?)",
+                    reservations, reservations.size(), (statement, reservation) -> {
+                        statement.setString(1, EmailClaims.normalize(reservation.getEmail()));
+                        statement.setInt(2, reservation.getShard());
+                        statement.setLong(3, reservation.getEmployeeId());
+                    });
+            return Set.of();
+        } catch (DataIntegrityViolationException e) {
+            // entries of the batch may or may not have been written before the failure, start from a clean slate
+            releaseIds(reservations.stream().map(Reservation::getEmployeeId).collect(Collectors.toList()));
+            Set<Long> rejected = new HashSet<>();
+            for (Reservation reservation : reservations) {
+                if (!reserve(reservation.getEmail(), reservation.getShard(), reservation.getEmployeeId())) {
+                    rejected.add(reservation.getEmployeeId());
+                }
+            }
+            return rejected;
+        }
+    }
+
+    // the normalized emails among the given ones that already belong to an employee
+    public Set<String> findTaken(Collection<String> normalizedEmails) {
+        if (normalizedEmails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT email FROM employee_email_directory WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", normalizedEmails), String.class));
+    }
+
+    public void release(String email, long employeeId) {
+        jdbcTemplate.update("DELETE FROM employee_email_directory WHERE email = ? AND employee_id = ?",
+                EmailClaims.normalize(email), employeeId);
+    }
+
+    public void releaseIds(List<Long> employeeIds) {
+        if (!employeeIds.isEmpty()) {
+            namedJdbcTemplate.update("DELETE FROM employee_email_directory WHERE employee_id IN (:ids)",
+                    new MapSqlParameterSource("ids", employeeIds));
+        }
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static final class Reservation {
+
+        private final String email;
+
+        private final int shard;
+
+        private final long employeeId;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.test.datasource;
+
+import com.example.test.service.support.EmailClaims;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// the employee shards (employee.shards.urls), one pool each. an id carries its shard in the low SHARD_BITS bits,
+// the rest is a per shard counter handed out in blocks of ID_ALLOCATION (employee_id_block on every shard),
+// so any id routes to its shard without a lookup and ids stay unique across shards.
+// new employees are placed by a hash of their email. scatter runs one query per shard in parallel
+public class EmployeeShards implements AutoCloseable {
+
+    public static final int SHARD_BITS = 10;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    // counter values handed out per round trip to employee_id_block
+    public static final int ID_ALLOCATION = 50;
+
+    private final List<HikariDataSource> dataSources;
+
+    private final List<JdbcTemplate> jdbcTemplates = new ArrayList<>();
+
+    private final List<TransactionTemplate> transactionTemplates = new ArrayList<>();
+
+    private final List<IdBlock> idBlocks = new ArrayList<>();
+
+    private final ExecutorService scatterExecutor;
+
+    public EmployeeShards(List<HikariDataSource> dataSources) {
+        if (dataSources.isEmpty() || dataSources.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("between 1 and " + MAX_SHARDS + " shards, got " + dataSources.size());
+        }
+        this.dataSources = List.copyOf(dataSources);
+        for (HikariDataSource dataSource : dataSources) {
+            jdbcTemplates.add(new JdbcTemplate(dataSource));
+            transactionTemplates.add(new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+            idBlocks.add(new IdBlock());
+        }
+        AtomicInteger threads = new AtomicInteger();
+        this.scatterExecutor = Executors.newFixedThreadPool(dataSources.size(), task -> {
+            Thread thread = new Thread(task, "employee-shard-scatter-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int count() {
+        return dataSources.size();
+    }
+
+    public List<HikariDataSource> getDataSources() {
+        return dataSources;
+    }
+
+    public JdbcTemplate jdbc(int shard) {
+        return jdbcTemplates.get(shard);
+    }
+
+    public TransactionTemplate transaction(int shard) {
+        return transactionTemplates.get(shard);
+    }
+
+    // -1 when the id can not belong to any configured shard
+    public int shardOf(long id) {
+        int shard = (int) (id & (MAX_SHARDS - 1));
+        return id > 0 && shard < count() ? shard : -1;
+    }
+
+    public int shardFor(String email) {
+        return Math.floorMod(EmailClaims.normalize(email).hashCode(), count());
+    }
+
+    public long nextId(int shard) {
+        return idBlocks.get(shard).next(shard) << SHARD_BITS | shard;
+    }
+
+    // runs query on every shard at once and returns the results in shard order
+    public <T> List<T> scatter(Function<JdbcTemplate, T> query) {
+        if (count() == 1) {
+            return List.of(query.apply(jdbcTemplates.get(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(count());
+        for (JdbcTemplate jdbcTemplate : jdbcTemplates) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(jdbcTemplate), scatterExecutor));
+        }
+        List<T> results = new ArrayList<>(count());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        scatterExecutor.shutdownNow();
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    // the counter row is locked, moved on and committed on its own, like hibernate's pooled table generator.
+    // one lock per shard, not a monitor : a virtual thread waiting for it, or holding it across the jdbc
+    // round trip, stays unmounted instead of pinning its carrier (JDK 21)
+    private final class IdBlock {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = 1;
+        private long hi = 0;
+
+        long next(int shard) {
+            lock.lock();
+            try {
+                if (next > hi) {
+                    Long value = transactionTemplates.get(shard).execute(status -> {
+                        JdbcTemplate jdbcTemplate = jdbcTemplates.get(shard);
+                        long current = jdbcTemplate.queryForObject("SELECT next_val FROM employee_id_block FOR UPDATE", Long.class);
+                        jdbcTemplate.update("UPDATE employee_id_block SET next_val = ?", current + ID_ALLOCATION);
+                        return current;
+                    });
+                    next = value;
+                    hi = value + ID_ALLOCATION - 1;
+                }
+                return next++;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
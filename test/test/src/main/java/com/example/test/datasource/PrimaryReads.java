@@ -0,0 +1,37 @@
+package com.example.test.datasource;
+
+import java.util.function.Supplier;
+
+// reads whose result is shared by every client (EmployeeCache, the email filter, the search index) must not come
+// from a replica that is behind : read-only transactions started inside call(...) are routed to the primary,
+// without the read-your-writes cookie a read-write transaction would set. without a replica it changes nothing
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> reads) {
+        if (isActive()) {
+            return reads.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    public static void run(Runnable reads) {
+        call(() -> {
+            reads.run();
+            return null;
+        });
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.test.datasource;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+// per request state of ReadYourWritesFilter : whether this client has to read from the primary,
+// and the response to put the cookie on once the request writes
+final class ReadYourWrites {
+
+    static final String COOKIE = "employee-primary-until";
+
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+
+    private final HttpServletResponse response;
+
+    private final Duration window;
+
+    private boolean pinned;
+
+    private boolean cookieSet;
+
+    private ReadYourWrites(HttpServletResponse response, Duration window, boolean pinned) {
+        this.response = response;
+        this.window = window;
+        this.pinned = pinned;
+    }
+
+    static void open(HttpServletResponse response, Duration window, boolean pinned) {
+        CURRENT.set(new ReadYourWrites(response, window, pinned));
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    // outside a request (schedulers, the write-behind writer) nothing is pinned
+    static boolean isPinned() {
+        ReadYourWrites current = CURRENT.get();
+        return current != null && current.pinned;
+    }
+
+    // the rest of this request and the client's next requests within the window read from the primary.
+    // the cookie goes out before the handler writes the body, a committed response can not take it anymore
+    static void written() {
+        ReadYourWrites current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        current.pinned = true;
+        if (!current.cookieSet && !current.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + current.window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (current.window.toMillis() + 999) / 1000));
+            current.response.addCookie(cookie);
+            current.cookieSet = true;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.test.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// the second level and query caches are shared by every client like EmployeeCache : a read-only transaction
+// that may be served by the replica (outside PrimaryReads) still reads them but puts nothing into them,
+// so a row the replica has not caught up with is never cached. reads on the primary fill them as before
+public class ReplicaJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (definition.isReadOnly() && !PrimaryReads.isActive()) {
+            setCacheMode(CacheMode.GET);
+        }
+    }
+
+    // CacheMode.GET is only ever set above, the (open-in-view) session goes back to the default
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        setCacheMode(CacheMode.NORMAL);
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private void setCacheMode(CacheMode cacheMode) {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (holder != null && holder.getEntityManager().isOpen()) {
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(cacheMode);
+        }
+    }
+}
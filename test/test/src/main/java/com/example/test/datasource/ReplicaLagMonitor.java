@@ -0,0 +1,82 @@
+package com.example.test.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// replica lag from a heartbeat row : every interval the current time is written on the primary and read back
+// on the replica, the difference is how far replication is behind (plus up to one interval).
+// the replica is fresh while that stays within max-staleness, a replica that can not be read is not fresh
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    static final String HEARTBEAT_TABLE = "employee_replica_heartbeat";
+
+    private final JdbcTemplate primary;
+
+    private final JdbcTemplate replica;
+
+    private final long maxStalenessMillis;
+
+    private final ScheduledExecutorService scheduler;
+
+    private volatile long lagMillis = Long.MAX_VALUE;
+
+    public ReplicaLagMonitor(ReplicaPools pools, Duration maxStaleness, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(pools.getPrimary());
+        this.replica = new JdbcTemplate(pools.getReplica());
+        this.maxStalenessMillis = maxStaleness.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("employee.replica.lag", this, monitor -> monitor.lagMillis == Long.MAX_VALUE ? Double.NaN : monitor.lagMillis / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void start(Duration interval) {
+        this.primary.execute("CREATE TABLE IF NOT EXISTS " + HEARTBEAT_TABLE + " (id INT NOT NULL PRIMARY KEY, beat BIGINT NOT NULL)");
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isFresh() {
+        return lagMillis <= maxStalenessMillis;
+    }
+
+    public Duration getLag() {
+        return lagMillis == Long.MAX_VALUE ? null : Duration.ofMillis(lagMillis);
+    }
+
+    // writes the next beat and measures the lag of the one the replica has, also called by tests
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE " + HEARTBEAT_TABLE + " SET beat = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO " + HEARTBEAT_TABLE + " (id, beat) VALUES (1, ?)", now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("could not write the replica heartbeat on the primary : {}", e.toString());
+        }
+        try {
+            List<Long> beats = replica.queryForList("SELECT beat FROM " + HEARTBEAT_TABLE + " WHERE id = 1", Long.class);
+            lagMillis = beats.isEmpty() ? Long.MAX_VALUE : Math.max(0, now - beats.get(0));
+        } catch (RuntimeException e) {
+            lagMillis = Long.MAX_VALUE;
+            log.warn("could not read the replica heartbeat, reads go to the primary : {}", e.toString());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
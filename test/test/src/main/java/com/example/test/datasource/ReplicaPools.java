@@ -0,0 +1,23 @@
+package com.example.test.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// the two pools behind ReplicaRoutingDataSource. a bean of its own rather than two DataSource beans :
+// the statement counting and sql trace post processors wrap every DataSource, and a wrapped bean
+// loses its inferred close(). the routing DataSource depends on this, so the pools close after hibernate
+@AllArgsConstructor
+@Getter
+public class ReplicaPools implements AutoCloseable {
+
+    private final HikariDataSource primary;
+
+    private final HikariDataSource replica;
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.test.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+// employee.replica.enabled=true : the application DataSource becomes a ReplicaRoutingDataSource over
+// a primary pool (spring.datasource.*) and a replica pool (employee.replica.*)
+@Configuration
+@ConditionalOnProperty(name = "employee.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    public ReplicaPools replicaPools(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                     @Value("${employee.replica.url}") String replicaUrl,
+                                     @Value("${employee.replica.username:}") String replicaUsername,
+                                     @Value("${employee.replica.password:}") String replicaPassword) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        Binder.get(environment).bind("employee.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new ReplicaPools(primary, replica);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaPools replicaPools, MeterRegistry meterRegistry,
+                                               @Value("${employee.replica.max-staleness:5s}") Duration maxStaleness,
+                                               @Value("${employee.replica.heartbeat-interval:1s}") Duration heartbeatInterval) {
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replicaPools, maxStaleness, meterRegistry);
+        lagMonitor.start(heartbeatInterval);
+        return lagMonitor;
+    }
+
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(ReplicaPools replicaPools, ReplicaLagMonitor replicaLagMonitor,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(replicaPools, replicaLagMonitor, meterRegistry);
+    }
+
+    // hibernate would keep the first connection of a request for the whole open-in-view session,
+    // released after every transaction each one is routed on its own
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    // in place of the auto-configured JpaTransactionManager
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        ReplicaJpaTransactionManager transactionManager = new ReplicaJpaTransactionManager();
+        customizers.ifAvailable(transactionManagerCustomizers -> transactionManagerCustomizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${employee.replica.read-your-writes-window:5s}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.test.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+// primary / replica routing : a read-only transaction (@Transactional(readOnly = true)) reads from the replica
+// unless the replica is further behind than max-staleness, this client just wrote (ReadYourWrites)
+// or the result goes into a shared cache (PrimaryReads), everything else uses the primary.
+// connections are lazy : the transaction manager asks for one before the transaction is marked read-only,
+// the physical connection is only picked at the first statement, when the flag is known
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    public ReplicaRoutingDataSource(ReplicaPools pools, ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        Router router = new Router(lagMonitor, meterRegistry);
+        router.setTargetDataSources(Map.of(Target.PRIMARY, pools.getPrimary(), Target.REPLICA, pools.getReplica()));
+        router.setDefaultTargetDataSource(pools.getPrimary());
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    private static class Router extends AbstractRoutingDataSource {
+
+        private final ReplicaLagMonitor lagMonitor;
+
+        private final MeterRegistry meterRegistry;
+
+        Router(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+            this.lagMonitor = lagMonitor;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+            if (!inTransaction || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                if (inTransaction) {
+                    ReadYourWrites.written();
+                }
+                return Target.PRIMARY;
+            }
+            Target target = ReadYourWrites.isPinned() || PrimaryReads.isActive() || !lagMonitor.isFresh()
+                    ? Target.PRIMARY : Target.REPLICA;
+            meterRegistry.counter("employee.datasource.reads", "target", target.name().toLowerCase()).increment();
+            return target;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.test.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// employee.shards.enabled=true : employees live on the employee.shards.urls databases (ShardedEmployeeServiceImpl)
+// with the email directory on employee.shards.directory-url. the pools are not DataSource beans, like ReplicaPools,
+// so the statement counting and sql trace post processors do not see them and they close with their holder
+@Configuration
+@ConditionalOnProperty(name = "employee.shards.enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    public EmployeeShards employeeShards(Environment environment, MeterRegistry meterRegistry,
+                                         @Value("${employee.shards.urls}") List<String> urls,
+                                         @Value("${employee.shards.username:}") String username,
+                                         @Value("${employee.shards.password:}") String password,
+                                         @Value("${employee.shards.initialize-schema:false}") boolean initializeSchema) {
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource dataSource = pool(environment, meterRegistry, "shard-" + shard, urls.get(shard).trim(), username, password);
+            if (initializeSchema) {
+                new ResourceDatabasePopulator(new ClassPathResource("shard-schema.sql")).execute(dataSource);
+            }
+            dataSources.add(dataSource);
+        }
+        return new EmployeeShards(dataSources);
+    }
+
+    @Bean
+    public EmailDirectory emailDirectory(Environment environment, MeterRegistry meterRegistry,
+                                         @Value("${employee.shards.directory-url}") String url,
+                                         @Value("${employee.shards.username:}") String username,
+                                         @Value("${employee.shards.password:}") String password,
+                                         @Value("${employee.shards.initialize-schema:false}") boolean initializeSchema) {
+        HikariDataSource dataSource = pool(environment, meterRegistry, "email-directory", url, username, password);
+        if (initializeSchema) {
+            new ResourceDatabasePopulator(new ClassPathResource("shard-directory-schema.sql")).execute(dataSource);
+        }
+        return new EmailDirectory(dataSource);
+    }
+
+    private static HikariDataSource pool(Environment environment, MeterRegistry meterRegistry, String name,
+                                         String url, String username, String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("employee.shards.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
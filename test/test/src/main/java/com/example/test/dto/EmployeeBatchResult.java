@@ -0,0 +1,37 @@
+package com.example.test.dto;
+
+import com.example.test.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// outcome of one item of POST /api/employees/batch, index is the position in the request array.
+// FAILED : not written for another reason than its email, e.g. its shard failed while the other shards committed
+@AllArgsConstructor
+@Getter
+public class EmployeeBatchResult {
+
+    public enum Status {
+        CREATED, CONFLICT, FAILED
+    }
+
+    private int index;
+
+    private Status status;
+
+    private Employee employee;
+
+    private String message;
+
+    public static EmployeeBatchResult created(int index, Employee employee) {
+        return new EmployeeBatchResult(index, Status.CREATED, employee, null);
+    }
+
+    public static EmployeeBatchResult conflict(int index, Employee employee) {
+        return new EmployeeBatchResult(index, Status.CONFLICT, employee,
+                "already exists with given email : " + employee.getEmail());
+    }
+
+    public static EmployeeBatchResult failed(int index, Employee employee, String message) {
+        return new EmployeeBatchResult(index, Status.FAILED, employee, message);
+    }
+}
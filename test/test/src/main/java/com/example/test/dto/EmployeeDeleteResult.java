@@ -0,0 +1,12 @@
+package com.example.test.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// outcome of DELETE /api/employees, deleted is the number of rows actually removed
+@AllArgsConstructor
+@Getter
+public class EmployeeDeleteResult {
+
+    private long deleted;
+}
@@ -0,0 +1,150 @@
+package com.example.test.dto;
+
+import com.example.test.exception.InvalidFieldsException;
+import com.example.test.model.Employee;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// sparse fieldset of GET /api/employees?fields=id,email and GET /api/employees/{id}?fields=email :
+// the Employee attributes a client reads. the id is always selected (rows are ordered and merged by it)
+// but only written out when asked for. parsed once per distinct fields= value, later requests get the cached
+// instance with its select lists and accessors ready, nothing is looked up by reflection per request
+public final class EmployeeFields {
+
+    // distinct fields= values kept, the valid combinations are few but spelling (order, spaces) is free
+    static final int MAX_CACHED = 1_024;
+
+    private static final Map<String, EmployeeFields> CACHE = new ConcurrentHashMap<>();
+
+    // declaration order is the order of the selected columns and of the written properties
+    private enum Field {
+        ID("id", "id", Employee::getId),
+        FIRST_NAME("firstName", "first_name", Employee::getFirstName),
+        LAST_NAME("lastName", "last_name", Employee::getLastName),
+        EMAIL("email", "email", Employee::getEmail),
+        VERSION("version", "version", Employee::getVersion);
+
+        private final String property;
+        private final String column;
+        private final Function<Employee, Object> accessor;
+
+        Field(String property, String column, Function<Employee, Object> accessor) {
+            this.property = property;
+            this.column = column;
+            this.accessor = accessor;
+        }
+    }
+
+    private static final Map<String, Field> BY_PROPERTY = Collections.unmodifiableMap(EnumSet.allOf(Field.class).stream()
+            .collect(Collectors.toMap(field -> field.property, field -> field)));
+
+    // the selected fields, requested ones plus the id
+    private final List<Field> selected;
+
+    // per selected field, whether the client asked for it
+    private final boolean[] written;
+
+    private final int writtenCount;
+
+    private final String jpqlSelect;
+
+    private final String sqlColumns;
+
+    private EmployeeFields(Set<Field> requested) {
+        Set<Field> selected = EnumSet.copyOf(requested);
+        selected.add(Field.ID);
+        this.selected = List.copyOf(selected);
+        this.written = new boolean[this.selected.size()];
+        for (int i = 0; i < written.length; i++) {
+            written[i] = requested.contains(this.selected.get(i));
+        }
+        this.writtenCount = requested.size();
+        this.jpqlSelect = this.selected.stream().map(field -> "e." + field.property).collect(Collectors.joining(", "));
+        this.sqlColumns = this.selected.stream().map(field -> field.column).collect(Collectors.joining(", "));
+    }
+
+    // comma separated attribute names, unknown or missing ones are rejected
+    public static EmployeeFields parse(String fields) {
+        if (fields == null) {
+            throw new InvalidFieldsException("fields must list at least one of " + BY_PROPERTY.keySet());
+        }
+        EmployeeFields cached = CACHE.get(fields);
+        if (cached != null) {
+            return cached;
+        }
+        EmployeeFields parsed = new EmployeeFields(validate(fields));
+        // once full, new spellings are parsed on every request instead of growing the cache
+        if (CACHE.size() < MAX_CACHED) {
+            CACHE.putIfAbsent(fields, parsed);
+        }
+        return parsed;
+    }
+
+    private static Set<Field> validate(String fields) {
+        Set<Field> requested = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            Field field = BY_PROPERTY.get(property);
+            if (field == null) {
+                throw new InvalidFieldsException("unknown field : " + property + ", expected one of " + BY_PROPERTY.keySet());
+            }
+            requested.add(field);
+        }
+        if (requested.isEmpty()) {
+            throw new InvalidFieldsException("fields must list at least one of " + BY_PROPERTY.keySet());
+        }
+        return requested;
+    }
+
+    // e.id, e.email : the JPQL select list, id first
+    public String getJpqlSelect() {
+        return jpqlSelect;
+    }
+
+    // id, email : the column list for plain SQL, same order as the JPQL one
+    public String getSqlColumns() {
+        return sqlColumns;
+    }
+
+    public int getColumnCount() {
+        return selected.size();
+    }
+
+    // the requested attributes of one selected row, values in getSqlColumns order
+    public Map<String, Object> fromRow(Object[] row) {
+        Map<String, Object> view = new LinkedHashMap<>(capacity());
+        for (int i = 0; i < written.length; i++) {
+            if (written[i]) {
+                view.put(selected.get(i).property, row[i]);
+            }
+        }
+        return view;
+    }
+
+    // the requested attributes of an already loaded employee (e.g. from the cache)
+    public Map<String, Object> project(Employee employee) {
+        Map<String, Object> view = new LinkedHashMap<>(capacity());
+        for (int i = 0; i < written.length; i++) {
+            if (written[i]) {
+                Field field = selected.get(i);
+                view.put(field.property, field.accessor.apply(employee));
+            }
+        }
+        return view;
+    }
+
+    private int capacity() {
+        return writtenCount * 4 / 3 + 1;
+    }
+}
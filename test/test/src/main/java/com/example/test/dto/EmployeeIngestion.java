@@ -0,0 +1,39 @@
+package com.example.test.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// state of one write-behind create, polled at GET /api/employees/ingestions/{trackingId}.
+// employeeId is set once the row is committed
+@AllArgsConstructor
+@Getter
+public class EmployeeIngestion {
+
+    public enum Status {
+        PENDING, CREATED, CONFLICT, FAILED
+    }
+
+    private String trackingId;
+
+    private Status status;
+
+    private Long employeeId;
+
+    private String message;
+
+    public static EmployeeIngestion pending(String trackingId) {
+        return new EmployeeIngestion(trackingId, Status.PENDING, null, null);
+    }
+
+    public static EmployeeIngestion created(String trackingId, long employeeId) {
+        return new EmployeeIngestion(trackingId, Status.CREATED, employeeId, null);
+    }
+
+    public static EmployeeIngestion conflict(String trackingId, String email) {
+        return new EmployeeIngestion(trackingId, Status.CONFLICT, null, "already exists with given email : " + email);
+    }
+
+    public static EmployeeIngestion failed(String trackingId, String message) {
+        return new EmployeeIngestion(trackingId, Status.FAILED, null, message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.test.dto;
+
+import com.example.test.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// one page of a keyset (seek) listing, nextCursor is null on the last page
+@AllArgsConstructor
+@Getter
+public class EmployeePage {
+
+    private List<Employee> content;
+
+    private String nextCursor;
+}
@@ -0,0 +1,83 @@
+package com.example.test.dto;
+
+import com.example.test.exception.InvalidPatchException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// JSON Merge Patch (RFC 7396) of an employee : only the members present in the document are changed.
+// keys are Employee attribute names, a null member would remove the field and every column is not null
+public class EmployeePatch {
+
+    public static final Set<String> PATCHABLE = Set.of("firstName", "lastName", "email");
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "email", "email");
+
+    private final Map<String, String> changes;
+
+    private EmployeePatch(Map<String, String> changes) {
+        this.changes = changes;
+    }
+
+    public static EmployeePatch of(Map<String, String> changes) {
+        validate(changes);
+        return new EmployeePatch(Collections.unmodifiableMap(new LinkedHashMap<>(changes)));
+    }
+
+    public static EmployeePatch fromMergePatch(JsonNode document) {
+        if (document == null || !document.isObject()) {
+            throw new InvalidPatchException("merge patch must be a JSON object");
+        }
+        Map<String, String> changes = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = document.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (!value.isNull() && !value.isTextual()) {
+                throw new InvalidPatchException(field.getKey() + " must be a string or null");
+            }
+            changes.put(field.getKey(), value.isNull() ? null : value.textValue());
+        }
+        return of(changes);
+    }
+
+    private static void validate(Map<String, String> changes) {
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            if (!PATCHABLE.contains(change.getKey())) {
+                throw new InvalidPatchException("field can not be patched : " + change.getKey());
+            }
+        }
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                throw new InvalidPatchException("field can not be removed : " + change.getKey());
+            }
+        }
+    }
+
+    public Map<String, String> getChanges() {
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public String getEmail() {
+        return changes.get("email");
+    }
+
+    // UPDATE employees SET <patched columns>, version = version + 1 WHERE id = :id, one named parameter per
+    // patched attribute (its key) plus :id. only the column names of PATCHABLE attributes end up in the text
+    public String toUpdateSql() {
+        StringBuilder sql = new StringBuilder("UPDATE employees SET ");
+        changes.keySet().forEach(field -> sql.append(COLUMNS.get(field)).append(" = :").append(field).append(", "));
+        return sql.append("version = version + 1 WHERE id = :id").toString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.test.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// GET /api/employees?view=summary : only what list consumers read, built straight from the id and email columns.
+// immutable, there is no entity behind it to track
+@AllArgsConstructor
+@Getter
+public class EmployeeSummary {
+
+    private final long id;
+
+    private final String email;
+}
@@ -0,0 +1,14 @@
+package com.example.test.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// every database permit stayed taken for longer than employee.bulkhead.max-wait,
+// or the first employee list (EmployeeListCache) was not built within employee.list-cache.max-wait
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DatabaseBusyException extends RuntimeException {
+
+    public DatabaseBusyException(String message){
+        super(message);
+    }
+}
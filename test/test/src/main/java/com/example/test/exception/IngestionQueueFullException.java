@@ -0,0 +1,13 @@
+package com.example.test.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// the write-behind queue is at employee.write-behind.queue-capacity, the client should slow down and retry
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class IngestionQueueFullException extends RuntimeException {
+
+    public IngestionQueueFullException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.test.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidDeleteFilterException extends RuntimeException {
+
+    public InvalidDeleteFilterException(String message){
+        super(message);
+    }
+}
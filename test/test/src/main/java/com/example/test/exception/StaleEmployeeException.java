@@ -0,0 +1,17 @@
+package com.example.test.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// the update was based on a version of the employee that is no longer current
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class StaleEmployeeException extends RuntimeException {
+
+    public StaleEmployeeException(String message){
+        super(message);
+    }
+
+    public StaleEmployeeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
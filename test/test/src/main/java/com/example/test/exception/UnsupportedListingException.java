@@ -0,0 +1,13 @@
+package com.example.test.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// listing parameters that have no endpoint together, answered 400 instead of silently dropping one of them
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedListingException extends RuntimeException {
+
+    public UnsupportedListingException(String message){
+        super(message);
+    }
+}
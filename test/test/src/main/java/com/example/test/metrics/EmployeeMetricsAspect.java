@@ -0,0 +1,144 @@
+package com.example.test.metrics;
+
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.exception.StaleEmployeeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// one timer per layer : employee.controller, employee.service and employee.repository (every query method,
+// the name finders included), tagged by method and outcome. percentile histograms are switched on in
+// application.properties (management.metrics.distribution.percentiles-histogram.employee)
+@Aspect
+@Component
+public class EmployeeMetricsAspect {
+
+    public static final String FOUND = "found";
+    public static final String NOT_FOUND = "not_found";
+    public static final String CONFLICT = "conflict";
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Layer controller = new Layer("employee.controller");
+
+    private final Layer service = new Layer("employee.service");
+
+    private final Layer repository = new Layer("employee.repository");
+
+    public EmployeeMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // the export endpoint only counts until the streaming body is handed to spring mvc
+    @Around("within(com.example.test.controller.EmployeeController)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(controller, joinPoint);
+    }
+
+    @Around("execution(public * com.example.test.service.EmployeeService+.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(service, joinPoint);
+    }
+
+    @Around("execution(public * com.example.test.repository.EmployeeRepository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(repository, joinPoint);
+    }
+
+    private Object time(Layer layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = outcome(result);
+            return result;
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            sample.stop(layer.timer(((MethodSignature) joinPoint.getSignature()).getMethod(), outcome));
+        }
+    }
+
+    // the timers of one layer by method and outcome, built and registered on first use :
+    // after that a call costs two map lookups instead of a builder and a registry lookup
+    private final class Layer {
+
+        private final String name;
+
+        private final ConcurrentMap<Method, ConcurrentMap<String, Timer>> timers = new ConcurrentHashMap<>();
+
+        Layer(String name) {
+            this.name = name;
+        }
+
+        Timer timer(Method method, String outcome) {
+            ConcurrentMap<String, Timer> byOutcome = timers.get(method);
+            if (byOutcome == null) {
+                byOutcome = timers.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+            }
+            Timer timer = byOutcome.get(outcome);
+            if (timer == null) {
+                timer = byOutcome.computeIfAbsent(outcome, key -> Timer.builder(name)
+                        .tag("method", method.getName())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+            return timer;
+        }
+    }
+
+    // lookups are found / not_found by their result, writes that hit nothing (0 rows, false) are not_found
+    static String outcome(Object result) {
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? FOUND : NOT_FOUND;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).isEmpty() ? NOT_FOUND : FOUND;
+        }
+        if (result instanceof Boolean) {
+            return (Boolean) result ? SUCCESS : NOT_FOUND;
+        }
+        if (result instanceof Integer) {
+            return (Integer) result > 0 ? SUCCESS : NOT_FOUND;
+        }
+        if (result instanceof ResponseEntity) {
+            HttpStatus status = ((ResponseEntity<?>) result).getStatusCode();
+            if (status == HttpStatus.NOT_FOUND) {
+                return NOT_FOUND;
+            }
+            if (status == HttpStatus.CONFLICT || status == HttpStatus.PRECONDITION_FAILED) {
+                return CONFLICT;
+            }
+            return status.is2xxSuccessful() || status == HttpStatus.NOT_MODIFIED ? SUCCESS : ERROR;
+        }
+        return SUCCESS;
+    }
+
+    // duplicate emails and stale versions are expected conflicts, not errors
+    static String outcome(Throwable error) {
+        if (error instanceof DuplicateEmailException
+                || error instanceof StaleEmployeeException
+                || error instanceof DataIntegrityViolationException
+                || error instanceof OptimisticLockingFailureException) {
+            return CONFLICT;
+        }
+        return ERROR;
+    }
+}
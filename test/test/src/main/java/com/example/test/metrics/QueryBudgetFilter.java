@@ -0,0 +1,50 @@
+package com.example.test.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// counts the statements of every request into employee.request.queries and, past the budget,
+// logs a warning and increments employee.request.queries.over.budget so N+1 regressions show up in prometheus.
+// the rows a streaming export writes after the handler returned are not counted
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    private final int budget;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry, int budget) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try (QueryCount count = QueryCount.open()) {
+            filterChain.doFilter(request, response);
+            record(request, count);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCount count) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        int total = count.total();
+        meterRegistry.summary("employee.request.queries", "method", request.getMethod(), "uri", uri)
+                .record(total);
+        if (total > budget) {
+            meterRegistry.counter("employee.request.queries.over.budget", "method", request.getMethod(), "uri", uri)
+                    .increment();
+            log.warn("{} {} ran {} statements, budget is {} ({})", request.getMethod(), uri, total, budget, count);
+        }
+    }
+}
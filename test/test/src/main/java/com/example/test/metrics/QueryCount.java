@@ -0,0 +1,79 @@
+package com.example.test.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// statements sent to the database by the current thread while this count is open.
+// counts nest : the request filter and a test can both count the same statements.
+// a PreparedStatement counts once however many rows are batched into it, like hibernate's prepare count
+public final class QueryCount implements AutoCloseable {
+
+    public enum Type { SELECT, INSERT, UPDATE, DELETE, OTHER }
+
+    private static final ThreadLocal<List<QueryCount>> OPEN = ThreadLocal.withInitial(ArrayList::new);
+
+    private final Map<Type, Integer> counts = new EnumMap<>(Type.class);
+
+    private QueryCount() {
+    }
+
+    public static QueryCount open() {
+        QueryCount count = new QueryCount();
+        OPEN.get().add(count);
+        return count;
+    }
+
+    static void record(String sql) {
+        List<QueryCount> open = OPEN.get();
+        if (open.isEmpty()) {
+            return;
+        }
+        Type type = typeOf(sql);
+        for (QueryCount count : open) {
+            count.counts.merge(type, 1, Integer::sum);
+        }
+    }
+
+    // sequence fetches (call next value for ...) and anything else fall into OTHER
+    static Type typeOf(String sql) {
+        String statement = sql.stripLeading();
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        switch (statement.substring(0, end).toLowerCase(Locale.ROOT)) {
+            case "select":
+                return Type.SELECT;
+            case "insert":
+                return Type.INSERT;
+            case "update":
+                return Type.UPDATE;
+            case "delete":
+                return Type.DELETE;
+            default:
+                return Type.OTHER;
+        }
+    }
+
+    public int get(Type type) {
+        return counts.getOrDefault(type, 0);
+    }
+
+    public int total() {
+        return counts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public void close() {
+        OPEN.get().remove(this);
+    }
+
+    @Override
+    public String toString() {
+        return "select=" + get(Type.SELECT) + ", insert=" + get(Type.INSERT) + ", update=" + get(Type.UPDATE)
+                + ", delete=" + get(Type.DELETE) + ", other=" + get(Type.OTHER);
+    }
+}
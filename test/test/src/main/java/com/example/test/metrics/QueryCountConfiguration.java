@@ -0,0 +1,35 @@
+package com.example.test.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// statement counting : the pool is wrapped once, before hibernate and the jdbc templates get hold of it,
+// and every request is checked against employee.query-budget.per-request.
+// a configuration rather than components so @WebMvcTest slices without a datasource or registry skip it
+@Configuration
+public class QueryCountConfiguration {
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof QueryCountingDataSource)) {
+                    return new QueryCountingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public QueryBudgetFilter queryBudgetFilter(MeterRegistry meterRegistry,
+                                               @Value("${employee.query-budget.per-request:50}") int budget) {
+        return new QueryBudgetFilter(meterRegistry, budget);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.test.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// hands out connections that report every statement to QueryCount : prepareStatement / prepareCall when
+// the statement is prepared, plain Statements when they execute or batch a sql string.
+// the pool stays reachable through DelegatingDataSource, so the hikari metrics still bind to it
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            String name = method.getName();
+            if ((name.equals("prepareStatement") || name.equals("prepareCall")) && args != null) {
+                QueryCount.record((String) args[0]);
+            }
+            Object result = invoke(connection, method, args);
+            if (name.equals("createStatement")) {
+                return counting((Statement) result);
+            }
+            return result;
+        });
+    }
+
+    private static Statement counting(Statement statement) {
+        return proxy(Statement.class, statement, (proxy, method, args) -> {
+            String name = method.getName();
+            if ((name.startsWith("execute") || name.equals("addBatch"))
+                    && args != null && args.length > 0 && args[0] instanceof String) {
+                QueryCount.record((String) args[0]);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.test.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// one executed statement : binds is the number of parameters sent (all rows of a batch),
+// rows the rows read by a query or written by an update, -1 when the driver does not say
+@Getter
+@AllArgsConstructor
+public class SqlTrace {
+
+    private final String sql;
+    private final int binds;
+    private final long durationNanos;
+    private final long rows;
+    private final boolean slow;
+}
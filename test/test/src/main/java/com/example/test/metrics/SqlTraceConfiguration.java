@@ -0,0 +1,40 @@
+package com.example.test.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// sql trace in front of the pool, see SqlTraceLog. the log is looked up lazily so the post processor
+// does not pull the meter registry in before the metrics binders are ready
+@Configuration
+public class SqlTraceConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public SqlTraceLog sqlTraceLog(MeterRegistry meterRegistry,
+                                   @Value("${employee.sql-trace.enabled:true}") boolean enabled,
+                                   @Value("${employee.sql-trace.slow-threshold:100ms}") Duration slowThreshold,
+                                   @Value("${employee.sql-trace.sample-rate:0}") double sampleRate,
+                                   @Value("${employee.sql-trace.buffer-size:1024}") int bufferSize) {
+        return new SqlTraceLog(enabled, slowThreshold, sampleRate, bufferSize,
+                meterRegistry.counter("employee.sql.trace.dropped"));
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlTraceDataSourcePostProcessor(ObjectProvider<SqlTraceLog> sqlTraceLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof SqlTraceDataSource)) {
+                    return new SqlTraceDataSource((DataSource) bean, sqlTraceLog.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.test.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+// times every statement from execute to the close of its ResultSet (queries) or to the update count (writes)
+// and reports it to SqlTraceLog with its bind count and rows. while tracing is disabled the pool's own
+// connections are handed out untouched
+public class SqlTraceDataSource extends DelegatingDataSource {
+
+    private final SqlTraceLog traceLog;
+
+    public SqlTraceDataSource(DataSource targetDataSource, SqlTraceLog traceLog) {
+        super(targetDataSource);
+        this.traceLog = traceLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return tracing(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return tracing(super.getConnection(username, password));
+    }
+
+    private Connection tracing(Connection connection) {
+        if (!traceLog.isEnabled()) {
+            return connection;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            String name = method.getName();
+            if (name.equals("prepareStatement") || name.equals("prepareCall")) {
+                return proxy(method.getReturnType(), new Traced((Statement) result, (String) args[0]));
+            }
+            if (name.equals("createStatement")) {
+                return proxy(Statement.class, new Traced((Statement) result, null));
+            }
+            return result;
+        });
+    }
+
+    // per statement state : parameters bound since the last execute, and the query whose ResultSet is still open
+    private class Traced implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+
+        private int binds;
+        private int batchedBinds;
+        private OpenQuery openQuery;
+
+        Traced(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                binds = Math.max(binds, (Integer) args[0]);
+            } else if (name.equals("clearParameters")) {
+                binds = 0;
+            } else if (name.equals("addBatch") && preparedSql != null) {
+                batchedBinds += binds;
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            } else if (name.equals("close")) {
+                finishQuery();
+            }
+            return SqlTraceDataSource.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishQuery();
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            if (sql == null) {
+                // executeBatch of a plain Statement, its sql strings went through addBatch
+                sql = "<batch>";
+            }
+            int sentBinds = method.getName().contains("Batch") ? batchedBinds : binds;
+            batchedBinds = 0;
+            long start = System.nanoTime();
+            Object result = SqlTraceDataSource.invoke(statement, method, args);
+            if (result instanceof ResultSet) {
+                openQuery = new OpenQuery(sql, sentBinds, start, (ResultSet) result);
+                return proxy(ResultSet.class, openQuery);
+            }
+            traceLog.record(sql, sentBinds, System.nanoTime() - start, rows(result));
+            return result;
+        }
+
+        private long rows(Object result) throws SQLException {
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            if (result instanceof int[]) {
+                long rows = 0;
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            if (result instanceof long[]) {
+                long rows = 0;
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            // execute(): an update count, or -1 when it produced a result set
+            return statement.getUpdateCount();
+        }
+
+        // closing the statement also closes its ResultSet without going through our proxy
+        private void finishQuery() {
+            if (openQuery != null) {
+                openQuery.finish();
+                openQuery = null;
+            }
+        }
+    }
+
+    private class OpenQuery implements InvocationHandler {
+
+        private final String sql;
+        private final int binds;
+        private final long start;
+        private final ResultSet resultSet;
+
+        private long rows;
+        private boolean finished;
+
+        OpenQuery(String sql, int binds, long start, ResultSet resultSet) {
+            this.sql = sql;
+            this.binds = binds;
+            this.start = start;
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTraceDataSource.invoke(resultSet, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (name.equals("close")) {
+                finish();
+            }
+            return result;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                traceLog.record(sql, binds, System.nanoTime() - start, rows);
+            }
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlTraceDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
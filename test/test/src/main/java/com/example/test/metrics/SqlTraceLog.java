@@ -0,0 +1,109 @@
+package com.example.test.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+// replaces spring.jpa.show-sql : keeps statements slower than the threshold plus a sampled fraction of the rest,
+// and hands them to a single writer thread through a bounded buffer. a full buffer drops the trace
+// (counted in employee.sql.trace.dropped) so request threads never wait on log I/O.
+// logged under the sql.trace logger, one key=value line per statement
+@Slf4j(topic = "sql.trace")
+public class SqlTraceLog implements AutoCloseable {
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final BlockingQueue<SqlTrace> buffer;
+
+    private final Consumer<SqlTrace> sink;
+
+    private final Counter dropped;
+
+    private final Thread writer;
+
+    private volatile boolean enabled;
+
+    private volatile long slowThresholdNanos;
+
+    private volatile double sampleRate;
+
+    public SqlTraceLog(boolean enabled, Duration slowThreshold, double sampleRate, int bufferSize, Counter dropped) {
+        this(enabled, slowThreshold, sampleRate, bufferSize, dropped, SqlTraceLog::write);
+    }
+
+    SqlTraceLog(boolean enabled, Duration slowThreshold, double sampleRate, int bufferSize, Counter dropped,
+                Consumer<SqlTrace> sink) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.dropped = dropped;
+        this.sink = sink;
+        this.writer = new Thread(this::drain, "sql-trace-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // switched at runtime, connections taken while disabled are not traced at all
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public void record(String sql, int binds, long durationNanos, long rows) {
+        boolean slow = durationNanos >= slowThresholdNanos;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        if (!buffer.offer(new SqlTrace(sql, binds, durationNanos, rows, slow))) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        List<SqlTrace> batch = new ArrayList<>(DRAIN_BATCH);
+        try {
+            while (true) {
+                batch.add(buffer.take());
+                buffer.drainTo(batch, DRAIN_BATCH - 1);
+                batch.forEach(sink);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // closing, whatever is still buffered is written by close()
+        }
+    }
+
+    private static void write(SqlTrace trace) {
+        log.info("duration_ms={} rows={} binds={} slow={} sql=\"{}\"",
+                String.format("%.3f", trace.getDurationNanos() / 1_000_000.0),
+                trace.getRows(), trace.getBinds(), trace.isSlow(), trace.getSql());
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        writer.interrupt();
+        writer.join();
+        List<SqlTrace> rest = new ArrayList<>();
+        buffer.drainTo(rest);
+        rest.forEach(sink);
+    }
+}
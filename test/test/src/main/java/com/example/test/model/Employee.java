@@ -1,6 +1,8 @@
 package com.example.test.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -8,14 +10,36 @@ import javax.persistence.*;
 @NoArgsConstructor
 @Setter
 @Getter
-@Builder
+@Builder(toBuilder = true)
 
 @Entity
-@Table(name = "employees")
+// the reactive profile maps the same class through spring data r2dbc (ReactiveEmployeeRepository),
+// the id comes from ReactiveEmployeeIdAllocator and the version check is written out in the UPDATE
+@org.springframework.data.relational.core.mapping.Table("employees")
+@javax.persistence.Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
+@Table(name = "employees", indexes = {
+        @Index(name = Employee.EMAIL_INDEX, columnList = "email", unique = true),
+        // backs the name finders in EmployeeRepository, last_name first so it also serves last name only lookups
+        @Index(name = "ix_employees_last_first", columnList = "last_name, first_name")
+})
 public class Employee {
 
+    // the unique index is what guarantees one employee per email, see EmployeeServiceImpl.saveEmployee
+    public static final String EMAIL_INDEX = "ux_employees_email";
+
+    // second level cache region, sized in application.conf (caffeine jcache can not address dotted names)
+    public static final String CACHE_REGION = "employees";
+
+    // ids handed out per sequence round trip, also used by ReactiveEmployeeIdAllocator
+    public static final int ID_ALLOCATION = 50;
+
+    // pooled sequence instead of IDENTITY so hibernate can batch inserts,
+    // one sequence round trip hands out 50 ids (a table emulates the sequence on MySQL)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = ID_ALLOCATION)
     private long id;
 
     @Column(name = "first_name", nullable = false)
@@ -26,4 +50,10 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    // bumped by every update, UPDATE ... WHERE version = ? rejects writes based on a stale copy.
+    // also the strong ETag of GET /api/employees/{id}
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -1,29 +1,93 @@
 package com.example.test.repository;
 
+import com.example.test.dto.EmployeeSummary;
 import com.example.test.model.Employee;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
+
+    // findByEmail and the name finders go through the hibernate query cache, any write to employees invalidates them
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Employee> findByEmail(String email);
 
+    // set based duplicate check for bulk creates, one query for a whole chunk of emails
+    @Query("SELECT e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // the name finders below return every match and are served by the ix_employees_last_first index
+
     // define custom query using JPQL with index params
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT e from Employee e where e.firstName = ?1 and e.lastName = ?2")
-    Employee findByJPQL(String firstName, String lastName);
+    List<Employee> findByJPQL(String firstName, String lastName);
 
     // define custom query using JPQL with named params
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query("SELECT e from Employee e where e.firstName = :firstName and e.lastName = :lastName")
-    Employee findByJPQLNamedParams(@Param("firstName") String firstName,@Param("lastName") String lastName);
+    List<Employee> findByJPQLNamedParams(@Param("firstName") String firstName,@Param("lastName") String lastName);
 
     // define custom query using Native SQL with index params
+    // native queries declare their table as query space, otherwise the cached result is never invalidated
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_NATIVE_SPACES, value = "employees")
+    })
     @Query(value = "select * from employees e where e.first_name =?1 and e.last_name =?2", nativeQuery = true)
-    Employee findByNativeSQL(String firstName, String lastName);
+    List<Employee> findByNativeSQL(String firstName, String lastName);
 
     // define custom query using Native SQL with index params
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_NATIVE_SPACES, value = "employees")
+    })
     @Query(value = "SELECT * from employees e where e.first_name = :firstName and e.last_name= :lastName", nativeQuery = true)
-    Employee findByNativeSQLNamed(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    List<Employee> findByNativeSQLNamed(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    // id and email only through a constructor expression : no managed entity, no snapshot for dirty checking,
+    // nothing put into the persistence context or the second level cache
+    @Query("SELECT new com.example.test.dto.EmployeeSummary(e.id, e.email) from Employee e order by e.id")
+    List<EmployeeSummary> findAllSummaries();
+
+    // keyset (seek) pagination : WHERE id > :after ORDER BY id LIMIT n, n comes from pageable.getPageSize()
+    // cost stays flat however deep the page is, unlike OFFSET which scans and discards the skipped rows
+    @Query("SELECT e from Employee e where e.id > :after order by e.id")
+    List<Employee> findPageAfter(@Param("after") long after, Pageable pageable);
+
+    // forward-only cursor over the whole table, rows are fetched from the driver in chunks of the fetch size
+    // must be consumed inside a transaction and closed, see EmployeeServiceImpl.exportEmployees
+    // the export bypasses the second level cache so it does not flush the hot entries out
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT e from Employee e order by e.id")
+    Stream<Employee> streamAll();
+
+    // only the email column, used to seed EmailBloomFilter at startup
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.email from Employee e")
+    Stream<String> streamAllEmails();
+
+    // next chunk of ids matching a bulk delete filter, walked in id order so each chunk is a short transaction
+    @Query("SELECT e.id from Employee e where e.id > :after and e.lastName = :lastName"
+            + " and (:firstName is null or e.firstName = :firstName) order by e.id")
+    List<Long> findIdsByNameAfter(@Param("after") long after, @Param("lastName") String lastName,
+                                  @Param("firstName") String firstName, Pageable pageable);
 }
@@ -0,0 +1,25 @@
+package com.example.test.repository;
+
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePatch;
+
+import java.util.Collection;
+import java.util.List;
+
+// hand written queries that spring data can not derive, implemented in EmployeeRepositoryCustomImpl
+public interface EmployeeRepositoryCustom {
+
+    // one UPDATE employees SET <patched columns> WHERE id = ?, returns the affected row count
+    int patch(long id, EmployeePatch patch);
+
+    // DELETE ... WHERE id = ? without loading the entity first (deleteById selects, then deletes),
+    // returns the affected row count. each call commits on its own unless the caller holds a transaction.
+    // the persistence context is cleared afterwards so it does not keep handing out the deleted entity
+    int deleteRowById(long id);
+
+    // one chunk of a bulk delete, see EmployeeServiceImpl.deleteEmployees
+    int deleteRowsByIds(Collection<Long> ids);
+
+    // SELECT <only the requested columns> FROM employees ORDER BY id, one row of values per employee
+    List<Object[]> findAllFields(EmployeeFields fields);
+}
@@ -0,0 +1,89 @@
+package com.example.test.repository;
+
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.model.Employee;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // single UPDATE, nothing is loaded : the set clause only lists the columns present in the patch
+    // (plus the version bump, a statement does not touch it on its own)
+    @Override
+    public int patch(long id, EmployeePatch patch) {
+        Query update = entityManager.createNativeQuery(patch.toUpdateSql()).setParameter("id", id);
+        for (Map.Entry<String, String> change : patch.getChanges().entrySet()) {
+            update.setParameter(change.getKey(), change.getValue());
+        }
+        return executeRowWrite(update, List.of(id));
+    }
+
+    @Transactional
+    @Override
+    public int deleteRowById(long id) {
+        return deleteRows(List.of(id));
+    }
+
+    @Transactional
+    @Override
+    public int deleteRowsByIds(Collection<Long> ids) {
+        return deleteRows(ids);
+    }
+
+    private int deleteRows(Collection<Long> ids) {
+        Query delete = entityManager.createNativeQuery("DELETE FROM employees WHERE id IN (:ids)").setParameter("ids", ids);
+        int deleted = executeRowWrite(delete, ids);
+        entityManager.clear();
+        return deleted;
+    }
+
+    // scalar query, like findAllSummaries : no entity is built or managed. read as tuples so a single column
+    // still comes back as a row. the select list text comes from the validated EmployeeFields, never from the request
+    @Override
+    public List<Object[]> findAllFields(EmployeeFields fields) {
+        return entityManager.createQuery("SELECT " + fields.getJpqlSelect() + " from Employee e order by e.id", Tuple.class)
+                .getResultList().stream()
+                .map(Tuple::toArray)
+                .collect(Collectors.toList());
+    }
+
+    // a JPQL or criteria bulk statement (or a native one synchronized on employees) makes hibernate evict the whole
+    // employees entity region. the statement runs synchronized on an empty query space instead, so that cleanup
+    // touches nothing, and the part of it these rows need is done here : the cached queries over employees are
+    // invalidated like after any entity write (before the statement and again after the commit), and only the
+    // written ids leave the entity region, again after the commit so a read racing the transaction can not
+    // put the old row back
+    private int executeRowWrite(Query statement, Collection<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        TimestampsCache queryTimestamps = session.getFactory().getCache().getTimestampsCache();
+        String[] querySpaces = (String[]) session.getFactory().getMetamodel().entityPersister(Employee.class).getQuerySpaces();
+        Cache entities = entityManager.getEntityManagerFactory().getCache();
+
+        entityManager.flush();
+        queryTimestamps.preInvalidate(querySpaces, session);
+        int rows = statement.unwrap(NativeQuery.class).addSynchronizedQuerySpace("").executeUpdate();
+        ids.forEach(id -> entities.evict(Employee.class, id));
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) -> {
+            queryTimestamps.invalidate(querySpaces, completed);
+            ids.forEach(id -> entities.evict(Employee.class, id));
+        });
+        return rows;
+    }
+}
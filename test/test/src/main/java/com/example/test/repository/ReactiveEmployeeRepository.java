@@ -0,0 +1,132 @@
+package com.example.test.repository;
+
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeeSummary;
+import com.example.test.model.Employee;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.by;
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+// R2DBC counterpart of EmployeeRepository for the reactive profile, same table and indexes.
+// a class over R2dbcEntityTemplate rather than an R2dbcRepository interface : Employee is also a JPA @Entity,
+// so spring data jpa would claim (and reject) a reactive repository interface for it in the servlet stack
+@Repository
+@Profile("reactive")
+public class ReactiveEmployeeRepository {
+
+    private R2dbcEntityTemplate template;
+
+    private DatabaseClient databaseClient;
+
+    public ReactiveEmployeeRepository(R2dbcEntityTemplate template) {
+        this.template = template;
+        this.databaseClient = template.getDatabaseClient();
+    }
+
+    public Mono<Employee> findById(long id) {
+        return template.selectOne(query(where("id").is(id)), Employee.class);
+    }
+
+    public Mono<Boolean> existsById(long id) {
+        return template.exists(query(where("id").is(id)), Employee.class);
+    }
+
+    public Mono<Long> count() {
+        return template.count(query(where("id").isNotNull()), Employee.class);
+    }
+
+    public Flux<String> findExistingEmails(Collection<String> emails) {
+        return databaseClient.sql("SELECT email FROM employees WHERE email IN (:emails)")
+                .bind("emails", emails)
+                .map(row -> row.get("email", String.class))
+                .all();
+    }
+
+    public Flux<Employee> findByFirstNameAndLastName(String firstName, String lastName) {
+        return template.select(query(where("first_name").is(firstName).and("last_name").is(lastName)), Employee.class);
+    }
+
+    // keyset page, see EmployeeRepository.findPageAfter
+    public Flux<Employee> findPageAfter(long after, int limit) {
+        return template.select(query(where("id").greaterThan(after)).sort(by(ASC, "id")).limit(limit), Employee.class);
+    }
+
+    // rows are emitted as the driver reads them, demand from the subscriber paces the fetch
+    public Flux<Employee> streamAll() {
+        return template.select(query(where("id").isNotNull()).sort(by(ASC, "id")), Employee.class);
+    }
+
+    // id and email only, mapped straight from the row
+    public Flux<EmployeeSummary> streamSummaries() {
+        return databaseClient.sql("SELECT id, email FROM employees ORDER BY id")
+                .map((row, metadata) -> new EmployeeSummary(row.get("id", Long.class), row.get("email", String.class)))
+                .all();
+    }
+
+    // only the columns of a validated sparse fieldset, values in EmployeeFields.getSqlColumns order
+    public Flux<Object[]> streamFields(EmployeeFields fields) {
+        return databaseClient.sql("SELECT " + fields.getSqlColumns() + " FROM employees ORDER BY id")
+                .map((row, metadata) -> {
+                    Object[] values = new Object[fields.getColumnCount()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = row.get(i);
+                    }
+                    return values;
+                })
+                .all();
+    }
+
+    // a version check in the WHERE clause instead of a read before the write, 0 rows when the version moved on
+    public Mono<Integer> updateIfVersion(long id, long version, String firstName, String lastName, String email) {
+        return databaseClient.sql("UPDATE employees SET first_name = :firstName, last_name = :lastName, email = :email,"
+                        + " version = version + 1 WHERE id = :id AND version = :version")
+                .bind("firstName", firstName)
+                .bind("lastName", lastName)
+                .bind("email", email)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> deleteRowById(long id) {
+        return template.delete(query(where("id").is(id)), Employee.class);
+    }
+
+    public Mono<Integer> deleteRowsByIds(Collection<Long> ids) {
+        return template.delete(query(where("id").in(ids)), Employee.class);
+    }
+
+    public Mono<Integer> deleteAll() {
+        return databaseClient.sql("DELETE FROM employees").fetch().rowsUpdated();
+    }
+
+    public Flux<Long> findIdsByLastNameAfter(long after, String lastName, int limit) {
+        return databaseClient.sql("SELECT id FROM employees WHERE id > :after AND last_name = :lastName ORDER BY id LIMIT :limit")
+                .bind("after", after)
+                .bind("lastName", lastName)
+                .bind("limit", limit)
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+
+    public Flux<Long> findIdsByNameAfter(long after, String lastName, String firstName, int limit) {
+        return databaseClient.sql("SELECT id FROM employees WHERE id > :after AND last_name = :lastName AND first_name = :firstName"
+                        + " ORDER BY id LIMIT :limit")
+                .bind("after", after)
+                .bind("lastName", lastName)
+                .bind("firstName", firstName)
+                .bind("limit", limit)
+                .map(row -> row.get("id", Long.class))
+                .all();
+    }
+}
@@ -1,14 +1,31 @@
 package com.example.test.service;
 
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeDeleteResult;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.dto.EmployeeSummary;
 import com.example.test.model.Employee;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
+    List<EmployeeBatchResult> saveEmployees(List<Employee> employees);
     List<Employee> getAllEmployees();
+    List<EmployeeSummary> getEmployeeSummaries();
+    List<Map<String, Object>> getEmployees(EmployeeFields fields);
+    EmployeePage getEmployeePage(String cursor, int size);
+    void exportEmployees(Consumer<Employee> consumer);
     Optional<Employee> getEmployeeById(long id);
+    List<Employee> findEmployeesByName(String firstName, String lastName);
     Employee updateEmployee(Employee updatedEmployee);
-    void deleteEmployee(long id);
+    boolean patchEmployee(long id, EmployeePatch patch);
+    boolean deleteEmployee(long id);
+    EmployeeDeleteResult deleteEmployees(List<Long> ids);
+    EmployeeDeleteResult deleteEmployeesByName(String lastName, String firstName);
 }
@@ -0,0 +1,32 @@
+package com.example.test.service;
+
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeDeleteResult;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.dto.EmployeeSummary;
+import com.example.test.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+// non-blocking counterpart of EmployeeService for the reactive profile, empty Monos stand for "not found"
+public interface ReactiveEmployeeService {
+    Mono<Employee> saveEmployee(Employee employee);
+    Mono<List<EmployeeBatchResult>> saveEmployees(List<Employee> employees);
+    Flux<Employee> getAllEmployees();
+    Flux<EmployeeSummary> getEmployeeSummaries();
+    Flux<Map<String, Object>> getEmployees(EmployeeFields fields);
+    Mono<EmployeePage> getEmployeePage(String cursor, int size);
+    Flux<Employee> exportEmployees();
+    Mono<Employee> getEmployeeById(long id);
+    Flux<Employee> findEmployeesByName(String firstName, String lastName);
+    Mono<Employee> updateEmployee(Employee updatedEmployee);
+    Mono<Boolean> patchEmployee(long id, EmployeePatch patch);
+    Mono<Boolean> deleteEmployee(long id);
+    Mono<EmployeeDeleteResult> deleteEmployees(List<Long> ids);
+    Mono<EmployeeDeleteResult> deleteEmployeesByName(String lastName, String firstName);
+}
@@ -1,51 +1,383 @@
 package com.example.test.service.impl;
 
-import com.example.test.exception.ResourceNotFoundException;
+import com.example.test.datasource.PrimaryReads;
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeDeleteResult;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.dto.EmployeeSummary;
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.exception.StaleEmployeeException;
 import com.example.test.model.Employee;
 import com.example.test.repository.EmployeeRepository;
 import com.example.test.service.EmployeeService;
+import com.example.test.service.support.EmailBloomFilter;
+import com.example.test.service.support.EmailClaims;
+import com.example.test.service.support.EmployeeCache;
+import com.example.test.service.support.EmployeeCursor;
+import com.example.test.service.support.EmployeeListCache;
+import com.example.test.service.support.EmployeeSearchIndex;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
+// ShardedEmployeeServiceImpl takes over with employee.shards.enabled=true
+@ConditionalOnProperty(name = "employee.shards.enabled", havingValue = "false", matchIfMissing = true)
 public class EmployeeServiceImpl implements EmployeeService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // same as spring.jpa.properties.hibernate.jdbc.batch_size
+    public static final int BATCH_SIZE = 50;
+    // a batch that collides with concurrent creates this often is finished one employee at a time
+    public static final int BATCH_ATTEMPTS = 3;
+    // rows per DELETE of a bulk purge, each chunk commits on its own to keep row locks and undo short
+    public static final int DELETE_CHUNK = 500;
+
     private EmployeeRepository employeeRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    private EntityManager entityManager;
+
+    private TransactionOperations transaction;
+
+    private EmployeeCache employeeCache;
+
+    // only present with employee.email-filter.enabled=true
+    private EmailBloomFilter emailFilter;
+
+    // only present with employee.search.enabled=true
+    private EmployeeSearchIndex searchIndex;
+
+    // only present with employee.list-cache.enabled=true
+    private EmployeeListCache listCache;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EntityManager entityManager,
+                               PlatformTransactionManager transactionManager, EmployeeCache employeeCache, @Nullable EmailBloomFilter emailFilter,
+                               @Nullable EmployeeSearchIndex searchIndex, @Nullable EmployeeListCache listCache) {
         this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.employeeCache = employeeCache;
+        this.emailFilter = emailFilter;
+        this.searchIndex = searchIndex;
+        this.listCache = listCache;
     }
 
+    // insert first and let the unique email index reject duplicates : one round trip,
+    // and two concurrent creates with the same email can not both succeed
     @Override
     public Employee saveEmployee(Employee employee){
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                throw new DuplicateEmailException("already exists with given email : " + employee.getEmail(), e);
+            }
+            throw e;
+        }
+        created(savedEmployee);
+        if (listCache != null) {
+            listCache.invalidate();
+        }
+        return savedEmployee;
+    }
 
-        if (savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("already exists with given email : " + employee.getEmail());
+    private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
         }
-        return employeeRepository.save(employee);
+        String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_INDEX);
     }
 
+    // one IN query per chunk of emails (EmailClaims) instead of a findByEmail per item,
+    // inserts are flushed every BATCH_SIZE rows so hibernate sends them as one JDBC batch.
+    // with the email filter, emails that are definitely new are not looked up at all.
+    // an email created by a concurrent request between the lookup and the insert fails the whole attempt :
+    // it is rolled back and run again, and the new lookup reports that email as a CONFLICT
     @Override
+    public List<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        for (int attempt = 0; attempt < BATCH_ATTEMPTS; attempt++) {
+            long[] ids = employees.stream().mapToLong(Employee::getId).toArray();
+            try {
+                List<EmployeeBatchResult> results = transaction.execute(status -> insertBatch(employees));
+                boolean anyCreated = false;
+                for (EmployeeBatchResult result : results) {
+                    if (result.getStatus() == EmployeeBatchResult.Status.CREATED) {
+                        created(result.getEmployee());
+                        anyCreated = true;
+                    }
+                }
+                if (anyCreated && listCache != null) {
+                    listCache.invalidate();
+                }
+                return results;
+            } catch (DataIntegrityViolationException e) {
+                if (!isDuplicateEmail(e)) {
+                    throw e;
+                }
+                // the rolled back attempt left the ids hibernate assigned on the entities
+                for (int i = 0; i < ids.length; i++) {
+                    employees.get(i).setId(ids[i]);
+                }
+            }
+        }
+        return saveOneByOne(employees);
+    }
+
+    private List<EmployeeBatchResult> insertBatch(List<Employee> employees) {
+        List<String> taken = new ArrayList<>();
+        for (List<String> emails : EmailClaims.lookups(employees, email -> emailFilter == null || emailFilter.mightContain(email))) {
+            taken.addAll(employeeRepository.findExistingEmails(emails));
+        }
+        EmailClaims claims = EmailClaims.taken(taken);
+
+        List<EmployeeBatchResult> results = new ArrayList<>(employees.size());
+        int pending = 0;
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (!claims.claim(employee)) {
+                results.add(EmployeeBatchResult.conflict(i, employee));
+                continue;
+            }
+            results.add(EmployeeBatchResult.created(i, employeeRepository.save(employee)));
+            // through the repository so a duplicate surfaces as a DataIntegrityViolationException
+            if (++pending % BATCH_SIZE == 0) {
+                employeeRepository.flush();
+                entityManager.clear();
+            }
+        }
+        return results;
+    }
+
+    // the last resort after BATCH_ATTEMPTS collisions : every employee is its own insert and commit
+    private List<EmployeeBatchResult> saveOneByOne(List<Employee> employees) {
+        EmailClaims claims = EmailClaims.none();
+        List<EmployeeBatchResult> results = new ArrayList<>(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (!claims.claim(employee)) {
+                results.add(EmployeeBatchResult.conflict(i, employee));
+                continue;
+            }
+            try {
+                results.add(EmployeeBatchResult.created(i, saveEmployee(employee)));
+            } catch (DuplicateEmailException e) {
+                results.add(EmployeeBatchResult.conflict(i, employee));
+            }
+        }
+        return results;
+    }
+
+    // the in-memory views only hear about rows that committed.
+    // the id may have been looked up (and cached as missing) before it existed
+    private void created(Employee employee) {
+        employeeCache.invalidate(employee.getId());
+        if (emailFilter != null) {
+            emailFilter.put(employee.getEmail());
+        }
+        if (searchIndex != null) {
+            searchIndex.put(employee);
+        }
+    }
+
+    // the read-only methods are what a replica may serve (employee.replica.enabled, ReplicaRoutingDataSource)
+    @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        return employeeRepository.findAllSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getEmployees(EmployeeFields fields) {
+        return employeeRepository.findAllFields(fields).stream()
+                .map(fields::fromRow)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeePage getEmployeePage(String cursor, int size) {
+        long after = EmployeeCursor.decode(cursor);
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // fetch one extra row to know whether there is a next page without a count query
+        List<Employee> rows = employeeRepository.findPageAfter(after, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new EmployeePage(rows, null);
+        }
+        List<Employee> content = rows.subList(0, pageSize);
+        return new EmployeePage(content, EmployeeCursor.encode(content.get(pageSize - 1).getId()));
+    }
+
+    // hands every row to the consumer one at a time and detaches it right after,
+    // so the persistence context (and the heap) stays flat whatever the table size
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmployees(Consumer<Employee> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            employees.forEach(employee -> {
+                consumer.accept(employee);
+                entityManager.detach(employee);
+            });
+        }
+    }
+
+    // not a replica read : the cache is shared by every client, a row (or a 404) read during the replica lag
+    // would be served to all of them until it expires. findById runs in its own read-only transaction
     @Override
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        return employeeCache.get(id, key -> PrimaryReads.call(() -> employeeRepository.findById(key)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> findEmployeesByName(String firstName, String lastName) {
+        return employeeRepository.findByJPQLNamedParams(firstName, lastName);
     }
 
+    // the merge compares the version of updatedEmployee with the row, a concurrent update in between fails it.
+    // like a create, a new email that another employee has is rejected by the unique index
     @Override
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        Employee savedEmployee;
+        try {
+            savedEmployee = employeeRepository.save(updatedEmployee);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            employeeCache.invalidate(updatedEmployee.getId());
+            throw new StaleEmployeeException("employee was modified concurrently : " + updatedEmployee.getId(), e);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                throw new DuplicateEmailException("already exists with given email : " + updatedEmployee.getEmail(), e);
+            }
+            throw e;
+        }
+        employeeCache.invalidate(savedEmployee.getId());
+        // the filter must never answer "definitely new" for a stored email, bulk creates would skip its lookup
+        if (emailFilter != null) {
+            emailFilter.put(savedEmployee.getEmail());
+        }
+        if (searchIndex != null) {
+            searchIndex.put(savedEmployee);
+        }
+        if (listCache != null) {
+            listCache.invalidate();
+        }
+        return savedEmployee;
     }
 
+    // a single UPDATE of the supplied columns, false when no row has that id.
+    // an empty patch changes nothing and only checks that the employee exists
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    @Transactional
+    public boolean patchEmployee(long id, EmployeePatch patch) {
+        if (patch.isEmpty()) {
+            return employeeRepository.existsById(id);
+        }
+        int updated;
+        try {
+            updated = employeeRepository.patch(id, patch);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                throw new DuplicateEmailException("already exists with given email : " + patch.getEmail(), e);
+            }
+            throw e;
+        }
+        employeeCache.invalidate(id);
+        if (updated > 0 && patch.getEmail() != null && emailFilter != null) {
+            emailFilter.put(patch.getEmail());
+        }
+        if (updated > 0 && searchIndex != null) {
+            searchIndex.patch(id, patch);
+        }
+        if (updated > 0 && listCache != null) {
+            listCache.invalidate();
+        }
+        return updated > 0;
+    }
+
+    // one DELETE, false when no row has that id
+    @Override
+    public boolean deleteEmployee(long id) {
+        int deleted = employeeRepository.deleteRowById(id);
+        employeeCache.invalidate(id);
+        if (deleted > 0 && searchIndex != null) {
+            searchIndex.delete(id);
+        }
+        if (deleted > 0 && listCache != null) {
+            listCache.invalidate();
+        }
+        return deleted > 0;
+    }
+
+    // the email filter is not updated, a deleted email only costs a false positive lookup
+    @Override
+    public EmployeeDeleteResult deleteEmployees(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        long deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK) {
+            deleted += deleteChunk(distinctIds.subList(from, Math.min(from + DELETE_CHUNK, distinctIds.size())));
+        }
+        return new EmployeeDeleteResult(deleted);
+    }
+
+    // not transactional on purpose : ids are read a chunk at a time and every chunk is its own DELETE + commit
+    @Override
+    public EmployeeDeleteResult deleteEmployeesByName(String lastName, String firstName) {
+        long deleted = 0;
+        long after = 0;
+        List<Long> ids;
+        do {
+            ids = employeeRepository.findIdsByNameAfter(after, lastName, firstName, PageRequest.of(0, DELETE_CHUNK));
+            if (!ids.isEmpty()) {
+                deleted += deleteChunk(ids);
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == DELETE_CHUNK);
+        return new EmployeeDeleteResult(deleted);
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        int deleted = employeeRepository.deleteRowsByIds(ids);
+        ids.forEach(employeeCache::invalidate);
+        if (searchIndex != null) {
+            ids.forEach(searchIndex::delete);
+        }
+        if (deleted > 0 && listCache != null) {
+            listCache.invalidate();
+        }
+        return deleted;
     }
 
 }
@@ -0,0 +1,251 @@
+package com.example.test.service.impl;
+
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeDeleteResult;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.dto.EmployeeSummary;
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.exception.StaleEmployeeException;
+import com.example.test.model.Employee;
+import com.example.test.repository.ReactiveEmployeeRepository;
+import com.example.test.service.ReactiveEmployeeService;
+import com.example.test.service.support.EmailClaims;
+import com.example.test.service.support.EmployeeCursor;
+import com.example.test.service.support.ReactiveEmployeeIdAllocator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.example.test.service.impl.EmployeeServiceImpl.BATCH_ATTEMPTS;
+import static com.example.test.service.impl.EmployeeServiceImpl.DEFAULT_PAGE_SIZE;
+import static com.example.test.service.impl.EmployeeServiceImpl.DELETE_CHUNK;
+import static com.example.test.service.impl.EmployeeServiceImpl.MAX_PAGE_SIZE;
+
+// same rules as EmployeeServiceImpl (insert first and let the unique index reject duplicate emails, keyset pages,
+// single statement patch and delete, chunked bulk deletes) without blocking a thread on the database.
+// there is no read-through cache here, EmployeeCache loads synchronously
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private final ReactiveEmployeeRepository employeeRepository;
+
+    private final DatabaseClient databaseClient;
+
+    private final ReactiveEmployeeIdAllocator idAllocator;
+
+    private final TransactionalOperator transaction;
+
+    public ReactiveEmployeeServiceImpl(ReactiveEmployeeRepository employeeRepository, DatabaseClient databaseClient,
+                                       ReactiveEmployeeIdAllocator idAllocator, ReactiveTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.databaseClient = databaseClient;
+        this.idAllocator = idAllocator;
+        this.transaction = TransactionalOperator.create(transactionManager);
+    }
+
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        return insert(employee)
+                .onErrorMap(ReactiveEmployeeServiceImpl::isDuplicateEmail,
+                        e -> new DuplicateEmailException("already exists with given email : " + employee.getEmail(), e));
+    }
+
+    // an explicit INSERT : the template would start a primitive version at 1, hibernate starts it at 0
+    private Mono<Employee> insert(Employee employee) {
+        return idAllocator.nextId().flatMap(id -> {
+            Employee saved = employee.toBuilder().id(id).version(0).build();
+            DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(
+                    "INSERT INTO employees (id, first_name, last_name, email, version)"
+                            + " VALUES (:id, :firstName, :lastName, :email, 0)")
+                    .bind("id", id);
+            insert = bind(insert, "firstName", saved.getFirstName());
+            insert = bind(insert, "lastName", saved.getLastName());
+            insert = bind(insert, "email", saved.getEmail());
+            return insert.fetch().rowsUpdated().thenReturn(saved);
+        });
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+
+    private static boolean isDuplicateEmail(Throwable e) {
+        return e instanceof DataIntegrityViolationException
+                && String.valueOf(e.getMessage()).toLowerCase(Locale.ROOT).contains(Employee.EMAIL_INDEX);
+    }
+
+    // one IN query per chunk of emails (EmailClaims), then the inserts in request order inside one transaction.
+    // retried on a duplicate email and finished one by one like EmployeeServiceImpl.saveEmployees
+    @Override
+    public Mono<List<EmployeeBatchResult>> saveEmployees(List<Employee> employees) {
+        return Mono.defer(() -> insertBatch(employees))
+                .as(transaction::transactional)
+                .retryWhen(Retry.max(BATCH_ATTEMPTS - 1)
+                        .filter(ReactiveEmployeeServiceImpl::isDuplicateEmail)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .onErrorResume(ReactiveEmployeeServiceImpl::isDuplicateEmail, e -> saveOneByOne(employees));
+    }
+
+    private Mono<List<EmployeeBatchResult>> insertBatch(List<Employee> employees) {
+        return Flux.fromIterable(EmailClaims.lookups(employees))
+                .concatMap(employeeRepository::findExistingEmails)
+                .collectList()
+                .map(EmailClaims::taken)
+                .flatMap(claims -> Flux.range(0, employees.size())
+                        .concatMap(i -> {
+                            Employee employee = employees.get(i);
+                            if (!claims.claim(employee)) {
+                                return Mono.just(EmployeeBatchResult.conflict(i, employee));
+                            }
+                            return insert(employee).map(saved -> EmployeeBatchResult.created(i, saved));
+                        })
+                        .collectList());
+    }
+
+    // each employee in its own transaction
+    private Mono<List<EmployeeBatchResult>> saveOneByOne(List<Employee> employees) {
+        EmailClaims claims = EmailClaims.none();
+        return Flux.range(0, employees.size())
+                .concatMap(i -> {
+                    Employee employee = employees.get(i);
+                    if (!claims.claim(employee)) {
+                        return Mono.just(EmployeeBatchResult.conflict(i, employee));
+                    }
+                    return saveEmployee(employee)
+                            .map(saved -> EmployeeBatchResult.created(i, saved))
+                            .onErrorResume(DuplicateEmailException.class,
+                                    e -> Mono.just(EmployeeBatchResult.conflict(i, employee)));
+                })
+                .collectList();
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        return employeeRepository.streamAll();
+    }
+
+    @Override
+    public Flux<EmployeeSummary> getEmployeeSummaries() {
+        return employeeRepository.streamSummaries();
+    }
+
+    @Override
+    public Flux<Map<String, Object>> getEmployees(EmployeeFields fields) {
+        return employeeRepository.streamFields(fields).map(fields::fromRow);
+    }
+
+    @Override
+    public Mono<EmployeePage> getEmployeePage(String cursor, int size) {
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        return Mono.fromCallable(() -> EmployeeCursor.decode(cursor))
+                .flatMap(after -> employeeRepository.findPageAfter(after, pageSize + 1).collectList())
+                .map(rows -> {
+                    if (rows.size() <= pageSize) {
+                        return new EmployeePage(rows, null);
+                    }
+                    List<Employee> content = rows.subList(0, pageSize);
+                    return new EmployeePage(content, EmployeeCursor.encode(content.get(pageSize - 1).getId()));
+                });
+    }
+
+    @Override
+    public Flux<Employee> exportEmployees() {
+        return employeeRepository.streamAll();
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(long id) {
+        return employeeRepository.findById(id);
+    }
+
+    @Override
+    public Flux<Employee> findEmployeesByName(String firstName, String lastName) {
+        return employeeRepository.findByFirstNameAndLastName(firstName, lastName);
+    }
+
+    // the UPDATE carries the version it was based on, no row updated means someone else got there first.
+    // like a create, a new email that another employee has is rejected by the unique index
+    @Override
+    public Mono<Employee> updateEmployee(Employee updatedEmployee) {
+        return employeeRepository.updateIfVersion(updatedEmployee.getId(), updatedEmployee.getVersion(),
+                        updatedEmployee.getFirstName(), updatedEmployee.getLastName(), updatedEmployee.getEmail())
+                .onErrorMap(ReactiveEmployeeServiceImpl::isDuplicateEmail,
+                        e -> new DuplicateEmailException("already exists with given email : " + updatedEmployee.getEmail(), e))
+                .flatMap(updated -> updated > 0
+                        ? Mono.just(updatedEmployee.toBuilder().version(updatedEmployee.getVersion() + 1).build())
+                        : Mono.error(new StaleEmployeeException(
+                                "employee was modified concurrently : " + updatedEmployee.getId())));
+    }
+
+    // a single UPDATE of the supplied columns, false when no row has that id
+    @Override
+    public Mono<Boolean> patchEmployee(long id, EmployeePatch patch) {
+        if (patch.isEmpty()) {
+            return employeeRepository.existsById(id);
+        }
+        DatabaseClient.GenericExecuteSpec update = databaseClient.sql(patch.toUpdateSql()).bind("id", id);
+        for (Map.Entry<String, String> change : patch.getChanges().entrySet()) {
+            update = update.bind(change.getKey(), change.getValue());
+        }
+        return update.fetch().rowsUpdated()
+                .map(updated -> updated > 0)
+                .onErrorMap(ReactiveEmployeeServiceImpl::isDuplicateEmail,
+                        e -> new DuplicateEmailException("already exists with given email : " + patch.getEmail(), e));
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(long id) {
+        return employeeRepository.deleteRowById(id).map(deleted -> deleted > 0);
+    }
+
+    @Override
+    public Mono<EmployeeDeleteResult> deleteEmployees(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        return Flux.fromIterable(chunks(distinctIds, DELETE_CHUNK))
+                .concatMap(employeeRepository::deleteRowsByIds)
+                .reduce(0L, Long::sum)
+                .map(EmployeeDeleteResult::new);
+    }
+
+    // not transactional on purpose : ids are read a chunk at a time and every chunk is its own DELETE
+    @Override
+    public Mono<EmployeeDeleteResult> deleteEmployeesByName(String lastName, String firstName) {
+        return idsAfter(0, lastName, firstName)
+                .expand(ids -> ids.size() == DELETE_CHUNK
+                        ? idsAfter(ids.get(ids.size() - 1), lastName, firstName)
+                        : Mono.empty())
+                .concatMap(ids -> ids.isEmpty() ? Mono.just(0) : employeeRepository.deleteRowsByIds(ids))
+                .reduce(0L, Long::sum)
+                .map(EmployeeDeleteResult::new);
+    }
+
+    private Mono<List<Long>> idsAfter(long after, String lastName, String firstName) {
+        Flux<Long> ids = firstName == null
+                ? employeeRepository.findIdsByLastNameAfter(after, lastName, DELETE_CHUNK)
+                : employeeRepository.findIdsByNameAfter(after, lastName, firstName, DELETE_CHUNK);
+        return ids.collectList();
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return chunks;
+    }
+}
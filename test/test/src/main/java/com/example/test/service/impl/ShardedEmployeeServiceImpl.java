@@ -0,0 +1,451 @@
+package com.example.test.service.impl;
+
+import com.example.test.datasource.EmailDirectory;
+import com.example.test.datasource.EmployeeShards;
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeDeleteResult;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.dto.EmployeeSummary;
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.exception.StaleEmployeeException;
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import com.example.test.service.support.EmailClaims;
+import com.example.test.service.support.EmployeeCache;
+import com.example.test.service.support.EmployeeCursor;
+import com.example.test.service.support.EmployeeListCache;
+import com.example.test.service.support.EmployeeSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.example.test.service.impl.EmployeeServiceImpl.DEFAULT_PAGE_SIZE;
+import static com.example.test.service.impl.EmployeeServiceImpl.DELETE_CHUNK;
+import static com.example.test.service.impl.EmployeeServiceImpl.MAX_PAGE_SIZE;
+
+// EmployeeServiceImpl over hash sharded storage (employee.shards.enabled=true), plain JDBC per shard :
+// hibernate's pooled id generator and its single EntityManagerFactory can not route a row to a shard.
+// an id routes to its shard by itself (EmployeeShards), new employees are placed by a hash of their email
+// and the email directory keeps emails unique across shards. lists and name finders query every shard
+// in parallel and merge by id, so they read the same as on one database
+@Slf4j
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employee.shards.enabled", havingValue = "true")
+public class ShardedEmployeeServiceImpl implements EmployeeService {
+
+    private static final String COLUMNS = "SELECT id, first_name, last_name, email, version FROM employees";
+
+    private static final RowMapper<Employee> EMPLOYEE = (resultSet, row) -> Employee.builder()
+            .id(resultSet.getLong(1))
+            .firstName(resultSet.getString(2))
+            .lastName(resultSet.getString(3))
+            .email(resultSet.getString(4))
+            .version(resultSet.getLong(5))
+            .build();
+
+    private static final Comparator<Employee> BY_ID = Comparator.comparingLong(Employee::getId);
+
+    private final EmployeeShards shards;
+
+    private final EmailDirectory emailDirectory;
+
+    private final EmployeeCache employeeCache;
+
+    // only present with employee.search.enabled=true
+    private final EmployeeSearchIndex searchIndex;
+
+    // only present with employee.list-cache.enabled=true
+    private final EmployeeListCache listCache;
+
+    public ShardedEmployeeServiceImpl(EmployeeShards shards, EmailDirectory emailDirectory, EmployeeCache employeeCache,
+                                      @Nullable EmployeeSearchIndex searchIndex, @Nullable EmployeeListCache listCache) {
+        this.shards = shards;
+        this.emailDirectory = emailDirectory;
+        this.employeeCache = employeeCache;
+        this.searchIndex = searchIndex;
+        this.listCache = listCache;
+    }
+
+    // the directory entry is written first : of two concurrent creates with the same email only one gets it.
+    // if the insert on the shard fails the entry is given back
+    @Override
+    public Employee saveEmployee(Employee employee) {
+        int shard = shards.shardFor(employee.getEmail());
+        Employee saved = employee.toBuilder().id(shards.nextId(shard)).version(0).build();
+        if (!emailDirectory.reserve(saved.getEmail(), shard, saved.getId())) {
+            throw new DuplicateEmailException("already exists with given email : " + employee.getEmail());
+        }
+        try {
+            shards.jdbc(shard).update("INSERT INTO employees (id, first_name, last_name, email, version) VALUES (?, ?, ?, ?, 0)",
+                    saved.getId(), saved.getFirstName(), saved.getLastName(), saved.getEmail());
+        } catch (RuntimeException e) {
+            emailDirectory.release(saved.getEmail(), saved.getId());
+            throw e;
+        }
+        employeeCache.invalidate(saved.getId());
+        if (searchIndex != null) {
+            searchIndex.put(saved);
+        }
+        invalidateList();
+        return saved;
+    }
+
+    // one directory lookup per chunk of emails, one batch reservation, then one JDBC batch per shard in its own transaction.
+    // there is no transaction across shards : a shard that fails reports its rows as FAILED, the rows other shards
+    // committed stay CREATED, so a caller can retry exactly the ones that were not written
+    @Override
+    public List<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        List<String> taken = new ArrayList<>();
+        for (List<String> emails : EmailClaims.lookups(employees)) {
+            taken.addAll(emailDirectory.findTaken(emails));
+        }
+        EmailClaims claims = EmailClaims.taken(taken);
+
+        EmployeeBatchResult[] results = new EmployeeBatchResult[employees.size()];
+        List<Employee> accepted = new ArrayList<>();
+        Map<Long, Integer> indexes = new HashMap<>();
+        List<EmailDirectory.Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (!claims.claim(employee)) {
+                results[i] = EmployeeBatchResult.conflict(i, employee);
+                continue;
+            }
+            int shard = shards.shardFor(employee.getEmail());
+            Employee saved = employee.toBuilder().id(shards.nextId(shard)).version(0).build();
+            accepted.add(saved);
+            indexes.put(saved.getId(), i);
+            reservations.add(new EmailDirectory.Reservation(saved.getEmail(), shard, saved.getId()));
+        }
+
+        // taken by a concurrent create between the lookup and the reservation
+        Set<Long> rejected = emailDirectory.reserveAll(reservations);
+        Map<Integer, List<Employee>> byShard = new LinkedHashMap<>();
+        for (Employee saved : accepted) {
+            int index = indexes.get(saved.getId());
+            if (rejected.contains(saved.getId())) {
+                results[index] = EmployeeBatchResult.conflict(index, employees.get(index));
+            } else {
+                byShard.computeIfAbsent(shards.shardOf(saved.getId()), shard -> new ArrayList<>()).add(saved);
+            }
+        }
+        boolean anyCreated = false;
+        for (Map.Entry<Integer, List<Employee>> shardRows : byShard.entrySet()) {
+            try {
+                insertAll(shardRows.getKey(), shardRows.getValue());
+            } catch (RuntimeException e) {
+                log.warn("batch insert of {} rows on shard {} failed : {}", shardRows.getValue().size(), shardRows.getKey(), e.toString());
+                for (Employee saved : shardRows.getValue()) {
+                    int index = indexes.get(saved.getId());
+                    results[index] = EmployeeBatchResult.failed(index, employees.get(index), "shard " + shardRows.getKey() + " failed");
+                }
+                continue;
+            }
+            anyCreated = true;
+            for (Employee saved : shardRows.getValue()) {
+                int index = indexes.get(saved.getId());
+                results[index] = EmployeeBatchResult.created(index, saved);
+                employeeCache.invalidate(saved.getId());
+                if (searchIndex != null) {
+                    searchIndex.put(saved);
+                }
+            }
+        }
+        if (anyCreated) {
+            invalidateList();
+        }
+        return List.of(results);
+    }
+
+    // the shard's transaction is rolled back and its directory entries are given back
+    private void insertAll(int shard, List<Employee> rows) {
+        try {
+            shards.transaction(shard).executeWithoutResult(status ->
+                    shards.jdbc(shard).batchUpdate(
+                            "INSERT INTO employees (id, first_name, last_name, email, version) VALUES (?, ?, ?, ?, 0)",
+                            rows, EmployeeServiceImpl.BATCH_SIZE, (statement, row) -> {
+                                statement.setLong(1, row.getId());
+                                statement.setString(2, row.getFirstName());
+                                statement.setString(3, row.getLastName());
+                                statement.setString(4, row.getEmail());
+                            }));
+        } catch (RuntimeException e) {
+            emailDirectory.releaseIds(rows.stream().map(Employee::getId).collect(Collectors.toList()));
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return merge(shards.scatter(jdbc -> jdbc.query(COLUMNS, EMPLOYEE)), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        List<EmployeeSummary> merged = new ArrayList<>();
+        shards.scatter(jdbc -> jdbc.query("SELECT id, email FROM employees",
+                (resultSet, row) -> new EmployeeSummary(resultSet.getLong(1), resultSet.getString(2)))).forEach(merged::addAll);
+        merged.sort(Comparator.comparingLong(EmployeeSummary::getId));
+        return merged;
+    }
+
+    // only the requested columns (and the id to merge on) are read from each shard
+    @Override
+    public List<Map<String, Object>> getEmployees(EmployeeFields fields) {
+        List<Object[]> merged = new ArrayList<>();
+        shards.scatter(jdbc -> jdbc.query("SELECT " + fields.getSqlColumns() + " FROM employees", (resultSet, row) -> {
+            Object[] values = new Object[fields.getColumnCount()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = resultSet.getObject(i + 1);
+            }
+            return values;
+        })).forEach(merged::addAll);
+        merged.sort(Comparator.comparingLong(values -> ((Number) values[0]).longValue()));
+        return merged.stream().map(fields::fromRow).collect(Collectors.toList());
+    }
+
+    // every shard returns its first pageSize + 1 rows after the cursor, the page is the smallest of those.
+    // the extra row tells whether there is a next page without a count query
+    @Override
+    public EmployeePage getEmployeePage(String cursor, int size) {
+        long after = EmployeeCursor.decode(cursor);
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        List<Employee> rows = merge(shards.scatter(jdbc -> jdbc.query(COLUMNS + " WHERE id > ? ORDER BY id LIMIT ?",
+                EMPLOYEE, after, pageSize + 1)), pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new EmployeePage(rows, null);
+        }
+        List<Employee> content = rows.subList(0, pageSize);
+        return new EmployeePage(content, EmployeeCursor.encode(content.get(pageSize - 1).getId()));
+    }
+
+    // shard after shard and row by row, nothing but the current row is held. not in id order across shards
+    @Override
+    public void exportEmployees(Consumer<Employee> consumer) {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.getDataSources().get(shard));
+            jdbcTemplate.setFetchSize(EmployeeServiceImpl.BATCH_SIZE);
+            jdbcTemplate.query(COLUMNS, resultSet -> {
+                consumer.accept(EMPLOYEE.mapRow(resultSet, resultSet.getRow()));
+            });
+        }
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeById(long id) {
+        return employeeCache.get(id, this::findById);
+    }
+
+    private Optional<Employee> findById(long id) {
+        int shard = shards.shardOf(id);
+        if (shard < 0) {
+            return Optional.empty();
+        }
+        return shards.jdbc(shard).query(COLUMNS + " WHERE id = ?", EMPLOYEE, id).stream().findFirst();
+    }
+
+    @Override
+    public List<Employee> findEmployeesByName(String firstName, String lastName) {
+        return merge(shards.scatter(jdbc -> jdbc.query(COLUMNS + " WHERE first_name = ? AND last_name = ?",
+                EMPLOYEE, firstName, lastName)), Integer.MAX_VALUE);
+    }
+
+    // the UPDATE carries the version it was based on, no row updated means someone else got there first.
+    // a new email is reserved before the row changes and the old one given back after
+    @Override
+    public Employee updateEmployee(Employee updatedEmployee) {
+        long id = updatedEmployee.getId();
+        Optional<Employee> current = findById(id);
+        if (current.isEmpty() || current.get().getVersion() != updatedEmployee.getVersion()) {
+            employeeCache.invalidate(id);
+            throw new StaleEmployeeException("employee was modified concurrently : " + id);
+        }
+        int shard = shards.shardOf(id);
+        String previousEmail = current.get().getEmail();
+        boolean emailChanged = moveEmailIn(previousEmail, updatedEmployee.getEmail(), shard, id);
+        int updated;
+        try {
+            updated = shards.jdbc(shard).update("UPDATE employees SET first_name = ?, last_name = ?, email = ?, version = version + 1"
+                            + " WHERE id = ? AND version = ?",
+                    updatedEmployee.getFirstName(), updatedEmployee.getLastName(), updatedEmployee.getEmail(),
+                    id, updatedEmployee.getVersion());
+        } catch (RuntimeException e) {
+            moveEmailBack(emailChanged, updatedEmployee.getEmail(), id);
+            throw e;
+        }
+        employeeCache.invalidate(id);
+        if (updated == 0) {
+            moveEmailBack(emailChanged, updatedEmployee.getEmail(), id);
+            throw new StaleEmployeeException("employee was modified concurrently : " + id);
+        }
+        if (emailChanged) {
+            emailDirectory.release(previousEmail, id);
+        }
+        Employee saved = updatedEmployee.toBuilder().version(updatedEmployee.getVersion() + 1).build();
+        if (searchIndex != null) {
+            searchIndex.put(saved);
+        }
+        invalidateList();
+        return saved;
+    }
+
+    // a single UPDATE of the supplied columns, false when no row has that id
+    @Override
+    public boolean patchEmployee(long id, EmployeePatch patch) {
+        Optional<Employee> current = findById(id);
+        if (current.isEmpty() || patch.isEmpty()) {
+            return current.isPresent();
+        }
+        int shard = shards.shardOf(id);
+        String previousEmail = current.get().getEmail();
+        boolean emailChanged = patch.getEmail() != null && moveEmailIn(previousEmail, patch.getEmail(), shard, id);
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource("id", id);
+        patch.getChanges().forEach(parameters::addValue);
+        int updated;
+        try {
+            updated = new NamedParameterJdbcTemplate(shards.jdbc(shard)).update(patch.toUpdateSql(), parameters);
+        } catch (RuntimeException e) {
+            moveEmailBack(emailChanged, patch.getEmail(), id);
+            throw e;
+        }
+        employeeCache.invalidate(id);
+        if (updated == 0) {
+            // deleted in the meantime
+            moveEmailBack(emailChanged, patch.getEmail(), id);
+            return false;
+        }
+        if (emailChanged) {
+            emailDirectory.release(previousEmail, id);
+        }
+        if (searchIndex != null) {
+            searchIndex.patch(id, patch);
+        }
+        invalidateList();
+        return true;
+    }
+
+    // reserves newEmail for the employee, false when it is the same address (case aside) as before
+    private boolean moveEmailIn(String previousEmail, String newEmail, int shard, long id) {
+        if (EmailClaims.normalize(previousEmail).equals(EmailClaims.normalize(newEmail))) {
+            return false;
+        }
+        if (!emailDirectory.reserve(newEmail, shard, id)) {
+            throw new DuplicateEmailException("already exists with given email : " + newEmail);
+        }
+        return true;
+    }
+
+    private void moveEmailBack(boolean emailChanged, String newEmail, long id) {
+        if (emailChanged) {
+            emailDirectory.release(newEmail, id);
+        }
+    }
+
+    // one DELETE, false when no row has that id
+    @Override
+    public boolean deleteEmployee(long id) {
+        int shard = shards.shardOf(id);
+        if (shard < 0) {
+            return false;
+        }
+        int deleted = shards.jdbc(shard).update("DELETE FROM employees WHERE id = ?", id);
+        employeeCache.invalidate(id);
+        if (deleted > 0) {
+            emailDirectory.releaseIds(List.of(id));
+            if (searchIndex != null) {
+                searchIndex.delete(id);
+            }
+            invalidateList();
+        }
+        return deleted > 0;
+    }
+
+    @Override
+    public EmployeeDeleteResult deleteEmployees(List<Long> ids) {
+        Map<Integer, List<Long>> byShard = ids.stream()
+                .distinct()
+                .filter(id -> shards.shardOf(id) >= 0)
+                .collect(Collectors.groupingBy(shards::shardOf));
+        long deleted = 0;
+        for (Map.Entry<Integer, List<Long>> shardIds : byShard.entrySet()) {
+            List<Long> shardIdList = shardIds.getValue();
+            for (int from = 0; from < shardIdList.size(); from += DELETE_CHUNK) {
+                deleted += deleteChunk(shards.jdbc(shardIds.getKey()), shardIdList.subList(from, Math.min(from + DELETE_CHUNK, shardIdList.size())));
+            }
+        }
+        return new EmployeeDeleteResult(deleted);
+    }
+
+    // every shard purges its own matches in parallel, a chunk of ids at a time with a DELETE + commit each
+    @Override
+    public EmployeeDeleteResult deleteEmployeesByName(String lastName, String firstName) {
+        long deleted = shards.scatter(jdbc -> {
+            long shardDeleted = 0;
+            long after = 0;
+            List<Long> ids;
+            do {
+                ids = firstName == null
+                        ? jdbc.queryForList("SELECT id FROM employees WHERE id > ? AND last_name = ? ORDER BY id LIMIT ?",
+                                Long.class, after, lastName, DELETE_CHUNK)
+                        : jdbc.queryForList("SELECT id FROM employees WHERE id > ? AND last_name = ? AND first_name = ? ORDER BY id LIMIT ?",
+                                Long.class, after, lastName, firstName, DELETE_CHUNK);
+                if (!ids.isEmpty()) {
+                    shardDeleted += deleteChunk(jdbc, ids);
+                    after = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == DELETE_CHUNK);
+            return shardDeleted;
+        }).stream().mapToLong(Long::longValue).sum();
+        return new EmployeeDeleteResult(deleted);
+    }
+
+    private int deleteChunk(JdbcTemplate jdbc, List<Long> ids) {
+        int deleted = new NamedParameterJdbcTemplate(jdbc).update("DELETE FROM employees WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+        emailDirectory.releaseIds(ids);
+        ids.forEach(employeeCache::invalidate);
+        if (searchIndex != null) {
+            ids.forEach(searchIndex::delete);
+        }
+        if (deleted > 0) {
+            invalidateList();
+        }
+        return deleted;
+    }
+
+    private void invalidateList() {
+        if (listCache != null) {
+            listCache.invalidate();
+        }
+    }
+
+    // the rows of all shards in id order, at most limit of them
+    private static List<Employee> merge(List<List<Employee>> perShard, int limit) {
+        List<Employee> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(BY_ID);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.test.service.support;
+
+import com.example.test.datasource.PrimaryReads;
+import com.example.test.repository.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+// bloom filter over every stored email : mightContain == false means "definitely new",
+// so the caller can skip the database lookup for that email. false positives only cost a lookup.
+// emails are normalized like EmailClaims does because MySQL compares them case insensitively.
+// deletes are never removed from the filter, a deleted email just stays a false positive.
+@Component
+@ConditionalOnProperty(name = "employee.email-filter.enabled", havingValue = "true")
+public class EmailBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // until the table has been loaded every email "might" exist
+    private volatile boolean ready;
+
+    public EmailBloomFilter(EmployeeRepository employeeRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${employee.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${employee.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((m + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    // from the primary : an email the replica is missing would be "definitely new"
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        PrimaryReads.run(() -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> emails = employeeRepository.streamAllEmails()) {
+                emails.forEach(this::put);
+            }
+        }));
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(index);
+            } while ((current & mask) == 0 && !bits.compareAndSet(index, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String email) {
+        if (!ready || email == null) {
+            return true;
+        }
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64 bit FNV-1a over the utf-8 bytes of the normalized email (EmailClaims), split into two 32 bit hashes (Kirsch-Mitzenmacher)
+    private static long hash(String email) {
+        byte[] bytes = EmailClaims.normalize(email).getBytes(StandardCharsets.UTF_8);
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        // final avalanche so that similar emails do not share the low bits
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
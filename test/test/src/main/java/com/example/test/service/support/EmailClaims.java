@@ -0,0 +1,64 @@
+package com.example.test.service.support;
+
+import com.example.test.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// which items of a batch create may insert their email, for the jpa, reactive and sharded services alike.
+// emails are compared normalized : the unique index is case insensitive (MySQL collation), two spellings of one
+// address are the same employee. each distinct email of the request is looked up once, LOOKUP_CHUNK per IN query,
+// and an item is a CONFLICT when its email is already stored or an earlier item of the same request claimed it
+public final class EmailClaims {
+
+    public static final int LOOKUP_CHUNK = 500;
+
+    private final Set<String> claimed = new HashSet<>();
+
+    private EmailClaims(Collection<String> taken) {
+        taken.forEach(email -> claimed.add(normalize(email)));
+    }
+
+    public static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // the distinct normalized emails of the batch that still need a lookup, LOOKUP_CHUNK per list
+    public static List<List<String>> lookups(List<Employee> employees, Predicate<String> mayBeTaken) {
+        List<String> emails = employees.stream()
+                .map(employee -> normalize(employee.getEmail()))
+                .distinct()
+                .filter(mayBeTaken)
+                .collect(Collectors.toList());
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < emails.size(); from += LOOKUP_CHUNK) {
+            chunks.add(emails.subList(from, Math.min(from + LOOKUP_CHUNK, emails.size())));
+        }
+        return chunks;
+    }
+
+    public static List<List<String>> lookups(List<Employee> employees) {
+        return lookups(employees, email -> true);
+    }
+
+    // taken : the stored emails the lookups found, in whatever spelling the database returned
+    public static EmailClaims taken(Collection<String> taken) {
+        return new EmailClaims(taken);
+    }
+
+    // nothing looked up, only the duplicates inside the request conflict (the inserts find the rest)
+    public static EmailClaims none() {
+        return new EmailClaims(List.of());
+    }
+
+    // false when the employee's email is already stored or claimed by an earlier item of the batch
+    public boolean claim(Employee employee) {
+        return claimed.add(normalize(employee.getEmail()));
+    }
+}
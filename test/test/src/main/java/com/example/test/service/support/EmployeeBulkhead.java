@@ -0,0 +1,96 @@
+package com.example.test.service.support;
+
+import com.example.test.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// at most max-concurrent threads use the database at once, the rest wait up to max-wait for a permit
+// and then get DatabaseBusyException (503). sized like the connection pool, so however many request threads
+// there are (thousands of virtual threads) they queue here instead of inside hikari.
+// a thread takes its permit at its first service / repository call and nested calls reuse it. inside an
+// http request the permit is kept until the request completes : open-in-view holds the connection until then,
+// and a thread holding a connection must never wait for a permit.
+// ordered before the transaction interceptor so the permit is taken before a connection is.
+// Semaphore parks waiting threads, a virtual thread waiting here does not pin its carrier
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "employee.bulkhead.enabled", havingValue = "true")
+public class EmployeeBulkhead {
+
+    private static final String RELEASE_CALLBACK = EmployeeBulkhead.class.getName() + ".release";
+
+    private final ThreadLocal<Boolean> holding = new ThreadLocal<>();
+
+    private final Semaphore permits;
+
+    private final long maxWaitNanos;
+
+    private final Timer waits;
+
+    private final Counter rejected;
+
+    public EmployeeBulkhead(@Value("${employee.bulkhead.max-concurrent:10}") int maxConcurrent,
+                            @Value("${employee.bulkhead.max-wait:2s}") Duration maxWait,
+                            MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waits = meterRegistry.timer("employee.bulkhead.wait");
+        this.rejected = meterRegistry.counter("employee.bulkhead.rejected");
+        meterRegistry.gauge("employee.bulkhead.available", permits, Semaphore::availablePermits);
+    }
+
+    @Around("execution(public * com.example.test.service.EmployeeService+.*(..))"
+            + " || execution(public * com.example.test.repository.EmployeeRepository+.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (holding.get() != null) {
+            return joinPoint.proceed();
+        }
+        acquire();
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (request != null) {
+                request.registerDestructionCallback(RELEASE_CALLBACK, this::release, RequestAttributes.SCOPE_REQUEST);
+            } else {
+                release();
+            }
+        }
+    }
+
+    private void acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        boolean acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            throw new DatabaseBusyException("no database permit within " + Duration.ofNanos(maxWaitNanos));
+        }
+        holding.set(Boolean.TRUE);
+    }
+
+    private void release() {
+        holding.remove();
+        permits.release();
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.test.service.support;
+
+import com.example.test.model.Employee;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongFunction;
+
+// read-through cache for EmployeeService.getEmployeeById, misses are cached too (Optional.empty)
+// with their own shorter ttl. entries are copies, callers may mutate what they get back.
+// a load in flight is a future in the map, concurrent readers of the same id wait for it instead of loading again.
+// the loader runs on the calling thread after the future is in place, never inside the map's compute lock :
+// a loader waiting for a pooled connection there would block every caller whose id shares the hash bin,
+// including requests that already hold a connection (open-in-view), and the pool deadlocks.
+// writers must invalidate after their transaction committed : invalidate drops the in-flight future too,
+// so a load that read the old row can not put it back.
+@Component
+public class EmployeeCache {
+
+    private final AsyncCache<Long, Optional<Employee>> cache;
+
+    public EmployeeCache(@Value("${employee.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${employee.cache.ttl:5m}") Duration ttl,
+                         @Value("${employee.cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Optional<Employee>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<Employee> employee, long currentTime) {
+                        return employee.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<Employee> employee, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, employee, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<Employee> employee, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                // completions are handled on the completing thread, the default (common pool) starts
+                // a thread per task on small machines
+                .executor(Runnable::run)
+                .buildAsync();
+    }
+
+    public Optional<Employee> get(long id, LongFunction<Optional<Employee>> loader) {
+        CompletableFuture<Optional<Employee>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<Employee>> cached = cache.get(id, (key, executor) -> loading);
+        if (cached == loading) {
+            try {
+                loading.complete(loader.apply(id).map(EmployeeCache::copy));
+            } catch (RuntimeException | Error e) {
+                // a failed future is removed by the cache, the next caller loads again
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.join().map(EmployeeCache::copy);
+        } catch (CompletionException e) {
+            // the load of another caller failed
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // inside a transaction the entry is dropped once it commits, earlier a reader could cache the old row again
+    public void invalidate(long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(id);
+                }
+            });
+        } else {
+            cache.synchronous().invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    // hit, miss and eviction counters
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long size() {
+        cache.synchronous().cleanUp();
+        return cache.synchronous().estimatedSize();
+    }
+
+    private static Employee copy(Employee employee) {
+        return employee.toBuilder().build();
+    }
+}
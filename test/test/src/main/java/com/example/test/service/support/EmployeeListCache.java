@@ -0,0 +1,303 @@
+package com.example.test.service.support;
+
+import com.example.test.exception.DatabaseBusyException;
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+// GET /api/employees as ready to send bytes : the json array of every employee, its gzip variant and an ETag per
+// variant, built once and served to every poll until a write through the EmployeeService invalidates it.
+// the current snapshot is one immutable object behind an AtomicReference, a rebuild swaps in a complete new one :
+// a reader holds the old or the new snapshot, never a mix. after a write commits the snapshot is dropped and a
+// rebuild is queued on a single background thread, readers arriving before it finished wait for it (read your writes)
+// instead of being served the list from before the write, for at most max-wait : then they get the previous snapshot.
+// writes that bypass the service (or go through another instance) are not seen, a snapshot older than max-age is
+// still served while a single rebuild replaces it in the background
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employee.list-cache.enabled", havingValue = "true")
+public class EmployeeListCache {
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State((Snapshot) null, true));
+
+    private final ObjectProvider<EmployeeService> employeeService;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionOperations transaction;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-list-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter hits;
+
+    private final Counter waits;
+
+    private final Counter stale;
+
+    private final long maxWaitNanos;
+
+    private final long maxAgeNanos;
+
+    // the service writes into the cache, so it is looked up when the list is built rather than injected.
+    // the rebuild reads in a read-write transaction : with employee.replica.enabled a read-only one may go to a replica
+    // that has not seen the write the rebuild is for yet
+    @Autowired
+    public EmployeeListCache(ObjectProvider<EmployeeService> employeeService, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${employee.list-cache.max-wait:2s}") Duration maxWait,
+                             @Value("${employee.list-cache.max-age:1m}") Duration maxAge) {
+        this(employeeService, objectMapper, new TransactionTemplate(transactionManager), meterRegistry, maxWait, maxAge);
+    }
+
+    EmployeeListCache(ObjectProvider<EmployeeService> employeeService, ObjectMapper objectMapper,
+                      TransactionOperations transaction, MeterRegistry meterRegistry, Duration maxWait, Duration maxAge) {
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.transaction = transaction;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxAgeNanos = maxAge.toNanos();
+        this.hits = Counter.builder("employee.list.cache.requests").tag("result", "hit")
+                .description("full list requests answered from the cached snapshot").register(meterRegistry);
+        this.waits = Counter.builder("employee.list.cache.requests").tag("result", "wait")
+                .description("full list requests that waited for a rebuild").register(meterRegistry);
+        this.stale = Counter.builder("employee.list.cache.requests").tag("result", "stale")
+                .description("full list requests answered from the previous snapshot while a rebuild ran").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        schedule(state.get());
+    }
+
+    // the current snapshot, waits up to max-wait for the rebuild when a write dropped it.
+    // a failed rebuild is retried by the next call
+    public Snapshot get() {
+        State current = state.get();
+        Snapshot ready = completed(current);
+        if (ready != null) {
+            if (System.nanoTime() - ready.builtAt > maxAgeNanos) {
+                refresh(current);
+            }
+            hits.increment();
+            return ready;
+        }
+        if (!current.afterWrite && current.previous != null && !current.snapshot.isCompletedExceptionally()) {
+            // only expired, nothing to read back
+            stale.increment();
+            return current.previous;
+        }
+        waits.increment();
+        if (current.snapshot.isCompletedExceptionally()) {
+            current = replace(current);
+        } else {
+            schedule(current);
+        }
+        try {
+            return current.snapshot.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (current.previous != null) {
+                stale.increment();
+                return current.previous;
+            }
+            throw new DatabaseBusyException("employee list is still being built, retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseBusyException("interrupted while the employee list was built");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    // after the transaction commits (if one is active), like EmployeeCache.invalidate
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replace(state.get());
+                }
+            });
+        } else {
+            replace(state.get());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        rebuilder.shutdownNow();
+    }
+
+    // an expired snapshot : of the readers that notice, only the first swaps in a new state, all keep
+    // serving the expired one (it becomes the new state's previous) until the rebuild completes
+    private void refresh(State current) {
+        State next = new State(current, false);
+        if (state.compareAndSet(current, next)) {
+            schedule(next);
+        }
+    }
+
+    // a new empty state supersedes the current one and gets its own rebuild. queued rebuilds of states superseded
+    // meanwhile are skipped, only the latest is built
+    private State replace(State current) {
+        State next = new State(current, true);
+        while (!state.compareAndSet(current, next)) {
+            current = state.get();
+            next = new State(current, true);
+        }
+        State superseded = current;
+        State target = next;
+        // readers already waiting on the superseded state get the next snapshot
+        target.snapshot.whenComplete((snapshot, failure) -> {
+            if (failure != null) {
+                superseded.snapshot.completeExceptionally(failure);
+            } else {
+                superseded.snapshot.complete(snapshot);
+            }
+        });
+        schedule(target);
+        return target;
+    }
+
+    private void schedule(State target) {
+        if (target.scheduled.compareAndSet(false, true)) {
+            rebuilder.execute(() -> rebuild(target));
+        }
+    }
+
+    private void rebuild(State target) {
+        if (state.get() != target || target.snapshot.isDone()) {
+            return;
+        }
+        try {
+            List<Employee> employees = transaction.execute(status -> employeeService.getObject().getAllEmployees());
+            target.snapshot.complete(Snapshot.of(objectMapper.writeValueAsBytes(employees), employees.size()));
+        } catch (JsonProcessingException e) {
+            target.snapshot.completeExceptionally(new UncheckedIOException(e));
+        } catch (RuntimeException | Error e) {
+            target.snapshot.completeExceptionally(e);
+        }
+    }
+
+    private static Snapshot completed(State state) {
+        return state.snapshot.isDone() && !state.snapshot.isCompletedExceptionally() ? state.snapshot.join() : null;
+    }
+
+    private static final class State {
+
+        private final CompletableFuture<Snapshot> snapshot = new CompletableFuture<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // the last complete snapshot before this state, served when its rebuild takes longer than max-wait
+        private final Snapshot previous;
+
+        // dropped by a write (or a failed rebuild) rather than for its age : readers wait for the rebuild
+        private final boolean afterWrite;
+
+        State(Snapshot previous, boolean afterWrite) {
+            this.previous = previous;
+            this.afterWrite = afterWrite;
+        }
+
+        State(State superseded, boolean afterWrite) {
+            this(completed(superseded) != null ? completed(superseded) : superseded.previous, afterWrite);
+        }
+    }
+
+    // one encoded list, never changed after it is built. the ETag is a hash of the json, the gzip variant
+    // is a different representation and gets its own
+    public static final class Snapshot {
+
+        private final byte[] json;
+
+        private final byte[] gzip;
+
+        private final String eTag;
+
+        private final String gzipETag;
+
+        private final int size;
+
+        private final long builtAt = System.nanoTime();
+
+        private Snapshot(byte[] json, byte[] gzip, String hash, int size) {
+            this.json = json;
+            this.gzip = gzip;
+            this.eTag = "\"" + hash + "\"";
+            this.gzipETag = "\"" + hash + "-gzip\"";
+            this.size = size;
+        }
+
+        static Snapshot of(byte[] json, int size) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new Snapshot(json, compressed.toByteArray(), DigestUtils.md5DigestAsHex(json), size);
+        }
+
+        // the arrays are shared by every request, callers must not modify them
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public String getGzipETag() {
+            return gzipETag;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+}
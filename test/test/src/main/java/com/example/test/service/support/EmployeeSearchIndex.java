@@ -0,0 +1,366 @@
+package com.example.test.service.support;
+
+import com.example.test.datasource.PrimaryReads;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// in-memory type-ahead index for GET /api/employees/search?q= : a sorted term dictionary (first name, last name,
+// the whole email and the words of its local part, lower cased) with the ids of the employees per term.
+// every word of the query must be the prefix of one of an employee's terms. candidates come from the longest word's
+// terms, the other words are checked against the employee, and the best limit are ranked by how well they matched
+// (whole name > name prefix > email word > email prefix). at most MAX_CANDIDATES employees are looked at per query,
+// exact terms first : a query of a letter or two is answered from a sample, each further letter narrows it down.
+// filled from the table once the application is ready, then kept current by the EmployeeService writes after commit
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employee.search.enabled", havingValue = "true")
+public class EmployeeSearchIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    // bounds the work of one keystroke whatever the table size
+    public static final int MAX_CANDIDATES = 10_000;
+
+    private static final int EXACT_NAME = 8;
+    private static final int NAME_PREFIX = 4;
+    private static final int EXACT_EMAIL = 2;
+    private static final int EMAIL_PREFIX = 1;
+
+    private static final Comparator<Hit> BEST_LAST = Comparator.comparingInt((Hit hit) -> hit.score)
+            .thenComparing((Hit hit) -> hit.document.last, Comparator.reverseOrder())
+            .thenComparing((Hit hit) -> hit.document.first, Comparator.reverseOrder())
+            .thenComparing((Hit hit) -> hit.document.id, Comparator.reverseOrder());
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    // ids removed while the table is still being read, the load must not bring them back
+    private final Set<Long> removedWhileLoading = new HashSet<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ObjectProvider<EmployeeService> employeeService;
+
+    private volatile boolean loading;
+
+    // the service writes into the index, so it is looked up when the index is loaded rather than injected
+    public EmployeeSearchIndex(ObjectProvider<EmployeeService> employeeService, MeterRegistry meterRegistry) {
+        this.employeeService = employeeService;
+        Gauge.builder("employee.search.documents", this, EmployeeSearchIndex::size)
+                .description("employees in the search index")
+                .register(meterRegistry);
+    }
+
+    // streams the whole table from the primary, writes that commit meanwhile win over the rows read here
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loading = true;
+        try {
+            PrimaryReads.run(() -> employeeService.getObject().exportEmployees(employee -> write(() -> {
+                if (!documents.containsKey(employee.getId()) && !removedWhileLoading.contains(employee.getId())) {
+                    add(new Document(employee));
+                }
+            })));
+        } finally {
+            write(() -> {
+                loading = false;
+                removedWhileLoading.clear();
+            });
+        }
+    }
+
+    // after the transaction commits (if one is active), like EmployeeCache.invalidate
+    public void put(Employee employee) {
+        Document document = new Document(employee);
+        afterCommit(() -> write(() -> {
+            remove(document.id);
+            add(document);
+        }));
+    }
+
+    public void patch(long id, EmployeePatch patch) {
+        afterCommit(() -> write(() -> {
+            Document current = remove(id);
+            if (current != null) {
+                Map<String, String> changes = patch.getChanges();
+                add(new Document(id,
+                        changes.getOrDefault("firstName", current.firstName),
+                        changes.getOrDefault("lastName", current.lastName),
+                        changes.getOrDefault("email", current.email),
+                        current.version + 1));
+            }
+        }));
+    }
+
+    public void delete(long id) {
+        afterCommit(() -> write(() -> {
+            remove(id);
+            if (loading) {
+                removedWhileLoading.add(id);
+            }
+        }));
+    }
+
+    public List<Employee> search(String query, int limit) {
+        String[] words = words(query);
+        int size = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        if (words.length == 0) {
+            return List.of();
+        }
+        // the longest word has the fewest candidates
+        String[] byLength = words.clone();
+        Arrays.sort(byLength, Comparator.comparingInt(String::length).reversed());
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(size + 1, BEST_LAST);
+        lock.readLock().lock();
+        try {
+            Set<Long> seen = new HashSet<>();
+            // the word itself sorts before every longer term it is a prefix of
+            candidates:
+            for (Postings postings : terms.subMap(byLength[0], true, byLength[0] + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < postings.size; i++) {
+                    if (seen.size() >= MAX_CANDIDATES) {
+                        break candidates;
+                    }
+                    long id = postings.ids[i];
+                    if (!seen.add(id)) {
+                        continue;
+                    }
+                    Document document = documents.get(id);
+                    int score = score(document, words);
+                    if (score > 0) {
+                        best.add(new Hit(document, score));
+                        if (best.size() > size) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Employee> employees = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            employees.add(best.poll().document.toEmployee());
+        }
+        Collections.reverse(employees);
+        return employees;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 0 when a word matches none of the employee's terms
+    private static int score(Document document, String[] words) {
+        int total = 0;
+        for (String word : words) {
+            int score = 0;
+            if (document.first.equals(word) || document.last.equals(word)) {
+                score = EXACT_NAME;
+            } else if (document.first.startsWith(word) || document.last.startsWith(word)) {
+                score = NAME_PREFIX;
+            } else {
+                for (String emailTerm : document.emailTerms) {
+                    score = Math.max(score, emailTerm.equals(word) ? EXACT_EMAIL : emailTerm.startsWith(word) ? EMAIL_PREFIX : 0);
+                }
+            }
+            if (score == 0) {
+                return 0;
+            }
+            total += score;
+        }
+        return total;
+    }
+
+    // callers hold the write lock
+    private void add(Document document) {
+        documents.put(document.id, document);
+        for (String term : document.terms()) {
+            terms.computeIfAbsent(term, key -> new Postings()).add(document.id);
+        }
+    }
+
+    private Document remove(long id) {
+        Document document = documents.remove(id);
+        if (document != null) {
+            for (String term : document.terms()) {
+                Postings postings = terms.get(term);
+                if (postings != null && postings.remove(id) && postings.size == 0) {
+                    terms.remove(term);
+                }
+            }
+        }
+        return document;
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    static String[] words(String text) {
+        String trimmed = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    // what the index keeps of an employee, enough to answer without reading the table
+    private static final class Document {
+
+        private final long id;
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final long version;
+
+        // lower cased terms
+        private final String first;
+        private final String last;
+        private final String[] emailTerms;
+
+        Document(Employee employee) {
+            this(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(), employee.getVersion());
+        }
+
+        Document(long id, String firstName, String lastName, String email, long version) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.version = version;
+            this.first = lower(firstName);
+            this.last = lower(lastName);
+            String lowerEmail = lower(email);
+            int at = lowerEmail.indexOf('@');
+            Set<String> emailTerms = new LinkedHashSet<>();
+            emailTerms.add(lowerEmail);
+            for (String part : (at < 0 ? lowerEmail : lowerEmail.substring(0, at)).split("[._+-]")) {
+                if (!part.isEmpty()) {
+                    emailTerms.add(part);
+                }
+            }
+            this.emailTerms = emailTerms.toArray(new String[0]);
+        }
+
+        Set<String> terms() {
+            Set<String> terms = new LinkedHashSet<>(Arrays.asList(emailTerms));
+            if (!first.isEmpty()) {
+                terms.add(first);
+            }
+            if (!last.isEmpty()) {
+                terms.add(last);
+            }
+            return terms;
+        }
+
+        Employee toEmployee() {
+            return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).version(version).build();
+        }
+    }
+
+    // ascending ids, appended in the common case since ids grow
+    private static final class Postings {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long id) {
+            int at = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                at = -at - 1;
+            } else if (at < size) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+
+    private static final class Hit {
+
+        private final Document document;
+        private final int score;
+
+        Hit(Document document, int score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.test.service.support;
+
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeIngestion;
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.exception.IngestionQueueFullException;
+import com.example.test.exception.InvalidEmployeeException;
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// write-behind creates : POST /api/employees only validates and queues, a single writer thread takes whatever
+// has queued up (at most batch-size) and commits it with one EmployeeService.saveEmployees call, so a burst of
+// creates becomes a few transactions of batched inserts. emails are checked per batch like the bulk endpoint,
+// a duplicate (in the table or earlier in the same batch) ends as CONFLICT.
+// a full queue is rejected with 429 instead of blocking the request thread.
+// statuses are kept until retention after the write, pending ones until they are written.
+// on shutdown no new creates are taken and the writer empties the queue before the service goes away.
+// servlet stack only, it writes through the blocking EmployeeService
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employee.write-behind.enabled", havingValue = "true")
+public class EmployeeWriteBehind {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final EmployeeService employeeService;
+
+    private final BlockingQueue<Pending> queue;
+
+    private final int batchSize;
+
+    private final Duration drainTimeout;
+
+    private final Map<String, EmployeeIngestion> pending = new ConcurrentHashMap<>();
+
+    private final Cache<String, EmployeeIngestion> completed;
+
+    private final Counter rejected;
+
+    private final DistributionSummary batches;
+
+    private final Thread writer;
+
+    private volatile boolean accepting = true;
+
+    public EmployeeWriteBehind(EmployeeService employeeService, MeterRegistry meterRegistry,
+                               @Value("${employee.write-behind.queue-capacity:10000}") int queueCapacity,
+                               @Value("${employee.write-behind.batch-size:500}") int batchSize,
+                               @Value("${employee.write-behind.status-retention:10m}") Duration statusRetention,
+                               @Value("${employee.write-behind.drain-timeout:30s}") Duration drainTimeout) {
+        this.employeeService = employeeService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.drainTimeout = drainTimeout;
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(statusRetention)
+                .maximumSize(Math.max(queueCapacity * 10L, 100_000))
+                .build();
+        this.rejected = meterRegistry.counter("employee.write.behind.rejected");
+        this.batches = DistributionSummary.builder("employee.write.behind.batch")
+                .baseUnit("rows")
+                .register(meterRegistry);
+        meterRegistry.gauge("employee.write.behind.queue", queue, BlockingQueue::size);
+        this.writer = new Thread(this::drain, "employee-write-behind");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    public EmployeeIngestion submit(Employee employee) {
+        validate(employee);
+        if (!accepting) {
+            rejected.increment();
+            throw new IngestionQueueFullException("not accepting creates, shutting down");
+        }
+        String trackingId = UUID.randomUUID().toString();
+        EmployeeIngestion ingestion = EmployeeIngestion.pending(trackingId);
+        pending.put(trackingId, ingestion);
+        // only the fields a create may set, whatever id or version the client sent is dropped
+        Employee copy = Employee.builder()
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+        if (!queue.offer(new Pending(trackingId, copy))) {
+            pending.remove(trackingId);
+            rejected.increment();
+            throw new IngestionQueueFullException("write-behind queue is full, retry later");
+        }
+        return ingestion;
+    }
+
+    public Optional<EmployeeIngestion> status(String trackingId) {
+        // completed first : a finished create is put there before it leaves pending
+        EmployeeIngestion ingestion = completed.getIfPresent(trackingId);
+        return Optional.ofNullable(ingestion != null ? ingestion : pending.get(trackingId));
+    }
+
+    private static void validate(Employee employee) {
+        if (isBlank(employee.getFirstName()) || isBlank(employee.getLastName()) || isBlank(employee.getEmail())) {
+            throw new InvalidEmployeeException("firstName, lastName and email are required");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (accepting || !queue.isEmpty()) {
+            Pending first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<EmployeeBatchResult> results;
+        try {
+            results = employeeService.saveEmployees(batch.stream().map(Pending::copy).collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            // a batch that throws wrote nothing (EmployeeServiceImpl rolls it back as a whole),
+            // written again one by one so only the create at fault fails
+            log.warn("write-behind batch of {} failed, retrying one by one : {}", batch.size(), e.toString());
+            batch.forEach(this::writeOne);
+            return;
+        }
+        batches.record(batch.size());
+        for (EmployeeBatchResult result : results) {
+            Pending item = batch.get(result.getIndex());
+            switch (result.getStatus()) {
+                case CREATED:
+                    complete(EmployeeIngestion.created(item.trackingId, result.getEmployee().getId()));
+                    break;
+                case CONFLICT:
+                    complete(EmployeeIngestion.conflict(item.trackingId, item.employee.getEmail()));
+                    break;
+                default:
+                    // not written while the rest of the batch was (a failed shard), only these are tried again
+                    writeOne(item);
+            }
+        }
+    }
+
+    private void writeOne(Pending item) {
+        try {
+            Employee saved = employeeService.saveEmployee(item.copy());
+            batches.record(1);
+            complete(EmployeeIngestion.created(item.trackingId, saved.getId()));
+        } catch (DuplicateEmailException e) {
+            complete(EmployeeIngestion.conflict(item.trackingId, item.employee.getEmail()));
+        } catch (RuntimeException e) {
+            log.warn("write-behind create {} failed : {}", item.trackingId, e.toString());
+            complete(EmployeeIngestion.failed(item.trackingId, e.getMessage()));
+        }
+    }
+
+    private void complete(EmployeeIngestion ingestion) {
+        completed.put(ingestion.getTrackingId(), ingestion);
+        pending.remove(ingestion.getTrackingId());
+    }
+
+    // runs before the service and the data source are destroyed (they are dependencies of this bean)
+    // and after the web server stopped taking requests
+    @PreDestroy
+    public void close() throws InterruptedException {
+        accepting = false;
+        writer.join(drainTimeout.toMillis());
+        if (writer.isAlive()) {
+            log.warn("write-behind drain did not finish within {}, {} creates still queued", drainTimeout, queue.size());
+            return;
+        }
+        // a submit racing with close may have queued after the writer left
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Pending {
+
+        private final String trackingId;
+
+        private final Employee employee;
+
+        // every attempt writes a fresh instance, a rolled back batch leaves generated ids on the ones it used
+        Employee copy() {
+            return employee.toBuilder().build();
+        }
+    }
+}
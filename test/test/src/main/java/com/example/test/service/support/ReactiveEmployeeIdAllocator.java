@@ -0,0 +1,83 @@
+package com.example.test.service.support;
+
+import com.example.test.model.Employee;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// ids for the reactive profile from the same employee_seq hibernate uses, with the same pooled semantics :
+// a value v read from the sequence owns the ids v - 49 .. v, so both stacks can write to one table.
+// MySQL has no sequences, hibernate emulates employee_seq with a one row table there and so does this
+@Component
+@Profile("reactive")
+public class ReactiveEmployeeIdAllocator {
+
+    private final DatabaseClient databaseClient;
+
+    private final TransactionalOperator isolated;
+
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(1, 0));
+
+    public ReactiveEmployeeIdAllocator(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        // like hibernate, the table update commits on its own instead of holding the row lock until the caller commits
+        this.isolated = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            Block block = current.get();
+            long id = block.next.getAndIncrement();
+            if (id <= block.hi) {
+                return Mono.just(id);
+            }
+            // concurrent callers may each fetch a block, the ranges never overlap and a replaced block's rest is skipped
+            return fetchHi().map(hi -> {
+                Block fetched = new Block(Math.max(1, hi - Employee.ID_ALLOCATION + 1), hi);
+                long first = fetched.next.getAndIncrement();
+                current.set(fetched);
+                return first;
+            });
+        });
+    }
+
+    private Mono<Long> fetchHi() {
+        String database = databaseClient.getConnectionFactory().getMetadata().getName().toLowerCase(Locale.ROOT);
+        if (!database.contains("mysql")) {
+            return databaseClient.sql("SELECT NEXT VALUE FOR employee_seq")
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        Mono<Long> hi = databaseClient.sql("SELECT next_val FROM employee_seq FOR UPDATE")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(value -> databaseClient.sql("UPDATE employee_seq SET next_val = :next WHERE next_val = :value")
+                        .bind("next", value + Employee.ID_ALLOCATION)
+                        .bind("value", value)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(value));
+        return isolated.transactional(hi);
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long hi;
+
+        private Block(long next, long hi) {
+            this.next = new AtomicLong(next);
+            this.hi = hi;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- the global email -> shard directory (EmailDirectory), the primary key keeps an email unique across shards
+create table if not exists employee_email_directory (
+    email varchar(255) not null,
+    shard int not null,
+    employee_id bigint not null,
+    primary key (email),
+    key ix_employee_email_directory_employee (employee_id)
+);
@@ -0,0 +1,15 @@
+-- one employee shard (EmployeeShards), run on every shard with employee.shards.initialize-schema=true.
+-- ids come from employee_id_block : the low bits of an id are the shard, the rest is next_val of its shard
+create table if not exists employees (
+    id bigint not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    version bigint not null,
+    primary key (id),
+    unique key ux_employees_email (email),
+    key ix_employees_last_first (last_name, first_name)
+);
+
+create table if not exists employee_id_block (next_val bigint not null);
+insert into employee_id_block (next_val) select 1 from dual where not exists (select * from employee_id_block);
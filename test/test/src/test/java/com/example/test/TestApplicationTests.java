@@ -1,13 +1,28 @@
 package com.example.test;
 
+import com.example.test.service.support.EmployeeBulkhead;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 class TestApplicationTests {
 
+    @Autowired
+    private ObjectProvider<EmployeeBulkhead> bulkhead;
+
     @Test
     void contextLoads() {
     }
 
+    @DisplayName("the bulkhead stays off on tomcat's platform thread pool")
+    @Test
+    void givenPlatformThreads_whenContextLoads_thenNoBulkhead() {
+        assertThat(bulkhead.getIfAvailable()).isNull();
+    }
+
 }
@@ -0,0 +1,86 @@
+package com.example.test.benchmark;
+
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.example.test.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// single-item create path (findByEmail + insert per row) vs POST /batch path (IN lookup + JDBC batches)
+// run with : mvn test -Pbenchmark -Dtest=EmployeeBatchCreateBenchmarkTests -Dbenchmark.rows=50000
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class EmployeeBatchCreateBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int REQUEST_SIZE = 1_000;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("batch create throughput against the single item path")
+    @Test
+    public void singleVersusBatch() {
+        // warm up both paths
+        single("warmup-single", REQUEST_SIZE);
+        batch("warmup-batch", REQUEST_SIZE);
+        employeeRepository.deleteAllInBatch();
+
+        long singleNanos = single("single", ROWS);
+        long batchNanos = batch("batch", ROWS);
+
+        System.out.printf("rows=%d%n", ROWS);
+        System.out.printf("single  %8d ms  %8.0f rows/s%n", singleNanos / 1_000_000, ROWS * 1e9 / singleNanos);
+        System.out.printf("batch   %8d ms  %8.0f rows/s%n", batchNanos / 1_000_000, ROWS * 1e9 / batchNanos);
+
+        assertThat(employeeRepository.count()).isEqualTo(2L * ROWS);
+        assertThat(batchNanos).isLessThan(singleNanos);
+    }
+
+    private long single(String prefix, int rows) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            employeeService.saveEmployee(employee(prefix, i));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long batch(String prefix, int rows) {
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += REQUEST_SIZE) {
+            List<Employee> request = new ArrayList<>(REQUEST_SIZE);
+            for (int i = from; i < Math.min(from + REQUEST_SIZE, rows); i++) {
+                request.add(employee(prefix, i));
+            }
+            List<EmployeeBatchResult> results = employeeService.saveEmployees(request);
+            assertThat(results).allMatch(result -> result.getStatus() == EmployeeBatchResult.Status.CREATED);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private Employee employee(String prefix, int i) {
+        return Employee.builder()
+                .firstName("first" + i)
+                .lastName("last" + i)
+                .email(prefix + i + "@naver.com")
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.test.benchmark;
+
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.example.test.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// create throughput : check-then-insert (findByEmail + save, the old saveEmployee) vs insert-first
+// run with : mvn test -Pbenchmark -Dtest=EmployeeCreateBenchmarkTests -Dbenchmark.rows=50000
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class EmployeeCreateBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("insert-first create throughput against check-then-insert")
+    @Test
+    public void checkThenInsertVersusInsertFirst() {
+        checkThenInsert("warmup-check", 1_000);
+        insertFirst("warmup-insert", 1_000);
+
+        long checkNanos = checkThenInsert("check", ROWS);
+        long insertNanos = insertFirst("insert", ROWS);
+
+        // duplicates take the exception path, measure it separately
+        long start = System.nanoTime();
+        int conflicts = 0;
+        for (int i = 0; i < 1_000; i++) {
+            try {
+                employeeService.saveEmployee(employee("insert", i));
+            } catch (DuplicateEmailException e) {
+                conflicts++;
+            }
+        }
+        long duplicateNanos = System.nanoTime() - start;
+
+        System.out.printf("rows=%d%n", ROWS);
+        System.out.printf("check-then-insert  %8d ms  %8.0f rows/s%n", checkNanos / 1_000_000, ROWS * 1e9 / checkNanos);
+        System.out.printf("insert-first       %8d ms  %8.0f rows/s%n", insertNanos / 1_000_000, ROWS * 1e9 / insertNanos);
+        System.out.printf("duplicate (409)    %8d ms  %8.0f rows/s%n", duplicateNanos / 1_000_000, 1_000 * 1e9 / duplicateNanos);
+
+        assertThat(conflicts).isEqualTo(1_000);
+        assertThat(insertNanos).isLessThan(checkNanos);
+    }
+
+    private long checkThenInsert(String prefix, int rows) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            Employee employee = employee(prefix, i);
+            if (employeeRepository.findByEmail(employee.getEmail()).isEmpty()) {
+                employeeRepository.save(employee);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long insertFirst(String prefix, int rows) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            employeeService.saveEmployee(employee(prefix, i));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private Employee employee(String prefix, int i) {
+        return Employee.builder()
+                .firstName("first" + i)
+                .lastName("last" + i)
+                .email(prefix + i + "@naver.com")
+                .build();
+    }
+}
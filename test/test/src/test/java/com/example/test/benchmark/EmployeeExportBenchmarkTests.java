@@ -0,0 +1,69 @@
+package com.example.test.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// exports a table far bigger than the heap, surefire runs the benchmark profile with a small -Xmx (see pom.xml)
+// the table lives in a file based H2 so the rows themselves are not on the heap
+// run with : mvn test -Pbenchmark -Dtest=EmployeeExportBenchmarkTests -Dbenchmark.export.rows=10000000
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/export-benchmark;MODE=MySQL",
+        "spring.jpa.show-sql=false"
+})
+public class EmployeeExportBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.export.rows", 1_000_000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from employees");
+        EmployeeSeeder.seed(jdbcTemplate, ROWS);
+    }
+
+    @DisplayName("ndjson export streams every row with a flat heap")
+    @Test
+    public void exportLargeTable() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/api/employees/export")
+                .openConnection();
+        long start = System.nanoTime();
+        long lines = 0;
+        long bytes = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                bytes += line.length() + 1;
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("rows=%d bytes=%d time=%d ms maxHeap=%d MB usedHeap=%d MB%n",
+                lines, bytes, elapsedMs, runtime.maxMemory() >> 20, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+
+        assertThat(connection.getContentType()).startsWith("application/x-ndjson");
+        assertThat(lines).isEqualTo(ROWS);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.test.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// payload size and latency of the full employee json against sparse fieldsets, end to end through the
+// controller (query, mapping and serialization) on benchmark.rows rows : the listing and single employees by id
+// run with : mvn test -Pbenchmark -DargLine=-Xmx1g -Dtest=EmployeeFieldsBenchmarkTests -Dbenchmark.rows=10000
+@Tag("benchmark")
+@SpringBootTest(properties = {"logging.level.org.hibernate.engine.jdbc=OFF", "employee.sql-trace.enabled=false"})
+@AutoConfigureMockMvc
+public class EmployeeFieldsBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50);
+    private static final int LOOKUPS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from employees");
+        EmployeeSeeder.seed(jdbcTemplate, ROWS);
+        ids = jdbcTemplate.queryForList("select id from employees", Long.class);
+    }
+
+    @DisplayName("response bytes and latency of the listing and of by id with and without fields=")
+    @Test
+    public void fullVersusSparseFieldsets() throws Exception {
+        for (String fields : new String[]{null, "id,email", "email"}) {
+            measure("warmup", ITERATIONS, i -> listing(fields));
+        }
+        StringBuilder report = new StringBuilder(String.format("rows=%d iterations=%d lookups=%d%n", ROWS, ITERATIONS, LOOKUPS));
+        for (String fields : new String[]{null, "id,email", "email"}) {
+            report.append(measure("list  fields=" + fields, ITERATIONS, i -> listing(fields))).append('\n');
+        }
+        for (String fields : new String[]{null, "email"}) {
+            measure("warmup", LOOKUPS, i -> byId(i, fields));
+            report.append(measure("by id fields=" + fields, LOOKUPS, i -> byId(i, fields))).append('\n');
+        }
+        System.out.print(report);
+    }
+
+    private RequestBuilder listing(String fields) {
+        return fields == null ? get("/api/employees") : get("/api/employees").param("fields", fields);
+    }
+
+    private RequestBuilder byId(int i, String fields) {
+        long id = ids.get(i % ids.size());
+        return fields == null ? get("/api/employees/{id}", id) : get("/api/employees/{id}", id).param("fields", fields);
+    }
+
+    private String measure(String mode, int calls, IntFunction<RequestBuilder> request) throws Exception {
+        Histogram histogram = new Histogram(3);
+        long bytes = 0;
+        for (int i = 0; i < calls; i++) {
+            long start = System.nanoTime();
+            MvcResult result = mockMvc.perform(request.apply(i)).andReturn();
+            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            assertThat(result.getResponse().getStatus()).isEqualTo(200);
+            bytes += result.getResponse().getContentAsByteArray().length;
+        }
+        return String.format("%-24s p50=%8.3f ms  p99=%8.3f ms  body=%10d bytes",
+                mode, histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3, bytes / calls);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.test.benchmark;
+
+import com.example.test.controller.EmployeeController;
+import com.example.test.service.EmployeeService;
+import com.example.test.service.support.EmployeeListCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// GET /api/employees on benchmark.rows rows : query + serialization per request (a controller without the list
+// cache, standalone so without the application filters) against the pre-serialized snapshot as json, as gzip
+// and as a 304 for a client polling with If-None-Match. MockHttpServletResponse takes a body one byte at a time
+// (~40 ms per MB here, paid by both sides), the bytes a request costs the application are measured without it too
+// run with : mvn test -Pbenchmark -DargLine=-Xmx1g -Dtest=EmployeeListCacheBenchmarkTests -Dbenchmark.rows=10000
+@Tag("benchmark")
+@SpringBootTest(properties = {"logging.level.org.hibernate.engine.jdbc=OFF", "employee.sql-trace.enabled=false",
+        "employee.list-cache.enabled=true"})
+@AutoConfigureMockMvc
+public class EmployeeListCacheBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeListCache listCache;
+
+    private MockMvc uncached;
+
+    // seeded around the service, the snapshot is dropped by hand
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from employees");
+        EmployeeSeeder.seed(jdbcTemplate, ROWS);
+        listCache.invalidate();
+        uncached = MockMvcBuilders.standaloneSetup(new EmployeeController(employeeService, objectMapper, null, null, null))
+                .build();
+    }
+
+    @DisplayName("latency and bytes of the full list encoded per request against the cached snapshot")
+    @Test
+    public void encodedPerRequestVersusSnapshot() throws Exception {
+        String eTag = mockMvc.perform(get("/api/employees")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        RequestBuilder json = get("/api/employees");
+        RequestBuilder gzip = get("/api/employees").header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        RequestBuilder conditional = get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, eTag);
+
+        measure("warmup", uncached, json, 200);
+        measure("warmup", mockMvc, json, 200);
+        StringBuilder report = new StringBuilder(String.format("rows=%d iterations=%d%n", ROWS, ITERATIONS));
+        report.append(measure("per request json", uncached, json, 200)).append('\n');
+        report.append(measure("snapshot json", mockMvc, json, 200)).append('\n');
+        report.append(measure("snapshot gzip", mockMvc, gzip, 200)).append('\n');
+        report.append(measure("snapshot 304", mockMvc, conditional, 304)).append('\n');
+        report.append(measure("encode per request", () -> objectMapper.writeValueAsBytes(employeeService.getAllEmployees())))
+                .append('\n');
+        report.append(measure("snapshot lookup", () -> listCache.get().getJson())).append('\n');
+        System.out.print(report);
+    }
+
+    private String measure(String mode, MockMvc target, RequestBuilder request, int expectedStatus) throws Exception {
+        Histogram histogram = new Histogram(3);
+        long bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            MvcResult result = target.perform(request).andReturn();
+            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            assertThat(result.getResponse().getStatus()).isEqualTo(expectedStatus);
+            bytes += result.getResponse().getContentAsByteArray().length;
+        }
+        return format(mode, histogram, bytes);
+    }
+
+    private String measure(String mode, Callable<byte[]> body) throws Exception {
+        Histogram histogram = new Histogram(3);
+        long bytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            bytes += body.call().length;
+            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+        return format(mode, histogram, bytes);
+    }
+
+    private static String format(String mode, Histogram histogram, long bytes) {
+        return String.format("%-18s p50=%8.3f ms  p99=%8.3f ms  body=%10d bytes",
+                mode, histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3, bytes / ITERATIONS);
+    }
+}
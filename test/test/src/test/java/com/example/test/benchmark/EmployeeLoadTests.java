@@ -0,0 +1,173 @@
+package com.example.test.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// drives a POST/GET/PUT/DELETE mix against the real server at a fixed arrival rate, see LoadGenerator.
+// writes target/load-report.json (p50/p99/p99.9/max and throughput per operation)
+// run with : mvn test -Pbenchmark -Dtest=EmployeeLoadTests -Dload.rate=500 -Dload.seconds=30
+//            -Dload.mix=get:70,create:10,update:10,delete:10 [-Dload.maxP99Millis=50]
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.org.hibernate.engine.jdbc=OFF"})
+public class EmployeeLoadTests {
+
+    private static final int SEEDED = Integer.getInteger("load.seeded", 10_000);
+    private static final int RATE = Integer.getInteger("load.rate", 100);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 10);
+    private static final String MIX = System.getProperty("load.mix", "get:70,create:10,update:10,delete:10");
+    private static final String MAX_P99_MILLIS = System.getProperty("load.maxP99Millis");
+    private static final File REPORT = new File(System.getProperty("load.report", "target/load-report.json"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicLong emails = new AtomicLong();
+
+    // ids created during the run, the delete operation consumes them so the seeded rows stay readable
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.execute("delete from employees");
+        EmployeeSeeder.seed(jdbcTemplate, SEEDED);
+    }
+
+    @DisplayName("fixed rate request mix with coordinated omission corrected latencies")
+    @Test
+    public void fixedRateMix() throws IOException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Map<String, Integer> weights = weights(MIX);
+        List<LoadGenerator.Operation> operations = new ArrayList<>();
+        weights.forEach((name, weight) -> operations.add(operation(name, weight)));
+
+        // a short warmup at the same rate, not reported
+        new LoadGenerator(httpClient, RATE, Duration.ofSeconds(Math.min(SECONDS, 3)), operations).run();
+        Map<String, Object> report = new LoadGenerator(httpClient, RATE, Duration.ofSeconds(SECONDS), operations).run();
+
+        REPORT.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT, report);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        JsonNode endpoints = objectMapper.valueToTree(report).path("endpoints");
+        for (String name : weights.keySet()) {
+            JsonNode endpoint = endpoints.path(name);
+            assertThat(endpoint.path("failures").asLong()).as(name + " failures").isZero();
+            endpoint.path("statusCodes").fieldNames().forEachRemaining(code ->
+                    assertThat(Integer.parseInt(code)).as(name + " status").isLessThan(500));
+            if (MAX_P99_MILLIS != null) {
+                assertThat(endpoint.path("p99Millis").asDouble()).as(name + " p99")
+                        .isLessThanOrEqualTo(Double.parseDouble(MAX_P99_MILLIS));
+            }
+        }
+    }
+
+    private LoadGenerator.Operation operation(String name, int weight) {
+        switch (name) {
+            case "get":
+                return new LoadGenerator.Operation(name, weight,
+                        () -> HttpRequest.newBuilder(uri("/api/employees/" + seededId())).GET().build(), null);
+            case "create":
+                return new LoadGenerator.Operation(name, weight,
+                        () -> json(HttpRequest.newBuilder(uri("/api/employees")),
+                                "POST", body("load", "test", "load" + emails.incrementAndGet() + "@naver.com")),
+                        response -> {
+                            if (response.statusCode() == 201) {
+                                created.add(readId(response.body()));
+                            }
+                        });
+            case "update":
+                return new LoadGenerator.Operation(name, weight, () -> {
+                    long id = seededId();
+                    return json(HttpRequest.newBuilder(uri("/api/employees/" + id)),
+                            "PUT", body("updated" + id, "last" + id, "user" + id + "@naver.com"));
+                }, null);
+            case "delete":
+                return new LoadGenerator.Operation(name, weight, () -> {
+                    Long id = created.poll();
+                    // nothing created yet : a missing id, answered 404 with the same single DELETE
+                    return HttpRequest.newBuilder(uri("/api/employees/" + (id != null ? id : -1))).DELETE().build();
+                }, null);
+            default:
+                throw new IllegalArgumentException("unknown operation in load.mix : " + name);
+        }
+    }
+
+    private static long seededId() {
+        return ThreadLocalRandom.current().nextLong(1, SEEDED + 1);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static HttpRequest json(HttpRequest.Builder builder, String method, String body) {
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String body(String firstName, String lastName, String email) {
+        Map<String, String> employee = new LinkedHashMap<>();
+        employee.put("firstName", firstName);
+        employee.put("lastName", lastName);
+        employee.put("email", email);
+        try {
+            return objectMapper.writeValueAsString(employee);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long readId(String body) {
+        try {
+            return objectMapper.readTree(body).path("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Integer> weights(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.test.benchmark;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// name finders at 1M rows : query plan and latency with ix_employees_last_first, then without it
+// file based H2 so the table does not sit on the heap
+// run with : mvn test -Pbenchmark -Dtest=EmployeeNameIndexBenchmarkTests
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/name-index-benchmark;MODE=MySQL",
+        "spring.jpa.show-sql=false"
+})
+public class EmployeeNameIndexBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.index.rows", 1_000_000);
+    private static final int LOOKUPS = 200;
+    private static final String NAME_QUERY = "select * from employees e where e.first_name = 'first42' and e.last_name = 'last42'";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from employees");
+        EmployeeSeeder.seed(jdbcTemplate, ROWS);
+    }
+
+    @DisplayName("name finders use the composite index")
+    @Test
+    public void nameLookupWithAndWithoutIndex() {
+        String indexedPlan = explain();
+        long indexed = medianLookup(LOOKUPS);
+
+        jdbcTemplate.execute("drop index ix_employees_last_first");
+        String scanPlan = explain();
+        // full scans are slow, fewer samples are enough
+        long scan = medianLookup(10);
+        jdbcTemplate.execute("create index ix_employees_last_first on employees (last_name, first_name)");
+
+        System.out.printf("rows=%d%n", ROWS);
+        System.out.printf("indexed  %8d us  plan: %s%n", indexed / 1000, indexedPlan.replaceAll("\\s+", " "));
+        System.out.printf("scan     %8d us  plan: %s%n", scan / 1000, scanPlan.replaceAll("\\s+", " "));
+
+        assertThat(indexedPlan).containsIgnoringCase("IX_EMPLOYEES_LAST_FIRST");
+        assertThat(scanPlan).doesNotContainIgnoringCase("IX_EMPLOYEES_LAST_FIRST");
+        assertThat(indexed).isLessThan(scan);
+    }
+
+    private String explain() {
+        return jdbcTemplate.queryForObject("explain " + NAME_QUERY, String.class);
+    }
+
+    private long medianLookup(int lookups) {
+        long[] samples = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            int x = ThreadLocalRandom.current().nextInt(1, ROWS + 1);
+            long start = System.nanoTime();
+            List<Employee> found = employeeRepository.findByNativeSQLNamed("first" + x, "last" + x);
+            samples[i] = System.nanoTime() - start;
+            assertThat(found).hasSize(1);
+        }
+        Arrays.sort(samples);
+        return samples[lookups / 2];
+    }
+}
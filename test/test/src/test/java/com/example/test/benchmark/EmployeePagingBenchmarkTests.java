@@ -0,0 +1,99 @@
+package com.example.test.benchmark;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// keyset vs OFFSET paging at increasing depth
+// run with : mvn test -Pbenchmark -Dtest=EmployeePagingBenchmarkTests -Dbenchmark.rows=1000000
+// note : in-memory H2 walks its primary key index cheaply, the OFFSET cost shows much more on MySQL/InnoDB
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+public class EmployeePagingBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int PAGE_SIZE = 50;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        EmployeeSeeder.seed(jdbcTemplate, ROWS);
+    }
+
+    @DisplayName("keyset page latency stays flat with depth, offset page latency grows")
+    @Test
+    public void keysetVersusOffset() {
+        int deep = ROWS - PAGE_SIZE;
+
+        long shallowKeyset = median(() -> keyset(0));
+        long deepKeyset = median(() -> keyset(deep));
+        long shallowOffset = median(() -> offset(0));
+        long deepOffset = median(() -> offset(deep));
+
+        System.out.printf("rows=%d page=%d (median of %d, us)%n", ROWS, PAGE_SIZE, ROUNDS);
+        System.out.printf("keyset  shallow=%8d  deep=%8d%n", shallowKeyset / 1000, deepKeyset / 1000);
+        System.out.printf("offset  shallow=%8d  deep=%8d%n", shallowOffset / 1000, deepOffset / 1000);
+
+        // flat : the deepest keyset page costs about the same as the first one
+        assertThat(deepKeyset).isLessThan(shallowKeyset * 3 + 1_000_000);
+    }
+
+    private long median(LongSupplier run) {
+        // warm up the path before measuring
+        for (int i = 0; i < ROUNDS; i++) {
+            run.getAsLong();
+        }
+        long[] samples = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            samples[i] = run.getAsLong();
+        }
+        Arrays.sort(samples);
+        return samples[ROUNDS / 2];
+    }
+
+    private long keyset(long after) {
+        long start = System.nanoTime();
+        List<Employee> page = employeeRepository.findPageAfter(after, PageRequest.of(0, PAGE_SIZE));
+        long elapsed = System.nanoTime() - start;
+        assertThat(page).hasSize(PAGE_SIZE);
+        entityManager.clear();
+        return elapsed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private long offset(int offset) {
+        long start = System.nanoTime();
+        List<Employee> page = entityManager
+                .createQuery("SELECT e from Employee e order by e.id")
+                .setFirstResult(offset)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+        long elapsed = System.nanoTime() - start;
+        assertThat(page).hasSize(PAGE_SIZE);
+        entityManager.clear();
+        return elapsed;
+    }
+}
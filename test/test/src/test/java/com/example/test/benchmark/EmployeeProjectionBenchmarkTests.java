@@ -0,0 +1,72 @@
+package com.example.test.benchmark;
+
+import com.example.test.service.EmployeeService;
+import com.sun.management.ThreadMXBean;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// getAllEmployees (managed entities, dirty checking snapshots, second level cache puts) against
+// getEmployeeSummaries (id + email through a constructor expression) on benchmark.rows rows.
+// reports latency and the bytes the calling thread allocated per call
+// run with : mvn test -Pbenchmark -DargLine=-Xmx1g -Dtest=EmployeeProjectionBenchmarkTests -Dbenchmark.rows=10000
+@Tag("benchmark")
+@SpringBootTest(properties = {"logging.level.org.hibernate.engine.jdbc=OFF", "employee.sql-trace.enabled=false"})
+public class EmployeeProjectionBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50);
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from employees");
+        EmployeeSeeder.seed(jdbcTemplate, ROWS);
+    }
+
+    @DisplayName("latency and allocation of the entity listing against the summary projection")
+    @Test
+    public void entitiesVersusSummaries() {
+        measure("warmup entities ", employeeService::getAllEmployees);
+        measure("warmup summaries", employeeService::getEmployeeSummaries);
+
+        String entities = measure("entities        ", employeeService::getAllEmployees);
+        String summaries = measure("summaries       ", employeeService::getEmployeeSummaries);
+        System.out.printf("rows=%d iterations=%d%n%s%n%s%n", ROWS, ITERATIONS, entities, summaries);
+    }
+
+    private static String measure(String mode, Supplier<List<?>> listing) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        Histogram histogram = new Histogram(3);
+        long allocated = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            List<?> rows = listing.get();
+            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            allocated += threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+            assertThat(rows).hasSize(ROWS);
+        }
+        return String.format("%s p50=%8.3f ms  p99=%8.3f ms  allocated=%6.2f MB per call (%d bytes per row)",
+                mode, histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                allocated / (double) ITERATIONS / (1 << 20), allocated / ITERATIONS / ROWS);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.test.benchmark;
+
+import com.example.test.TestApplication;
+import com.example.test.service.support.EmployeeCursor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// one burst of benchmark.concurrency page reads, all in flight at once, against the servlet api (tomcat + jpa + hikari)
+// and the reactive profile (netty + r2dbc). reports jvm peak threads and peak database connections in use during the burst.
+// client and server share the jvm, every request costs two file descriptors : 10k needs `ulimit -n` above 20k.
+// the benchmark profile keeps a 256m heap, this one needs room for the buffers of every open connection.
+// run with : mvn test -Pbenchmark -Dtest=EmployeeReactiveBenchmarkTests -DargLine=-Xmx1g -Dbenchmark.concurrency=10000
+@Tag("benchmark")
+public class EmployeeReactiveBenchmarkTests {
+
+    private static final int SEEDED = Integer.getInteger("benchmark.seeded", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 5_000);
+
+    @DisplayName("threads and connections held by servlet and reactive apis under one burst of concurrent requests")
+    @Test
+    public void servletVersusReactive() throws Exception {
+        // the first burst against each stack pays for the jit, those are thrown away
+        servlet("jit warmup");
+        reactive("jit warmup");
+
+        List<String> lines = new ArrayList<>();
+        lines.add(servlet("servlet (tomcat + jpa)"));
+        lines.add(reactive("reactive (netty + r2dbc)"));
+
+        System.out.printf("concurrency=%d seeded=%d (page reads of 20)%n", CONCURRENCY, SEEDED);
+        lines.forEach(System.out::println);
+    }
+
+    private String servlet(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestApplication.class)
+                .properties("server.port=0", "logging.level.org.hibernate.engine.jdbc=OFF")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.execute("delete from employees");
+            EmployeeSeeder.seed(jdbcTemplate, SEEDED);
+            HikariDataSource hikari = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+            return burst(mode, context, () -> hikari.getHikariPoolMXBean().getActiveConnections());
+        }
+    }
+
+    private String reactive(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestApplication.class)
+                .profiles("reactive")
+                .properties("server.port=0")
+                .run()) {
+            DatabaseClient databaseClient = context.getBean(DatabaseClient.class);
+            databaseClient.sql("delete from employees").then().block();
+            databaseClient.sql("insert into employees (id, first_name, last_name, email, version) "
+                            + "select x, concat('first', x), concat('last', x), concat('user', x, '@naver.com'), 0 "
+                            + "from system_range(1, :rows)")
+                    .bind("rows", SEEDED)
+                    .then().block();
+            ConnectionPool pool = (ConnectionPool) context.getBean(ConnectionFactory.class);
+            return burst(mode, context, () -> pool.getMetrics().map(metrics -> metrics.acquiredSize()).orElse(-1));
+        }
+    }
+
+    private String burst(String mode, ConfigurableApplicationContext context, IntSupplier connectionsInUse) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        // the client gets a fixed executor so the thread peak is the server's doing
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(2);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(clientExecutor)
+                .build();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        // the pools are sampled while the burst runs
+        AtomicInteger peakConnections = new AtomicInteger();
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakConnections.accumulateAndGet(connectionsInUse.getAsInt(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "connection-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        Histogram histogram = new ConcurrentHistogram(3);
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> requests = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            long sent = System.nanoTime();
+            requests.add(httpClient.sendAsync(request(port), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent));
+                        if (failure != null || response.statusCode() >= 300) {
+                            errors.increment();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        sampler.interrupt();
+        sampler.join();
+        clientExecutor.shutdown();
+
+        assertThat(histogram.getTotalCount()).as(mode + " requests").isEqualTo(CONCURRENCY);
+        return String.format("%-25s %6.0f req/s  p50=%7.1f ms  p99=%7.1f ms  threads=%d (peak %d)  peak db connections=%d  errors=%d",
+                mode, CONCURRENCY / elapsedSeconds,
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                threadsBefore, threads.getPeakThreadCount(), peakConnections.get(), errors.sum());
+    }
+
+    private HttpRequest request(int port) {
+        String cursor = EmployeeCursor.encode(ThreadLocalRandom.current().nextLong(SEEDED - 20));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=20&cursor=" + cursor))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.test.benchmark;
+
+import com.example.test.model.Employee;
+import com.example.test.service.support.EmployeeSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// EmployeeSearchIndex on its own at benchmark.rows employees : heap taken by the index (used heap after a full gc,
+// before and after filling it) and query latency per kind of query. names are drawn from a few thousand
+// first names and a few hundred last names, emails are unique
+// run with : mvn test -Pbenchmark -DargLine=-Xmx2g -Dtest=EmployeeSearchBenchmarkTests -Dbenchmark.rows=1000000
+@Tag("benchmark")
+public class EmployeeSearchBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int QUERIES = Integer.getInteger("benchmark.queries", 2_000);
+
+    private static final String[] SYLLABLES = {"seo", "in", "min", "su", "ji", "hoon", "young", "ho", "jun", "woo",
+            "hye", "na", "eun", "bin", "kyung", "sang", "do", "yeon", "ha", "ri"};
+
+    @DisplayName("index heap footprint and query latency")
+    @Test
+    public void footprintAndLatency() {
+        Random random = new Random(42);
+        List<String> firstNames = new ArrayList<>();
+        for (String a : SYLLABLES) {
+            for (String b : SYLLABLES) {
+                for (int i = 0; i < 10; i++) {
+                    firstNames.add(a + b + (i == 0 ? "" : String.valueOf((char) ('a' + i))));
+                }
+            }
+        }
+        List<String> lastNames = new ArrayList<>();
+        for (String a : SYLLABLES) {
+            for (String b : SYLLABLES) {
+                lastNames.add(a + b);
+            }
+        }
+
+        // a sample of the stored emails for the email prefix queries, taken outside of the measured heap
+        List<String> sampledEmails = new ArrayList<>();
+        long before = usedHeapAfterGc();
+        EmployeeSearchIndex index = new EmployeeSearchIndex(null, new SimpleMeterRegistry());
+        long start = System.nanoTime();
+        for (int i = 1; i <= ROWS; i++) {
+            String firstName = firstNames.get(random.nextInt(firstNames.size()));
+            String lastName = lastNames.get(random.nextInt(lastNames.size()));
+            String email = firstName + "." + lastName + i + "@naver.com";
+            index.put(Employee.builder()
+                    .id(i)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(email)
+                    .build());
+            if (i % 1000 == 0) {
+                sampledEmails.add(email.substring(0, email.indexOf('@') + 3));
+            }
+        }
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long footprint = usedHeapAfterGc() - before;
+
+        System.out.printf("rows=%d terms=%d build=%d ms heap=%d MB (%d bytes per employee)%n",
+                index.size(), index.termCount(), buildMillis, footprint >> 20, footprint / Math.max(1, index.size()));
+        measure(index, "1 letter       ", random, () -> SYLLABLES[random.nextInt(SYLLABLES.length)].substring(0, 1));
+        measure(index, "3 letters      ", random, () -> SYLLABLES[random.nextInt(SYLLABLES.length)] + "i");
+        measure(index, "first name     ", random, () -> firstNames.get(random.nextInt(firstNames.size())));
+        measure(index, "first + last   ", random, () -> firstNames.get(random.nextInt(firstNames.size())) + " "
+                + lastNames.get(random.nextInt(lastNames.size())).substring(0, 3));
+        measure(index, "email prefix   ", random, () -> sampledEmails.get(random.nextInt(sampledEmails.size())));
+        // keeps the index reachable until every measurement is done
+        System.out.println(index.size() == ROWS ? "" : "index size changed");
+    }
+
+    private static void measure(EmployeeSearchIndex index, String kind, Random random, Supplier<String> query) {
+        for (int i = 0; i < QUERIES / 4; i++) {
+            index.search(query.get(), 20);
+        }
+        Histogram histogram = new Histogram(3);
+        long results = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String q = query.get();
+            long sent = System.nanoTime();
+            results += index.search(q, 20).size();
+            histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent));
+        }
+        System.out.printf("%s p50=%8.3f ms  p99=%8.3f ms  max=%8.3f ms  avg results=%.1f%n", kind,
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                histogram.getMaxValue() / 1e3, (double) results / QUERIES);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
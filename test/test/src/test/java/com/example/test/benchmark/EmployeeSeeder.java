@@ -0,0 +1,23 @@
+package com.example.test.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// bulk loads employees straight through SQL for the benchmarks, ids are 1..rows.
+// the id sequence is moved past them so hibernate can keep inserting afterwards
+final class EmployeeSeeder {
+
+    private static final int CHUNK = 100_000;
+
+    private EmployeeSeeder() {
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        for (int from = 1; from <= rows; from += CHUNK) {
+            jdbcTemplate.update("insert into employees (id, first_name, last_name, email, version) "
+                    + "select x, concat('first', x), concat('last', x), concat('user', x, '@naver.com'), 0 "
+                    + "from system_range(?, ?)", from, Math.min(from + CHUNK - 1, rows));
+        }
+        // pooled optimizer : the value read from the sequence is the top of a block of 50 ids
+        jdbcTemplate.execute("alter sequence employee_seq restart with " + (rows + 50 + 1));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.test.benchmark;
+
+import com.example.test.TestApplication;
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// throughput of creates, reads by id and scatter-gather name lookups from benchmark.threads callers
+// on 1, 2 and 4 shards, each a fresh context over its own in-memory H2 databases. the bulkhead is off so it does not
+// cap the callers at one pool's size. all shards share this JVM's cores here : the numbers show the routing and
+// scatter overhead, separate database servers are what would add capacity
+// run with : mvn test -Pbenchmark -Dtest=EmployeeShardingBenchmarkTests -Dbenchmark.rows=50000
+@Tag("benchmark")
+public class EmployeeShardingBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int NAME_LOOKUPS = 2_000;
+
+    @DisplayName("creates, reads by id and name lookups per second on 1, 2 and 4 shards")
+    @Test
+    public void throughputByShardCount() throws Exception {
+        run(2, "warmup");
+        List<String> lines = new ArrayList<>();
+        for (int shards : new int[]{1, 2, 4}) {
+            lines.add(run(shards, "run"));
+        }
+        System.out.printf("rows=%d threads=%d%n", ROWS, THREADS);
+        lines.forEach(System.out::println);
+    }
+
+    private String run(int shards, String name) throws Exception {
+        String urls = IntStream.range(0, shards)
+                .mapToObj(shard -> "jdbc:h2:mem:" + name + shards + "-shard" + shard + ";MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .collect(Collectors.joining(","));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestApplication.class)
+                .properties("spring.main.web-application-type=none",
+                        "employee.bulkhead.enabled=false",
+                        "employee.shards.enabled=true",
+                        "employee.shards.urls=" + urls,
+                        "employee.shards.directory-url=jdbc:h2:mem:" + name + shards + "-directory;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "employee.shards.hikari.maximum-pool-size=" + THREADS)
+                .run()) {
+            EmployeeService employeeService = context.getBean(EmployeeService.class);
+
+            List<Long> ids = new ArrayList<>(ROWS);
+            double creates = burst(ROWS, i -> {
+                Employee saved = employeeService.saveEmployee(Employee.builder()
+                        .firstName("first" + i % 100)
+                        .lastName("last" + i % 100)
+                        .email(name + i + "@naver.com")
+                        .build());
+                synchronized (ids) {
+                    ids.add(saved.getId());
+                }
+            });
+            double reads = burst(ROWS, i -> assertThat(employeeService.getEmployeeById(
+                    ids.get(ThreadLocalRandom.current().nextInt(ids.size())))).isPresent());
+            double lookups = burst(NAME_LOOKUPS, i -> assertThat(employeeService.findEmployeesByName(
+                    "first" + i % 100, "last" + i % 100)).hasSize(ROWS / 100));
+            assertThat(employeeService.getAllEmployees()).hasSize(ROWS);
+            return String.format("shards=%d  creates=%8.0f/s  reads by id=%8.0f/s  name lookups=%8.0f/s",
+                    shards, creates, reads, lookups);
+        }
+    }
+
+    // operations per second of count calls spread over THREADS callers
+    private static double burst(int count, IntConsumer operation) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> calls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int call = i;
+            calls.add(callers.submit(() -> operation.accept(call)));
+        }
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        callers.shutdown();
+        return count * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.test.benchmark;
+
+import com.example.test.metrics.SqlTraceLog;
+import com.example.test.repository.EmployeeRepository;
+import com.example.test.service.support.EmployeeCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// request throughput of a page read / create mix under each way of seeing the sql :
+// the org.hibernate.SQL logger at debug (what show-sql does : every statement written synchronously to the console), nothing, the sql trace with its slow threshold only, and the sql trace sampling every statement
+// run with : mvn test -Pbenchmark -Dtest=EmployeeSqlTraceBenchmarkTests -Dbenchmark.seconds=10 -Dbenchmark.threads=8
+@Tag("benchmark")
+@SpringBootTest(properties = {"logging.level.sql.trace=INFO", "logging.level.org.hibernate.SQL=OFF"})
+@AutoConfigureMockMvc
+public class EmployeeSqlTraceBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 5);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 4);
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlTraceLog sqlTraceLog;
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    private final AtomicLong created = new AtomicLong();
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+        EmployeeSeeder.seed(jdbcTemplate, ROWS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        loggingSystem.setLogLevel(SQL_LOGGER, LogLevel.OFF);
+        sqlTraceLog.setEnabled(true);
+        sqlTraceLog.setSampleRate(0);
+    }
+
+    @DisplayName("request throughput with the org.hibernate.SQL logger, without tracing and with the sql trace")
+    @Test
+    public void showSqlVersusSqlTrace() throws Exception {
+        mode(false, false, 0);
+        run(SECONDS);
+
+        double showSqlRate = measure(true, false, 0);
+        double offRate = measure(false, false, 0);
+        double slowOnlyRate = measure(false, true, 0);
+        double sampledRate = measure(false, true, 1.0);
+
+        // one printf, the trace writer may still be logging the sampled statements
+        System.out.printf("threads=%d seconds=%d rows=%d (requests/s, half page reads, half creates)%n"
+                        + "org.hibernate.SQL      %8.0f%n"
+                        + "no tracing             %8.0f%n"
+                        + "sql trace, slow only   %8.0f%n"
+                        + "sql trace, sample=1.0  %8.0f%n",
+                THREADS, SECONDS, ROWS, showSqlRate, offRate, slowOnlyRate, sampledRate);
+
+        // timing every statement must stay cheap next to the statement itself, and tracing every one of them
+        // off the request thread must beat writing every one of them on it
+        assertThat(slowOnlyRate).isGreaterThan(offRate * 0.9);
+        assertThat(sampledRate).isGreaterThan(showSqlRate);
+    }
+
+    private double measure(boolean sqlLogger, boolean trace, double sampleRate) throws Exception {
+        mode(sqlLogger, trace, sampleRate);
+        return run(SECONDS) / (double) SECONDS;
+    }
+
+    private void mode(boolean sqlLogger, boolean trace, double sampleRate) {
+        loggingSystem.setLogLevel(SQL_LOGGER, sqlLogger ? LogLevel.DEBUG : LogLevel.OFF);
+        sqlTraceLog.setEnabled(trace);
+        sqlTraceLog.setSlowThreshold(Duration.ofMillis(100));
+        sqlTraceLog.setSampleRate(sampleRate);
+    }
+
+    private long run(int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Long>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                long requests = 0;
+                while (System.nanoTime() < deadline) {
+                    request(requests++);
+                }
+                return requests;
+            }));
+        }
+        long requests = 0;
+        for (Future<Long> worker : workers) {
+            requests += worker.get();
+        }
+        executor.shutdown();
+        return requests;
+    }
+
+    private void request(long n) throws Exception {
+        if (n % 2 == 0) {
+            long after = ThreadLocalRandom.current().nextLong(ROWS - 20);
+            String cursor = EmployeeCursor.encode(after);
+            mockMvc.perform(get("/api/employees").param("size", "20").param("cursor", cursor))
+                    .andExpect(status().isOk());
+        } else {
+            long id = created.incrementAndGet();
+            mockMvc.perform(post("/api/employees")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"firstName\":\"trace\",\"lastName\":\"bench\",\"email\":\"trace" + id + "@naver.com\"}"))
+                    .andExpect(status().isCreated());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.test.benchmark;
+
+import com.example.test.TestApplication;
+import com.example.test.service.support.EmployeeCursor;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// closed loop at high concurrency : load.concurrency clients each keep one request in flight (page read or create),
+// against tomcat's platform pool without and with the bulkhead, and against virtual threads with the bulkhead
+// (only on JDK 21+, skipped before). every mode gets its own freshly started server.
+// run with : mvn test -Pbenchmark -Dtest=EmployeeThreadModeLoadTests -Dload.concurrency=1000 -Dload.seconds=20 -Dload.rounds=3
+@Tag("benchmark")
+public class EmployeeThreadModeLoadTests {
+
+    private static final int SEEDED = Integer.getInteger("load.seeded", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 256);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 10);
+    private static final int ROUNDS = Integer.getInteger("load.rounds", 2);
+
+    private final AtomicLong emails = new AtomicLong();
+
+    @DisplayName("throughput and p99 of platform threads, platform threads with the bulkhead and virtual threads")
+    @Test
+    public void platformVersusVirtualThreads() throws Exception {
+        // the first server started in this jvm also pays for the jit, that run is thrown away.
+        // the jit keeps improving afterwards, so the modes take turns and every round is printed
+        run("jit warmup", "employee.bulkhead.enabled=false");
+
+        List<String> lines = new ArrayList<>();
+        for (int round = 1; round <= ROUNDS; round++) {
+            lines.add(run(round + ". platform, no bulkhead", "employee.bulkhead.enabled=false"));
+            lines.add(run(round + ". platform + bulkhead", "employee.bulkhead.enabled=true"));
+            if (Runtime.version().feature() >= 21) {
+                lines.add(run(round + ". virtual + bulkhead", "employee.bulkhead.enabled=true", "employee.threads.virtual=true"));
+            }
+        }
+        if (Runtime.version().feature() < 21) {
+            lines.add("virtual + bulkhead skipped, needs JDK 21 (running " + Runtime.version() + ")");
+        }
+
+        System.out.printf("concurrency=%d seconds=%d seeded=%d rounds=%d (half page reads, half creates)%n",
+                CONCURRENCY, SECONDS, SEEDED, ROUNDS);
+        lines.forEach(System.out::println);
+    }
+
+    private String run(String mode, String... properties) throws Exception {
+        List<String> all = new ArrayList<>(List.of(properties));
+        all.add("server.port=0");
+        all.add("logging.level.org.hibernate.engine.jdbc=OFF");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestApplication.class)
+                .properties(all.toArray(new String[0]))
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.execute("delete from employees");
+            EmployeeSeeder.seed(jdbcTemplate, SEEDED);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            // warmup, not reported
+            drive(httpClient, port, Math.min(SECONDS, 3), new ConcurrentHistogram(3), new LongAdder());
+            Histogram histogram = new ConcurrentHistogram(3);
+            LongAdder errors = new LongAdder();
+            long start = System.nanoTime();
+            drive(httpClient, port, SECONDS, histogram, errors);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            assertThat(histogram.getTotalCount()).as(mode + " requests").isPositive();
+            return String.format("%-25s %8.0f req/s  p50=%7.1f ms  p99=%7.1f ms  max=%7.1f ms  errors=%d",
+                    mode, histogram.getTotalCount() / elapsedSeconds,
+                    histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getMaxValue() / 1e3, errors.sum());
+        }
+    }
+
+    private void drive(HttpClient httpClient, int port, int seconds, Histogram histogram, LongAdder errors) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<CompletableFuture<Void>> clients = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            clients.add(client(httpClient, port, deadline, histogram, errors));
+        }
+        CompletableFuture.allOf(clients.toArray(new CompletableFuture[0])).join();
+    }
+
+    // one client : sends its next request when the previous one completes, until the deadline
+    private CompletableFuture<Void> client(HttpClient httpClient, int port, long deadline,
+                                           Histogram histogram, LongAdder errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request(port), HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    if (failure != null || response.statusCode() >= 300) {
+                        errors.increment();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> client(httpClient, port, deadline, histogram, errors));
+    }
+
+    private HttpRequest request(int port) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            String cursor = EmployeeCursor.encode(random.nextLong(SEEDED - 20));
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=20&cursor=" + cursor))
+                    .GET().build();
+        }
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"firstName\":\"load\",\"lastName\":\"test\",\"email\":\"thread"
+                        + emails.incrementAndGet() + "@naver.com\"}"))
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.test.benchmark;
+
+import com.example.test.model.Employee;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// encode and decode cost of employee lists in json and in smile (SmileConfiguration), both mappers built
+// the way spring boot builds them. the wire size of each list is printed once per trial.
+// run with : mvn test -Pjmh -Djmh.includes=EmployeeWireFormatJmhBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeWireFormatJmhBenchmark {
+
+    private static final TypeReference<List<Employee>> EMPLOYEES = new TypeReference<List<Employee>>() { };
+
+    @Param({"json", "smile"})
+    public String format;
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<Employee> employees;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        objectMapper = format.equals("smile") ? builder.factory(new SmileFactory()).build() : builder.build();
+        employees = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            employees.add(Employee.builder()
+                    .id(i)
+                    .firstName("first" + i)
+                    .lastName("last" + i)
+                    .email("user" + i + "@naver.com")
+                    .build());
+        }
+        encoded = objectMapper.writeValueAsBytes(employees);
+        System.out.printf("%n%s size=%d : %d bytes on the wire (%d per employee)%n",
+                format, size, encoded.length, encoded.length / size);
+    }
+
+    @Benchmark
+    public byte[] encodeEmployeeList() throws IOException {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public List<Employee> decodeEmployeeList() throws IOException {
+        return objectMapper.readValue(encoded, EMPLOYEES);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.test.benchmark;
+
+import com.example.test.dto.EmployeeIngestion;
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.example.test.service.EmployeeService;
+import com.example.test.service.support.EmployeeWriteBehind;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a burst of creates from benchmark.threads callers : synchronous saveEmployee (one transaction per row)
+// against write-behind (submit, then one group commit per drained batch). reports how long the callers waited
+// and how long until every row was committed
+// run with : mvn test -Pbenchmark -Dtest=EmployeeWriteBehindBenchmarkTests -Dbenchmark.rows=50000
+@Tag("benchmark")
+@SpringBootTest(properties = {"logging.level.org.hibernate.engine.jdbc=OFF", "employee.write-behind.enabled=true"})
+public class EmployeeWriteBehindBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeWriteBehind writeBehind;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DisplayName("caller latency and time to commit of synchronous creates against write-behind")
+    @Test
+    public void synchronousVersusWriteBehind() throws Exception {
+        employeeRepository.deleteAllInBatch();
+        burst("warmup-sync", 2_000, i -> employeeService.saveEmployee(employee("warmup-sync", i)).getId());
+        burst("warmup-queued", 2_000, i -> writeBehind.submit(employee("warmup-queued", i)));
+        awaitCommitted(4_000);
+
+        String sync = burst("synchronous", ROWS, i -> employeeService.saveEmployee(employee("sync", i)).getId());
+        long commitsBefore = meterRegistry.get("employee.write.behind.batch").summary().count();
+        long start = System.nanoTime();
+        String queued = burst("write-behind", ROWS, i -> writeBehind.submit(employee("queued", i)));
+        awaitCommitted(4_000 + 2 * ROWS);
+        long committedNanos = System.nanoTime() - start;
+        long commits = meterRegistry.get("employee.write.behind.batch").summary().count() - commitsBefore;
+
+        System.out.printf("rows=%d threads=%d%n%s%n%s%n", ROWS, THREADS, sync, queued);
+        System.out.printf("write-behind all committed after %d ms in %d transactions (%.0f rows/s)%n",
+                committedNanos / 1_000_000, commits, ROWS * 1e9 / committedNanos);
+    }
+
+    // every caller returns once the create is durable (synchronous) or queued (write-behind)
+    private String burst(String mode, int rows, IntFunction<Object> create) throws Exception {
+        Histogram histogram = new ConcurrentHistogram(3);
+        ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> calls = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int row = i;
+            calls.add(callers.submit(() -> {
+                long sent = System.nanoTime();
+                Object result = create.apply(row);
+                histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent));
+                if (result instanceof EmployeeIngestion) {
+                    assertThat(((EmployeeIngestion) result).getStatus()).isEqualTo(EmployeeIngestion.Status.PENDING);
+                }
+            }));
+        }
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        callers.shutdown();
+        return String.format("%-12s callers done after %6d ms (%8.0f creates/s)  p50=%7.3f ms  p99=%7.3f ms",
+                mode, elapsedNanos / 1_000_000, rows * 1e9 / elapsedNanos,
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(99) / 1e3);
+    }
+
+    private void awaitCommitted(long rows) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (employeeRepository.count() < rows && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(employeeRepository.count()).isEqualTo(rows);
+    }
+
+    private Employee employee(String prefix, int i) {
+        return Employee.builder()
+                .firstName("first" + i)
+                .lastName("last" + i)
+                .email(prefix + i + "@naver.com")
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.test.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// compares a JMH json result with the stored baseline, run by the jmh profile right after the benchmarks.
+// args : <baseline.json> <result.json> <tolerance, e.g. 0.2> <fail on regression true|false>
+public final class JmhBaselineComparator {
+
+    private static final String ALLOCATION = "·gc.alloc.rate.norm";
+
+    private JmhBaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        boolean failOnRegression = Boolean.parseBoolean(args[3]);
+
+        if (!baselineFile.exists()) {
+            System.out.println("no baseline at " + baselineFile + ", copy " + resultFile + " there to create one");
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(baselineFile));
+        Map<String, JsonNode> result = index(objectMapper.readTree(resultFile));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %8s %12s %12s%n", "benchmark", "baseline", "current", "change", "B/op base", "B/op now");
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode current = entry.getValue();
+            JsonNode base = baseline.get(entry.getKey());
+            double currentScore = current.path("primaryMetric").path("score").asDouble();
+            String unit = current.path("primaryMetric").path("scoreUnit").asText();
+            if (base == null) {
+                System.out.printf("%-70s %14s %11.3f %s %8s%n", entry.getKey(), "-", currentScore, unit, "new");
+                continue;
+            }
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            double change = (currentScore - baseScore) / baseScore;
+            // average time : higher is worse, throughput : lower is worse
+            boolean worse = "thrpt".equals(current.path("mode").asText()) ? change < -tolerance : change > tolerance;
+            if (worse) {
+                regressions++;
+            }
+            System.out.printf("%-70s %11.3f %s %11.3f %s %+7.1f%% %12.0f %12.0f%s%n",
+                    entry.getKey(), baseScore, unit, currentScore, unit, change * 100,
+                    allocation(base), allocation(current), worse ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regression(s) beyond %.0f%%%n", regressions, tolerance * 100);
+        if (failOnRegression && regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // benchmark name plus its @Param values, e.g. EmployeeServiceJmhBenchmark.getAllEmployees{rows=1000}
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String benchmark = result.path("benchmark").asText();
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            byKey.put(params.isEmpty() ? name : name + params, result);
+        }
+        return byKey;
+    }
+
+    private static double allocation(JsonNode result) {
+        return result.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(Double.NaN);
+    }
+}
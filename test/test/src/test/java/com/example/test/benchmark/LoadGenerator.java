@@ -0,0 +1,140 @@
+package com.example.test.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// open model load generator : requests are fired on a fixed schedule whatever the server does,
+// and every latency is measured from the time the request was *supposed* to start.
+// a stalled server therefore shows up in the histogram (no coordinated omission) instead of slowing the client down
+final class LoadGenerator {
+
+    // one kind of request in the mix, e.g. "get" -> GET /api/employees/{random id}
+    static final class Operation {
+
+        private final String name;
+        private final int weight;
+        private final Supplier<HttpRequest> request;
+        private final Consumer<HttpResponse<String>> onResponse;
+
+        Operation(String name, int weight, Supplier<HttpRequest> request, Consumer<HttpResponse<String>> onResponse) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+            this.onResponse = onResponse;
+        }
+    }
+
+    // latencies are recorded in microseconds, up to one minute with 3 significant digits
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient httpClient;
+
+    private final int ratePerSecond;
+
+    private final Duration duration;
+
+    private final List<Operation> operations;
+
+    private final int totalWeight;
+
+    LoadGenerator(HttpClient httpClient, int ratePerSecond, Duration duration, List<Operation> operations) {
+        this.httpClient = httpClient;
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(operation -> operation.weight).sum();
+    }
+
+    // runs the schedule and returns the report : per operation count, status codes, p50/p99/p99.9/max and throughput
+    Map<String, Object> run() {
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        Map<String, Map<Integer, LongAdder>> statuses = new LinkedHashMap<>();
+        Map<String, LongAdder> failures = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            histograms.put(operation.name, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            statuses.put(operation.name, new ConcurrentHashMap<>());
+            failures.put(operation.name, new LongAdder());
+        }
+
+        long total = (long) ratePerSecond * duration.getSeconds();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick();
+            Histogram histogram = histograms.get(operation.name);
+            inFlight.add(httpClient.sendAsync(operation.request.get(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        histogram.recordValue(Math.min(
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended), HIGHEST_TRACKABLE_MICROS));
+                        if (error != null) {
+                            failures.get(operation.name).increment();
+                            return;
+                        }
+                        statuses.get(operation.name).computeIfAbsent(response.statusCode(), code -> new LongAdder()).increment();
+                        if (operation.onResponse != null) {
+                            operation.onResponse.accept(response);
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).exceptionally(error -> null).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            Histogram histogram = histograms.get(operation.name);
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("count", histogram.getTotalCount());
+            endpoint.put("throughputPerSecond", histogram.getTotalCount() / elapsedSeconds);
+            endpoint.put("p50Millis", histogram.getValueAtPercentile(50) / 1e3);
+            endpoint.put("p99Millis", histogram.getValueAtPercentile(99) / 1e3);
+            endpoint.put("p999Millis", histogram.getValueAtPercentile(99.9) / 1e3);
+            endpoint.put("maxMillis", histogram.getMaxValue() / 1e3);
+            Map<String, Long> codes = new LinkedHashMap<>();
+            statuses.get(operation.name).forEach((code, count) -> codes.put(String.valueOf(code), count.sum()));
+            endpoint.put("statusCodes", codes);
+            endpoint.put("failures", failures.get(operation.name).sum());
+            endpoints.put(operation.name, endpoint);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("targetRatePerSecond", ratePerSecond);
+        report.put("durationSeconds", duration.getSeconds());
+        report.put("requests", total);
+        report.put("achievedRatePerSecond", total / elapsedSeconds);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("empty operation mix");
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.test.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class VirtualThreadConfigurationTests {
+
+    @DisplayName("virtual threads on JDK 21 and later, a clear startup error before")
+    @Test
+    public void givenRuntime_whenNewVirtualThreadPerTaskExecutor_thenVirtualThreadsOrError() throws Exception {
+        if (Runtime.version().feature() < 21) {
+            // when - action or the behavior that we are going to test
+            // then - verify the output
+            assertThatThrownBy(VirtualThreadConfiguration::newVirtualThreadPerTaskExecutor)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("JDK 21");
+            return;
+        }
+
+        // when - action or the behavior that we are going to test
+        ExecutorService executor = VirtualThreadConfiguration.newVirtualThreadPerTaskExecutor();
+        Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                .get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then - verify the output
+        assertThat(virtual).isEqualTo(Boolean.TRUE);
+    }
+}
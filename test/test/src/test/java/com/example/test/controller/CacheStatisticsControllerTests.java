@@ -0,0 +1,50 @@
+package com.example.test.controller;
+
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CacheStatisticsControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @DisplayName("Junit test for cache statistics")
+    @Test
+    public void givenCachedEmployee_whenGetCacheStatistics_thenReturnServiceAndRegionCounters() throws Exception {
+        // given - precondition or setup
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("statistics@naver.com")
+                .build());
+        employeeService.getEmployeeById(employee.getId());
+        employeeService.getEmployeeById(employee.getId());
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/cache/statistics"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.employeeCache.hits", greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.hibernateRegions." + Employee.CACHE_REGION + ".hits", greaterThanOrEqualTo(1)));
+    }
+}
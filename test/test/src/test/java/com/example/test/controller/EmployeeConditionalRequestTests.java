@@ -0,0 +1,126 @@
+package com.example.test.controller;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+// ETag / If-None-Match / If-Match end to end, and what a polling client saves with conditional GETs
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+public class EmployeeConditionalRequestTests {
+
+    private static final int POLLS = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("seoin@naver.com")
+                .build());
+    }
+
+    @DisplayName("repeated conditional GETs transfer no body")
+    @Test
+    public void givenETag_whenPollingWithIfNoneMatch_thenBytesSaved() throws Exception {
+        // given - precondition or setup
+        String eTag = mockMvc.perform(get("/api/employees/{id}", employee.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isEqualTo("\"" + employee.getVersion() + "\"");
+
+        // when - action or the behavior that we are going to test
+        long plainBytes = 0;
+        for (int i = 0; i < POLLS; i++) {
+            MockHttpServletResponse response = mockMvc.perform(get("/api/employees/{id}", employee.getId()))
+                    .andReturn().getResponse();
+            assertThat(response.getStatus()).isEqualTo(200);
+            plainBytes += response.getContentAsByteArray().length;
+        }
+
+        long conditionalBytes = 0;
+        for (int i = 0; i < POLLS; i++) {
+            MockHttpServletResponse response = mockMvc.perform(get("/api/employees/{id}", employee.getId())
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andReturn().getResponse();
+            assertThat(response.getStatus()).isEqualTo(304);
+            conditionalBytes += response.getContentAsByteArray().length;
+        }
+
+        // then - verify the output
+        assertThat(plainBytes).isGreaterThanOrEqualTo(POLLS * objectMapper.writeValueAsBytes(employee).length);
+        assertThat(conditionalBytes).isZero();
+    }
+
+    @DisplayName("an update changes the ETag so old copies are downloaded again")
+    @Test
+    public void givenUpdatedEmployee_whenGetWithOldETag_thenReturn200() throws Exception {
+        // given - precondition or setup
+        String oldETag = mockMvc.perform(get("/api/employees/{id}", employee.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee.toBuilder().firstName("inseo").build())));
+
+        // when - action or the behavior that we are going to test
+        MockHttpServletResponse response = mockMvc.perform(get("/api/employees/{id}", employee.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, oldETag))
+                .andReturn().getResponse();
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(oldETag);
+        assertThat(response.getContentAsString()).contains("inseo");
+    }
+
+    @DisplayName("a second writer holding the old ETag gets 412 instead of overwriting")
+    @Test
+    public void givenLostUpdate_whenPutWithOldIfMatch_thenReturn412() throws Exception {
+        // given - precondition or setup
+        String eTag = mockMvc.perform(get("/api/employees/{id}", employee.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse first = mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee.toBuilder().firstName("inseo").build())))
+                .andReturn().getResponse();
+
+        // when - action or the behavior that we are going to test
+        MockHttpServletResponse second = mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee.toBuilder().firstName("namu").build())))
+                .andReturn().getResponse();
+
+        // then - verify the output
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(first.getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+        assertThat(second.getStatus()).isEqualTo(412);
+        assertThat(employeeRepository.findById(employee.getId()).get().getFirstName()).isEqualTo("inseo");
+    }
+}
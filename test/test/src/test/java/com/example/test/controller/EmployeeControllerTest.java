@@ -1,5 +1,12 @@
 package com.example.test.controller;
 
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeDeleteResult;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.dto.EmployeeSummary;
+import com.example.test.exception.DuplicateEmailException;
 import com.example.test.model.Employee;
 import com.example.test.service.EmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -8,15 +15,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -63,6 +75,55 @@ public class EmployeeControllerTest {
                         is(employee.getEmail())));
     }
 
+    @DisplayName("Junit test for create employee with existing email")
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturn409() throws Exception {
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("jnh@naver.com")
+                .build();
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new DuplicateEmailException("already exists with given email : " + employee.getEmail()));
+
+        // when - action or behavior that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+    @DisplayName("Junit test for batch create employees")
+    @Test
+    public void givenEmployeesList_whenCreateEmployees_thenReturnResultPerItem() throws Exception {
+        // given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("seoin").lastName("choi").email("jnh@naver.com").build(),
+                Employee.builder().firstName("inseo").lastName("choi").email("jnh@naver.com").build());
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> argument = invocation.getArgument(0);
+            return List.of(EmployeeBatchResult.created(0, argument.get(0)),
+                    EmployeeBatchResult.conflict(1, argument.get(1)));
+        });
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employees)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].status", is("CONFLICT")))
+                .andExpect(jsonPath("$[1].index", is(1)));
+    }
+
     @DisplayName("Junit test for get All employees")
     @Test
     public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeeList() throws Exception {
@@ -82,6 +143,176 @@ public class EmployeeControllerTest {
                         is(listOfEmployees.size())));
     }
 
+    @DisplayName("Junit test for get employee summaries")
+    @Test
+    public void givenSummaryView_whenGetAllEmployees_thenReturnIdAndEmailOnly() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployeeSummaries())
+                .willReturn(List.of(new EmployeeSummary(1L, "jnh@naver.com"), new EmployeeSummary(2L, "hnj@naver.com")));
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("view", "summary"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].email", is("jnh@naver.com")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @DisplayName("Junit test for get employee summaries with a page size")
+    @Test
+    public void givenSummaryViewAndSize_whenGetAllEmployees_thenReturn400() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("view", "summary").param("size", "50"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    @DisplayName("Junit test for get employees with a sparse fieldset")
+    @Test
+    public void givenFields_whenGetAllEmployees_thenReturnRequestedFieldsOnly() throws Exception {
+        // given - precondition or setup
+        given(employeeService.getEmployees(any(EmployeeFields.class)))
+                .willAnswer(invocation -> List.of(invocation.<EmployeeFields>getArgument(0).fromRow(new Object[]{1L, "jnh@naver.com"})));
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "email"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is("jnh@naver.com")))
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @DisplayName("Junit test for get employees with a sparse fieldset and a page size")
+    @Test
+    public void givenFieldsAndSize_whenGetAllEmployees_thenReturn400() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "email").param("size", "50"));
+        ResultActions withView = mockMvc.perform(get("/api/employees")
+                .param("fields", "email").param("view", "summary").param("size", "50"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+        withView.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    @DisplayName("Junit test for get employee by id with a sparse fieldset")
+    @Test
+    public void givenFields_whenGetEmployeeById_thenReturnRequestedFieldsOnly() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("seoin")
+                .lastName("choi")
+                .email("jnh@naver.com")
+                .version(3)
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId).param("fields", " lastName, id "));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().json("{\"id\":1,\"lastName\":\"choi\"}", true));
+    }
+
+    @DisplayName("Junit test for get employees with an unknown field")
+    @Test
+    public void givenUnknownField_whenGetEmployees_thenReturn400() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions list = mockMvc.perform(get("/api/employees").param("fields", "email,salary"));
+        ResultActions byId = mockMvc.perform(get("/api/employees/{id}", 1L).param("fields", ","));
+
+        // then - verify the output
+        list.andExpect(status().isBadRequest());
+        byId.andExpect(status().isBadRequest());
+        verifyNoInteractions(employeeService);
+    }
+
+    @DisplayName("Junit test for get employee page")
+    @Test
+    public void givenPageSize_whenGetEmployeePage_thenReturnPageWithCursor() throws Exception {
+        // given - precondition or setup
+        List<Employee> content = List.of(
+                Employee.builder().id(1L).firstName("seoin").lastName("choi").email("jnh@naver.com").build());
+        given(employeeService.getEmployeePage("abc", 1)).willReturn(new EmployeePage(content, "next"));
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("size", "1")
+                .param("cursor", "abc"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @DisplayName("Junit test for export employees as ndjson")
+    @Test
+    public void givenEmployees_whenExportEmployees_thenReturnOneJsonPerLine() throws Exception {
+        // given - precondition or setup
+        Employee employee1 = Employee.builder().id(1L).firstName("seoin").lastName("choi").email("jnh@naver.com").build();
+        Employee employee2 = Employee.builder().id(2L).firstName("inseo").lastName("choi").email("hnj@naver.com").build();
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee1);
+            consumer.accept(employee2);
+            return null;
+        }).given(employeeService).exportEmployees(any());
+
+        // when - action or the behavior that we are going to test
+        MvcResult started = mockMvc.perform(get("/api/employees/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(started));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+        String[] lines = response.andReturn().getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], Employee.class).getEmail()).isEqualTo(employee1.getEmail());
+        assertThat(objectMapper.readValue(lines[1], Employee.class).getEmail()).isEqualTo(employee2.getEmail());
+    }
+
+    @DisplayName("Junit test for search employees by name")
+    @Test
+    public void givenName_whenSearchEmployeesByName_thenReturnEmployeeList() throws Exception {
+        // given - precondition or setup
+        List<Employee> listOfEmployees = List.of(
+                Employee.builder().firstName("seoin").lastName("choi").email("jnh@naver.com").build(),
+                Employee.builder().firstName("seoin").lastName("choi").email("hnj@naver.com").build());
+        given(employeeService.findEmployeesByName("seoin", "choi")).willReturn(listOfEmployees);
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("firstName", "seoin")
+                .param("lastName", "choi"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(2)));
+    }
+
     // positive scenario - valid employee id
     // JUnit test for GET employee by id REST API
     @Test
@@ -124,6 +355,60 @@ public class EmployeeControllerTest {
     }
 
     // positive scenario
+    @DisplayName("Junit test for get employee by id with a matching If-None-Match")
+    @Test
+    public void givenCurrentETag_whenGetEmployeeById_thenReturn304WithoutBody() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("seoin")
+                .lastName("choi")
+                .email("jnh@naver.com")
+                .version(3)
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // when - action or the behavior that we are going to test
+        ResultActions first = mockMvc.perform(get("/api/employees/{id}", employeeId));
+        ResultActions second = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // then - verify the output
+        first.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        second.andExpect(status().isNotModified())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    @DisplayName("Junit test for update employee with a stale If-Match")
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder()
+                .id(employeeId)
+                .firstName("seoin")
+                .lastName("choi")
+                .email("jnh@naver.com")
+                .version(4)
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee.toBuilder().firstName("inseo").build())));
+
+        // then - verify the output
+        response.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+        verify(employeeService, never()).updateEmployee(any(Employee.class));
+    }
+
     @DisplayName("Junit test for update employee")
     @Test
     public void givenUpdatedEmployee_whenUpdateEmployee_thenReturnEmployeeObject() throws Exception {
@@ -182,12 +467,105 @@ public class EmployeeControllerTest {
                 .andDo(print());
     }
 
+    // negative scenario
+    @DisplayName("Junit test for update employee to an email another employee has")
+    @Test
+    public void givenTakenEmail_whenUpdateEmployee_thenReturn409() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("jnh@naver.com")
+                .build();
+        Employee updatedEmployee = savedEmployee.toBuilder().email("taken@naver.com").build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willThrow(new DuplicateEmailException("already exists with given email : taken@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        // then - verify the output
+        response.andExpect(status().isConflict())
+                .andDo(print());
+    }
+
+    @DisplayName("Junit test for patch employee")
+    @Test
+    public void givenMergePatch_whenPatchEmployee_thenReturn204() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), any(EmployeePatch.class))).willReturn(true);
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON)
+                .content("{\"firstName\":\"inseo\",\"lastName\":\"kim\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isNoContent())
+                .andDo(print());
+        verify(employeeService).patchEmployee(eq(employeeId), argThat(patch ->
+                patch.getChanges().size() == 2
+                        && "inseo".equals(patch.getChanges().get("firstName"))
+                        && "kim".equals(patch.getChanges().get("lastName"))));
+    }
+
+    // negative scenario
+    @DisplayName("Junit test for patch employee")
+    @Test
+    public void givenMergePatch_whenPatchEmployee_thenReturn404Error() throws Exception {
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), any(EmployeePatch.class))).willReturn(false);
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON)
+                .content("{\"firstName\":\"inseo\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @DisplayName("Junit test for patch employee with a field that can not be patched")
+    @Test
+    public void givenUnknownField_whenPatchEmployee_thenReturn400() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON)
+                .content("{\"id\":2}"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(employeeService, never()).patchEmployee(anyLong(), any(EmployeePatch.class));
+    }
+
+    @DisplayName("Junit test for patch employee removing a required field")
+    @Test
+    public void givenNullMember_whenPatchEmployee_thenReturn400() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON)
+                .content("{\"email\":null}"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(employeeService, never()).patchEmployee(anyLong(), any(EmployeePatch.class));
+    }
+
     @DisplayName("Junit test for delete employee")
     @Test
     public void givenEmployeeId_whenDeleteByEmployeeId_thenReturn200() throws Exception {
         // given - precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
         // when - action or the behavior that we are going to test
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
@@ -196,4 +574,62 @@ public class EmployeeControllerTest {
         response.andExpect(status().isOk())
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    // negative scenario
+    @DisplayName("Junit test for delete employee")
+    @Test
+    public void givenMissingEmployeeId_whenDeleteByEmployeeId_thenReturn404() throws Exception {
+        // given - precondition or setup
+        given(employeeService.deleteEmployee(1L)).willReturn(false);
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", 1L));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @DisplayName("Junit test for bulk delete employees by ids")
+    @Test
+    public void givenIds_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+        // given - precondition or setup
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(new EmployeeDeleteResult(2));
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("ids", "1,2,3"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    @DisplayName("Junit test for bulk delete employees by name")
+    @Test
+    public void givenLastName_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+        // given - precondition or setup
+        given(employeeService.deleteEmployeesByName("choi", null)).willReturn(new EmployeeDeleteResult(5));
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("lastName", "choi"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.deleted", is(5)));
+    }
+
+    @DisplayName("Junit test for bulk delete employees without a filter")
+    @Test
+    public void givenNoFilter_whenDeleteEmployees_thenReturn400() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(employeeService, never()).deleteEmployees(any());
+        verify(employeeService, never()).deleteEmployeesByName(any(), any());
+    }
+}
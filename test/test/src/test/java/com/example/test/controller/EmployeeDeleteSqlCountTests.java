@@ -0,0 +1,114 @@
+package com.example.test.controller;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.example.test.service.impl.EmployeeServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// counts the statements hibernate prepares while the delete endpoints are handled
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeDeleteSqlCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @DisplayName("DELETE by id runs exactly one DELETE and no SELECT")
+    @Test
+    public void givenEmployee_whenDeleteById_thenOneStatement() throws Exception {
+        // given - precondition or setup
+        Employee employee = employeeRepository.save(employee(1));
+        statistics.clear();
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employee.getId()));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(employeeRepository.existsById(employee.getId())).isFalse();
+    }
+
+    @DisplayName("DELETE of a missing id answers 404 from the affected row count")
+    @Test
+    public void givenMissingId_whenDeleteById_thenOneStatementAnd404() throws Exception {
+        // given - precondition or setup
+        statistics.clear();
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", 12345L));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @DisplayName("bulk DELETE by name removes every match in bounded chunks")
+    @Test
+    public void givenManyMatches_whenDeleteByName_thenDeletedInChunks() throws Exception {
+        // given - precondition or setup
+        int matches = EmployeeServiceImpl.DELETE_CHUNK * 2 + 10;
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < matches; i++) {
+            employees.add(employee(i));
+        }
+        employees.add(Employee.builder().firstName("namu").lastName("kim").email("namu@naver.com").build());
+        employeeRepository.saveAll(employees);
+        statistics.clear();
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees").param("lastName", "choi"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.deleted", is(matches)));
+        // three id chunks, each followed by its own DELETE
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+        assertThat(employeeRepository.count()).isEqualTo(1);
+    }
+
+    private static Employee employee(int i) {
+        return Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("seoin" + i + "@naver.com")
+                .build();
+    }
+}
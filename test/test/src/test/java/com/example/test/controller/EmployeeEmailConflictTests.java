@@ -0,0 +1,119 @@
+package com.example.test.controller;
+
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import com.example.test.service.support.EmailBloomFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// duplicate emails end to end against the unique index, which compares case insensitively
+// (IGNORECASE=TRUE on the test H2, the MySQL collation in production)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeEmailConflictTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // employee.email-filter.enabled=true in application.properties
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    // through the service so the email filter and the caches hear about it
+    @BeforeEach
+    public void setup() {
+        List<Long> ids = employeeService.getAllEmployees().stream().map(Employee::getId).collect(Collectors.toList());
+        employeeService.deleteEmployees(ids);
+    }
+
+    @DisplayName("a batch with emails that differ from stored or earlier ones only in case reports them as CONFLICT")
+    @Test
+    public void givenEmailsDifferingInCase_whenBatch_thenConflictNotServerError() throws Exception {
+        // given - precondition or setup
+        employeeService.saveEmployee(employee("seoin", "Seoin@Naver.com"));
+        List<Employee> batch = List.of(
+                employee("seoin", "seoin@naver.com"),
+                employee("minsu", "minsu@naver.com"),
+                employee("minsu", "MINSU@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].status").value("CREATED"))
+                .andExpect(jsonPath("$[2].status").value("CONFLICT"));
+    }
+
+    @DisplayName("a PUT to an email another employee has answers 409 and changes nothing")
+    @Test
+    public void givenTakenEmail_whenPut_thenConflict() throws Exception {
+        // given - precondition or setup
+        employeeService.saveEmployee(employee("seoin", "seoin@naver.com"));
+        Employee minsu = employeeService.saveEmployee(employee("minsu", "minsu@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        mockMvc.perform(put("/api/employees/{id}", minsu.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee("minsu", "SEOIN@naver.com"))))
+                .andExpect(status().isConflict());
+        assertThat(employeeService.getEmployeeById(minsu.getId()).get().getEmail())
+                .isEqualTo("minsu@naver.com");
+    }
+
+    // the new email must reach the email filter : a "definitely new" answer would skip the lookup of the batch,
+    // its insert would hit the index and only the retry would find the conflict
+    @DisplayName("a batch after a PUT email change reports the new email as CONFLICT")
+    @Test
+    public void givenEmailChangedByPut_whenBatchWithIt_thenConflict() throws Exception {
+        // given - precondition or setup
+        Employee seoin = employeeService.saveEmployee(employee("seoin", "seoin@naver.com"));
+        mockMvc.perform(put("/api/employees/{id}", seoin.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee("seoin", "renamed@naver.com"))))
+                .andExpect(status().isOk());
+        assertThat(emailFilter.mightContain("renamed@naver.com")).isTrue();
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                employee("minsu", "renamed@naver.com"),
+                                employee("seojun", "sj@daum.net")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].status").value("CREATED"));
+    }
+
+    private static Employee employee(String firstName, String email) {
+        return Employee.builder().firstName(firstName).lastName("choi").email(email).build();
+    }
+}
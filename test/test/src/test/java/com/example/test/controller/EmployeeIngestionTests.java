@@ -0,0 +1,111 @@
+package com.example.test.controller;
+
+import com.example.test.dto.EmployeeIngestion;
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// POST /api/employees with employee.write-behind.enabled : 202 right away, the status endpoint follows the write
+@SpringBootTest(properties = "employee.write-behind.enabled=true")
+@AutoConfigureMockMvc
+public class EmployeeIngestionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("a queued create answers 202 with a tracking id and ends CREATED with the new id")
+    @Test
+    public void givenEmployee_whenCreateEmployee_thenAcceptedThenCreated() throws Exception {
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("seoin").lastName("choi").email("seoin@naver.com").build();
+
+        // when - action or the behavior that we are going to test
+        MockHttpServletResponse response = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse();
+
+        // then - verify the output
+        EmployeeIngestion ingestion = awaitWritten(response.getHeader(HttpHeaders.LOCATION));
+        assertThat(ingestion.getStatus()).isEqualTo(EmployeeIngestion.Status.CREATED);
+        mockMvc.perform(get("/api/employees/{id}", ingestion.getEmployeeId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("seoin@naver.com"));
+    }
+
+    @DisplayName("a queued create with a taken email ends CONFLICT and writes nothing")
+    @Test
+    public void givenTakenEmail_whenCreateEmployee_thenConflict() throws Exception {
+        // given - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("seoin").lastName("choi").email("seoin@naver.com").build());
+        Employee employee = Employee.builder().firstName("inseo").lastName("choi").email("seoin@naver.com").build();
+
+        // when - action or the behavior that we are going to test
+        MockHttpServletResponse response = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse();
+
+        // then - verify the output
+        assertThat(awaitWritten(response.getHeader(HttpHeaders.LOCATION)).getStatus())
+                .isEqualTo(EmployeeIngestion.Status.CONFLICT);
+        assertThat(employeeRepository.count()).isEqualTo(1);
+    }
+
+    @DisplayName("a create without an email is rejected with 400, an unknown tracking id is 404")
+    @Test
+    public void givenInvalidEmployee_whenCreateEmployee_thenBadRequest() throws Exception {
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"seoin\",\"lastName\":\"choi\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees/ingestions/{trackingId}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    private EmployeeIngestion awaitWritten(String location) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (true) {
+            String body = mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            EmployeeIngestion ingestion = objectMapper.readValue(body, EmployeeIngestion.class);
+            if (ingestion.getStatus() != EmployeeIngestion.Status.PENDING || System.nanoTime() > deadline) {
+                return ingestion;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
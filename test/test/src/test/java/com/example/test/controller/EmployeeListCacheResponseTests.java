@@ -0,0 +1,142 @@
+package com.example.test.controller;
+
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /api/employees served from EmployeeListCache : ETag, gzip negotiation and writes through the api
+@SpringBootTest(properties = "employee.list-cache.enabled=true")
+@AutoConfigureMockMvc
+public class EmployeeListCacheResponseTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // through the service so the cache hears about it
+    @BeforeEach
+    public void setup() throws Exception {
+        List<Long> ids = employeeService.getAllEmployees().stream().map(Employee::getId).collect(Collectors.toList());
+        employeeService.deleteEmployees(ids);
+        create("seoin", "choi", "seoin@naver.com");
+        create("minsu", "kim", "minsu@naver.com");
+    }
+
+    @DisplayName("the cached list comes with an ETag, a matching If-None-Match is answered 304 without a body")
+    @Test
+    public void givenCachedList_whenIfNoneMatch_thenNotModified() throws Exception {
+        // given - precondition or setup
+        String eTag = mockMvc.perform(get("/api/employees"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].email").value("seoin@naver.com"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+
+        // when - action or the behavior that we are going to test
+        MockHttpServletResponse response = mockMvc.perform(get("/api/employees")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn().getResponse();
+
+        // then - verify the output
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @DisplayName("Accept-Encoding: gzip gets the compressed bytes of the same list under their own ETag")
+    @Test
+    public void givenAcceptGzip_whenGetAll_thenGzipBody() throws Exception {
+        // given - precondition or setup
+        MockHttpServletResponse plain = mockMvc.perform(get("/api/employees")).andReturn().getResponse();
+
+        // when - action or the behavior that we are going to test
+        MockHttpServletResponse gzip = mockMvc.perform(get("/api/employees")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8"))
+                .andReturn().getResponse();
+        MockHttpServletResponse refused = mockMvc.perform(get("/api/employees")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andReturn().getResponse();
+
+        // then - verify the output
+        assertThat(gzip.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeader(HttpHeaders.ETAG)).isNotEqualTo(plain.getHeader(HttpHeaders.ETAG));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.getContentAsByteArray());
+        }
+        assertThat(refused.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(refused.getContentAsByteArray()).isEqualTo(plain.getContentAsByteArray());
+    }
+
+    @DisplayName("a malformed q value in Accept-Encoding gets the plain list, not a server error")
+    @Test
+    public void givenMalformedQuality_whenGetAll_thenPlainBody() throws Exception {
+        // given - precondition or setup
+        MockHttpServletResponse plain = mockMvc.perform(get("/api/employees")).andReturn().getResponse();
+
+        // when - action or the behavior that we are going to test
+        MockHttpServletResponse malformed = mockMvc.perform(get("/api/employees")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=x"))
+                .andReturn().getResponse();
+
+        // then - verify the output
+        assertThat(malformed.getStatus()).isEqualTo(200);
+        assertThat(malformed.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(malformed.getContentAsByteArray()).isEqualTo(plain.getContentAsByteArray());
+    }
+
+    @DisplayName("a create through the api is in the next listing, the old ETag no longer matches")
+    @Test
+    public void givenCachedList_whenCreate_thenNextListingHasIt() throws Exception {
+        // given - precondition or setup
+        String eTag = mockMvc.perform(get("/api/employees"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when - action or the behavior that we are going to test
+        create("seojun", "park", "sj@daum.net");
+
+        // then - verify the output
+        mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[2].email").value("sj@daum.net"));
+    }
+
+    private void create(String firstName, String lastName, String email) throws Exception {
+        mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder()
+                                .firstName(firstName).lastName(lastName).email(email).build())))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.test.controller;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// counts the statements hibernate prepares while PATCH /api/employees/{id} is handled
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeePatchSqlCountTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("seoin@naver.com")
+                .build());
+        employeeRepository.save(Employee.builder()
+                .firstName("namu")
+                .lastName("kim")
+                .email("namu@naver.com")
+                .build());
+        statistics.clear();
+    }
+
+    @DisplayName("PATCH runs exactly one UPDATE and no SELECT")
+    @Test
+    public void givenMergePatch_whenPatchEmployee_thenOneStatement() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employee.getId())
+                .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON)
+                .content("{\"firstName\":\"inseo\",\"lastName\":\"kim\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isNoContent())
+                .andDo(print());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        Employee patched = employeeRepository.findById(employee.getId()).get();
+        assertThat(patched.getFirstName()).isEqualTo("inseo");
+        assertThat(patched.getLastName()).isEqualTo("kim");
+        assertThat(patched.getEmail()).isEqualTo("seoin@naver.com");
+    }
+
+    @DisplayName("PATCH of a missing id answers 404 from the affected row count")
+    @Test
+    public void givenMissingId_whenPatchEmployee_thenOneStatementAnd404() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employee.getId() + 1000)
+                .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON)
+                .content("{\"firstName\":\"inseo\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @DisplayName("PATCH to an email that is taken answers 409")
+    @Test
+    public void givenTakenEmail_whenPatchEmployee_thenReturn409() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employee.getId())
+                .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON)
+                .content("{\"email\":\"namu@naver.com\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isConflict())
+                .andDo(print());
+        assertThat(employeeRepository.findById(employee.getId()).get().getEmail()).isEqualTo("seoin@naver.com");
+    }
+}
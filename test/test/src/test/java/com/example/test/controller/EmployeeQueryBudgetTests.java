@@ -0,0 +1,158 @@
+package com.example.test.controller;
+
+import com.example.test.metrics.ExpectedQueries;
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.example.test.service.support.EmployeeCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// statement budgets of the single row endpoints, counted on the datasource by @ExpectedQueries.
+// both caches start empty so every read below reaches the database once
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeQueryBudgetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeCache employeeCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("seoin@naver.com")
+                .build());
+        employeeCache.invalidateAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @DisplayName("POST inserts without looking the email up first")
+    @Test
+    @ExpectedQueries(insert = 1)
+    public void givenEmployee_whenCreateEmployee_thenOneInsert() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Employee.builder()
+                        .firstName("namu")
+                        .lastName("kim")
+                        .email("namu@naver.com")
+                        .build())));
+
+        // then - verify the output
+        response.andExpect(status().isCreated())
+                .andDo(print());
+    }
+
+    @DisplayName("repeated GET by id reads the row once")
+    @Test
+    @ExpectedQueries(select = 1)
+    public void givenEmployee_whenGetEmployeeByIdTwice_thenOneSelect() throws Exception {
+        // when - action or the behavior that we are going to test
+        mockMvc.perform(get("/api/employees/{id}", employee.getId()));
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employee.getId()));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+    }
+
+    @DisplayName("PUT reads the row once and the merge does not read it again")
+    @Test
+    @ExpectedQueries(select = 1, update = 1)
+    public void givenEmployee_whenUpdateEmployee_thenOneSelectAndOneUpdate() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Employee.builder()
+                        .firstName("inseo")
+                        .lastName("choi")
+                        .email("inseo@naver.com")
+                        .build())));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.firstName", is("inseo")));
+    }
+
+    @DisplayName("DELETE by id does not read the row before deleting it")
+    @Test
+    @ExpectedQueries(delete = 1)
+    public void givenEmployee_whenDeleteEmployee_thenOneDelete() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employee.getId()));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print());
+    }
+
+    @DisplayName("GET all is one SELECT whatever the number of rows")
+    @Test
+    @ExpectedQueries(select = 1)
+    public void givenEmployees_whenGetAllEmployees_thenOneSelect() throws Exception {
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)));
+    }
+
+    @DisplayName("bulk create checks the emails with one SELECT and inserts with one batch")
+    @Test
+    @ExpectedQueries(select = 1, insert = 1)
+    public void givenEmployees_whenCreateEmployees_thenOneSelectAndOneInsertBatch() throws Exception {
+        // given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("namu").lastName("kim").email("namu@naver.com").build(),
+                Employee.builder().firstName("hana").lastName("lee").email("hana@naver.com").build(),
+                Employee.builder().firstName("seoin").lastName("choi").email("seoin@naver.com").build());
+
+        // when - action or the behavior that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employees)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$[2].status", is("CONFLICT")));
+    }
+}
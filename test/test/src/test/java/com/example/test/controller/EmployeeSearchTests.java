@@ -0,0 +1,103 @@
+package com.example.test.controller;
+
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /api/employees/search?q= follows the writes made through the api
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeSearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // through the service so the index hears about it
+    @BeforeEach
+    public void setup() {
+        List<Long> ids = employeeService.getAllEmployees().stream().map(Employee::getId).collect(Collectors.toList());
+        employeeService.deleteEmployees(ids);
+    }
+
+    @DisplayName("created employees are found by a name prefix, best match first")
+    @Test
+    public void givenCreatedEmployees_whenSearch_thenRankedMatches() throws Exception {
+        // given - precondition or setup
+        create("seoin", "choi", "seoin@naver.com");
+        create("seoinho", "choi", "seoinho@naver.com");
+        create("minsu", "kim", "minsu@naver.com");
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        mockMvc.perform(get("/api/employees/search").param("q", "Seoin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].email").value("seoin@naver.com"))
+                .andExpect(jsonPath("$[1].email").value("seoinho@naver.com"));
+        mockMvc.perform(get("/api/employees/search").param("q", "seoin").param("limit", "1"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @DisplayName("patched and deleted employees are searched as they are now")
+    @Test
+    public void givenEmployee_whenPatchAndDelete_thenSearchFollows() throws Exception {
+        // given - precondition or setup
+        Employee saved = create("seoin", "choi", "seoin@naver.com");
+
+        // when - action or the behavior that we are going to test
+        mockMvc.perform(patch("/api/employees/{id}", saved.getId())
+                        .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("lastName", "park"))))
+                .andExpect(status().isNoContent());
+
+        // then - verify the output
+        mockMvc.perform(get("/api/employees/search").param("q", "seoin par"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].lastName").value("park"));
+        mockMvc.perform(get("/api/employees/search").param("q", "choi"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        // when - action or the behavior that we are going to test
+        mockMvc.perform(delete("/api/employees/{id}", saved.getId())).andExpect(status().isOk());
+
+        // then - verify the output
+        mockMvc.perform(get("/api/employees/search").param("q", "seoin"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    private Employee create(String firstName, String lastName, String email) throws Exception {
+        String body = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Employee.builder()
+                                .firstName(firstName).lastName(lastName).email(email).build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, Employee.class);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.test.controller;
+
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.example.test.config.SmileConfiguration.APPLICATION_SMILE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Accept / Content-Type application/x-jackson-smile on the servlet stack, json without them
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EmployeeSmileContentTests {
+
+    private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private HttpMessageConverters messageConverters;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @BeforeEach
+    public void setup() {
+        List<Long> ids = employeeService.getAllEmployees().stream().map(Employee::getId).collect(Collectors.toList());
+        employeeService.deleteEmployees(ids);
+    }
+
+    @DisplayName("the configured smile converter comes before the default one and after the json converter")
+    @Test
+    public void givenContext_whenConverters_thenSmileAfterJson() {
+        // when - action or the behavior that we are going to test
+        List<HttpMessageConverter<?>> converters = messageConverters.getConverters();
+
+        // then - verify the output
+        HttpMessageConverter<?> firstSmile = converters.stream()
+                .filter(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter).findFirst().orElseThrow();
+        HttpMessageConverter<?> firstJson = converters.stream()
+                .filter(converter -> converter instanceof MappingJackson2HttpMessageConverter).findFirst().orElseThrow();
+        assertThat(firstSmile).isSameAs(smileConverter);
+        assertThat(converters.indexOf(firstJson)).isLessThan(converters.indexOf(firstSmile));
+    }
+
+    @DisplayName("create, list, patch and get by id in smile, json stays the default")
+    @Test
+    public void givenSmileClient_whenCreateListPatchGet_thenSmileBodies() throws Exception {
+        // given - precondition or setup
+        byte[] employee = SMILE.writeValueAsBytes(Employee.builder().firstName("seoin").lastName("choi").email("seoin@naver.com").build());
+
+        // when - action or the behavior that we are going to test
+        MvcResult created = mockMvc.perform(post("/api/employees")
+                        .contentType(APPLICATION_SMILE)
+                        .accept(APPLICATION_SMILE)
+                        .content(employee))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(APPLICATION_SMILE))
+                .andReturn();
+        Employee saved = SMILE.readValue(created.getResponse().getContentAsByteArray(), Employee.class);
+        mockMvc.perform(patch("/api/employees/{id}", saved.getId())
+                        .contentType(APPLICATION_SMILE)
+                        .content(SMILE.writeValueAsBytes(Map.of("lastName", "kim"))))
+                .andExpect(status().isNoContent());
+        byte[] list = mockMvc.perform(get("/api/employees").accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] byId = mockMvc.perform(get("/api/employees/{id}", saved.getId()).accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // then - verify the output
+        assertThat(saved.getEmail()).isEqualTo("seoin@naver.com");
+        assertThat(SMILE.readValue(list, new TypeReference<List<Employee>>() { }))
+                .extracting(Employee::getId, Employee::getLastName)
+                .containsExactly(tuple(saved.getId(), "kim"));
+        assertThat(SMILE.readValue(byId, Employee.class).getVersion()).isEqualTo(1);
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/api/employees").accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
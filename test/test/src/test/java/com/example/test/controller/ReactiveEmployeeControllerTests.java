@@ -0,0 +1,404 @@
+package com.example.test.controller;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.ReactiveEmployeeRepository;
+import com.example.test.service.ReactiveEmployeeService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static com.example.test.config.SmileConfiguration.APPLICATION_SMILE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willReturn;
+
+// the reactive profile on r2dbc-h2 : same endpoints and status codes as EmployeeControllerTest
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactiveEmployeeControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    // a spy so a test can make the email lookup miss a row, as if it was inserted concurrently
+    @SpyBean
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @Autowired
+    private ReactiveEmployeeService employeeService;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAll().block();
+        employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("seoin@naver.com")
+                .build()).block();
+    }
+
+    @DisplayName("POST creates the employee and answers 201")
+    @Test
+    public void givenEmployee_whenCreateEmployee_thenReturnSavedEmployee() {
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder().firstName("namu").lastName("kim").email("namu@naver.com").build())
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isNumber()
+                .jsonPath("$.email").isEqualTo("namu@naver.com")
+                .jsonPath("$.version").isEqualTo(0);
+    }
+
+    @DisplayName("POST with a taken email answers 409")
+    @Test
+    public void givenTakenEmail_whenCreateEmployee_thenReturn409() {
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder().firstName("inseo").lastName("choi").email("seoin@naver.com").build())
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isEqualTo(409);
+    }
+
+    @DisplayName("bulk create reports one CREATED / CONFLICT result per item")
+    @Test
+    public void givenEmployees_whenCreateEmployees_thenResultPerItem() {
+        // given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("namu").lastName("kim").email("namu@naver.com").build(),
+                Employee.builder().firstName("seoin").lastName("choi").email("seoin@naver.com").build(),
+                Employee.builder().firstName("namu").lastName("lee").email("namu@naver.com").build());
+
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employees)
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.size()").isEqualTo(3)
+                .jsonPath("$[0].status").isEqualTo("CREATED")
+                .jsonPath("$[1].status").isEqualTo("CONFLICT")
+                .jsonPath("$[2].status").isEqualTo("CONFLICT");
+    }
+
+    @DisplayName("bulk create compares emails case insensitively, like the unique index")
+    @Test
+    public void givenEmailsDifferingInCase_whenCreateEmployees_thenConflictNotServerError() {
+        // given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("seoin").lastName("choi").email("Seoin@Naver.com").build(),
+                Employee.builder().firstName("minsu").lastName("kim").email("minsu@naver.com").build(),
+                Employee.builder().firstName("minsu").lastName("lee").email("MINSU@naver.com").build());
+
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employees)
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo("CONFLICT")
+                .jsonPath("$[1].status").isEqualTo("CREATED")
+                .jsonPath("$[2].status").isEqualTo("CONFLICT");
+    }
+
+    @DisplayName("bulk create reports an email inserted between its lookup and its insert as CONFLICT")
+    @Test
+    public void givenEmailInsertedAfterLookup_whenCreateEmployees_thenConflictNotServerError() {
+        // given - precondition or setup
+        willReturn(Flux.empty()).willCallRealMethod().given(employeeRepository).findExistingEmails(any());
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("namu").lastName("kim").email("namu@naver.com").build(),
+                Employee.builder().firstName("seoin").lastName("choi").email("seoin@naver.com").build());
+
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employees)
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo("CREATED")
+                .jsonPath("$[1].status").isEqualTo("CONFLICT");
+        assertThat(employeeRepository.count().block()).isEqualTo(2);
+    }
+
+    @DisplayName("GET by id answers the employee with its version as ETag, 304 when it did not change")
+    @Test
+    public void givenEmployee_whenGetEmployeeById_thenETagAndNotModified() {
+        // when - action or the behavior that we are going to test
+        String eTag = webTestClient.get().uri("/api/employees/{id}", employee.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody().jsonPath("$.firstName").isEqualTo("seoin")
+                .returnResult().getResponseHeaders().getETag();
+
+        // then - verify the output
+        webTestClient.get().uri("/api/employees/{id}", employee.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @DisplayName("GET of a missing id answers 404")
+    @Test
+    public void givenMissingId_whenGetEmployeeById_thenReturn404() {
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", employee.getId() + 1000).exchange();
+
+        // then - verify the output
+        response.expectStatus().isNotFound();
+    }
+
+    @DisplayName("PUT updates the employee and bumps the version, a stale If-Match answers 412")
+    @Test
+    public void givenEmployee_whenUpdateEmployee_thenUpdatedAndStaleRejected() {
+        // when - action or the behavior that we are going to test
+        webTestClient.put().uri("/api/employees/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(Employee.builder().firstName("inseo").lastName("choi").email("inseo@naver.com").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody().jsonPath("$.firstName").isEqualTo("inseo");
+
+        // then - verify the output
+        webTestClient.put().uri("/api/employees/{id}", employee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(Employee.builder().firstName("late").lastName("choi").email("late@naver.com").build())
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        assertThat(employeeRepository.findById(employee.getId()).block().getFirstName()).isEqualTo("inseo");
+    }
+
+    @DisplayName("PUT to an email another employee has answers 409 and changes nothing")
+    @Test
+    public void givenTakenEmail_whenUpdateEmployee_thenReturn409() {
+        // given - precondition or setup
+        Employee minsu = employeeService.saveEmployee(
+                Employee.builder().firstName("minsu").lastName("kim").email("minsu@naver.com").build()).block();
+
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.put().uri("/api/employees/{id}", minsu.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Employee.builder().firstName("minsu").lastName("kim").email("SEOIN@naver.com").build())
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isEqualTo(409);
+        assertThat(employeeRepository.findById(minsu.getId()).block().getEmail()).isEqualTo("minsu@naver.com");
+    }
+
+    @DisplayName("PATCH writes only the supplied fields, 404 for a missing id")
+    @Test
+    public void givenMergePatch_whenPatchEmployee_thenOnlySuppliedFieldsChanged() {
+        // when - action or the behavior that we are going to test
+        webTestClient.patch().uri("/api/employees/{id}", employee.getId())
+                .contentType(MediaType.parseMediaType(EmployeeController.APPLICATION_MERGE_PATCH_JSON))
+                .bodyValue("{\"lastName\":\"kim\"}")
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.patch().uri("/api/employees/{id}", employee.getId() + 1000)
+                .contentType(MediaType.parseMediaType(EmployeeController.APPLICATION_MERGE_PATCH_JSON))
+                .bodyValue("{\"lastName\":\"kim\"}")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        // then - verify the output
+        Employee patched = employeeRepository.findById(employee.getId()).block();
+        assertThat(patched.getLastName()).isEqualTo("kim");
+        assertThat(patched.getFirstName()).isEqualTo("seoin");
+        assertThat(patched.getVersion()).isEqualTo(1);
+    }
+
+    @DisplayName("DELETE removes the employee, 404 when nothing was deleted")
+    @Test
+    public void givenEmployee_whenDeleteEmployee_thenDeletedThen404() {
+        // when - action or the behavior that we are going to test
+        webTestClient.delete().uri("/api/employees/{id}", employee.getId()).exchange().expectStatus().isOk();
+
+        // then - verify the output
+        webTestClient.delete().uri("/api/employees/{id}", employee.getId()).exchange().expectStatus().isNotFound();
+    }
+
+    @DisplayName("bulk DELETE by last name removes every match, a bare DELETE is rejected")
+    @Test
+    public void givenMatches_whenDeleteByName_thenDeleted() {
+        // given - precondition or setup
+        employeeService.saveEmployee(Employee.builder().firstName("hana").lastName("choi").email("hana@naver.com").build()).block();
+        employeeService.saveEmployee(Employee.builder().firstName("namu").lastName("kim").email("namu@naver.com").build()).block();
+
+        // when - action or the behavior that we are going to test
+        webTestClient.delete().uri("/api/employees?lastName=choi")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.deleted").isEqualTo(2);
+
+        // then - verify the output
+        webTestClient.delete().uri("/api/employees").exchange().expectStatus().isBadRequest();
+        assertThat(employeeRepository.count().block()).isEqualTo(1);
+    }
+
+    @DisplayName("GET all streams a json array, export streams ndjson, pages follow the cursor")
+    @Test
+    public void givenEmployees_whenList_thenArrayNdjsonAndPages() {
+        // given - precondition or setup
+        for (int i = 0; i < 4; i++) {
+            employeeService.saveEmployee(Employee.builder().firstName("user").lastName("kim").email("user" + i + "@naver.com").build()).block();
+        }
+
+        // when - action or the behavior that we are going to test
+        webTestClient.get().uri("/api/employees")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.size()").isEqualTo(5);
+        String ndjson = webTestClient.get().uri("/api/employees/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        String nextCursor = webTestClient.get().uri("/api/employees?size=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(EmployeePageBody.class).returnResult().getResponseBody().nextCursor;
+
+        // then - verify the output
+        assertThat(ndjson.trim().split("\n")).hasSize(5);
+        webTestClient.get().uri("/api/employees?size=3&cursor={cursor}", nextCursor)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.content.size()").isEqualTo(2)
+                .jsonPath("$.nextCursor").doesNotExist();
+        webTestClient.get().uri("/api/employees?size=3&cursor=not-a-cursor").exchange().expectStatus().isBadRequest();
+    }
+
+    @DisplayName("view=summary with a page size answers 400 instead of full employees")
+    @Test
+    public void givenSummaryViewAndSize_whenGetEmployees_thenReturn400() {
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees?view=summary&size=50").exchange();
+
+        // then - verify the output
+        response.expectStatus().isBadRequest();
+    }
+
+    @DisplayName("fields= narrows the listing and the employee by id, unknown fields answer 400")
+    @Test
+    public void givenFields_whenGetEmployees_thenRequestedFieldsOnly() {
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec list = webTestClient.get().uri("/api/employees?fields=email,firstName").exchange();
+        WebTestClient.ResponseSpec byId = webTestClient.get().uri("/api/employees/{id}?fields=id", employee.getId()).exchange();
+
+        // then - verify the output
+        list.expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("[{\"firstName\":\"seoin\",\"email\":\"seoin@naver.com\"}]");
+        byId.expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(String.class).isEqualTo("{\"id\":" + employee.getId() + "}");
+        webTestClient.get().uri("/api/employees?fields=salary").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/employees?fields=email&size=50").exchange().expectStatus().isBadRequest();
+    }
+
+    @DisplayName("smile in and out on Accept / Content-Type application/x-jackson-smile, json without them")
+    @Test
+    public void givenSmileClient_whenCreateAndList_thenSmileBodies() throws Exception {
+        // given - precondition or setup
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        byte[] created = smile.writeValueAsBytes(Employee.builder().firstName("namu").lastName("kim").email("namu@naver.com").build());
+
+        // when - action or the behavior that we are going to test
+        byte[] saved = webTestClient.post().uri("/api/employees")
+                .contentType(APPLICATION_SMILE)
+                .accept(APPLICATION_SMILE)
+                .bodyValue(created)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(APPLICATION_SMILE)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        byte[] list = webTestClient.get().uri("/api/employees")
+                .accept(APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_SMILE)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        // then - verify the output
+        assertThat(smile.readValue(saved, Employee.class).getEmail()).isEqualTo("namu@naver.com");
+        assertThat(smile.readValue(list, new TypeReference<List<Employee>>() { }))
+                .extracting(Employee::getEmail)
+                .containsExactly("seoin@naver.com", "namu@naver.com");
+        webTestClient.get().uri("/api/employees").exchange()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+
+    @DisplayName("the smile listing of an empty table is an empty array")
+    @Test
+    public void givenNoEmployees_whenGetAllEmployeesAsSmile_thenEmptyArray() throws Exception {
+        // given - precondition or setup
+        employeeRepository.deleteAll().block();
+
+        // when - action or the behavior that we are going to test
+        byte[] list = webTestClient.get().uri("/api/employees")
+                .accept(APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class).returnResult().getResponseBody();
+
+        // then - verify the output
+        assertThat(new ObjectMapper(new SmileFactory()).readValue(list, List.class)).isEmpty();
+    }
+
+    @DisplayName("GET all of an empty table is an empty array")
+    @Test
+    public void givenNoEmployees_whenGetAllEmployees_thenEmptyArray() {
+        // given - precondition or setup
+        employeeRepository.deleteAll().block();
+
+        // when - action or the behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees").exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectBody(String.class).value(is("[]"));
+    }
+
+    static class EmployeePageBody {
+        public List<Employee> content;
+        public String nextCursor;
+    }
+}
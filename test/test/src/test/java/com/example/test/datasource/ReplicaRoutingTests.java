@@ -0,0 +1,173 @@
+package com.example.test.datasource;
+
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import com.example.test.service.support.EmployeeCache;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.Cookie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// two H2 databases stand in for primary and replica, nothing replicates between them :
+// a row only the replica has shows which one served a read. the heartbeat is driven by the tests
+@SpringBootTest(properties = {"employee.replica.enabled=true", "employee.replica.heartbeat-interval=1h"})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReplicaPools replicaPools;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EmployeeCache employeeCache;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setup() {
+        new ResourceDatabasePopulator(new ClassPathResource("replica-schema.sql")).execute(replicaPools.getReplica());
+        primary = new JdbcTemplate(replicaPools.getPrimary());
+        replica = new JdbcTemplate(replicaPools.getReplica());
+        primary.update("delete from employees");
+        replica.update("delete from employees");
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (900001, 'replica', 'only', 'replica@naver.com', 0)");
+        entityManagerFactory.getCache().evictAll();
+        employeeCache.invalidateAll();
+        replicate(0);
+    }
+
+    @DisplayName("read-only service methods read from a fresh replica")
+    @Test
+    public void givenFreshReplica_whenGetAllEmployees_thenReadFromReplica() {
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        assertThat(employeeService.getAllEmployees())
+                .extracting(Employee::getEmail)
+                .containsExactly("replica@naver.com");
+    }
+
+    @DisplayName("a replica behind by more than max-staleness is skipped")
+    @Test
+    public void givenLaggingReplica_whenGetAllEmployees_thenReadFromPrimary() {
+        // given - precondition or setup
+        replicate(60_000);
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        assertThat(lagMonitor.isFresh()).isFalse();
+        assertThat(employeeService.getAllEmployees()).isEmpty();
+    }
+
+    @DisplayName("writes go to the primary")
+    @Test
+    public void givenEmployee_whenSaveEmployee_thenWrittenToPrimary() {
+        // when - action or the behavior that we are going to test
+        employeeService.saveEmployee(Employee.builder().firstName("seoin").lastName("choi").email("seoin@naver.com").build());
+
+        // then - verify the output
+        assertThat(primary.queryForObject("select count(*) from employees", Integer.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("select count(*) from employees where email = 'seoin@naver.com'", Integer.class)).isZero();
+    }
+
+    @DisplayName("a client that wrote reads its write back from the primary, other clients read the replica")
+    @Test
+    public void givenWrite_whenSameClientReads_thenReadYourWrites() throws Exception {
+        // given - precondition or setup
+        Cookie primaryUntil = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"seoin\",\"lastName\":\"choi\",\"email\":\"seoin@naver.com\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWrites.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWrites.COOKIE);
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        mockMvc.perform(get("/api/employees").cookie(primaryUntil))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value("seoin@naver.com"));
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value("replica@naver.com"))
+                .andExpect(cookie().doesNotExist(ReadYourWrites.COOKIE));
+    }
+
+    @DisplayName("another client reading by id during the replica lag gets the new row, not a cached 404")
+    @Test
+    public void givenWrite_whenOtherClientGetsByIdDuringLag_thenReadFromPrimary() throws Exception {
+        // given - precondition or setup
+        String created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"seoin\",\"lastName\":\"choi\",\"email\":\"seoin@naver.com\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(created, "$.id")).longValue();
+        // as if another instance took the write : its row is not in this instance's second level cache
+        entityManagerFactory.getCache().evictAll();
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        assertThat(lagMonitor.isFresh()).isTrue();
+        mockMvc.perform(get("/api/employees/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("seoin@naver.com"))
+                .andExpect(cookie().doesNotExist(ReadYourWrites.COOKIE));
+        mockMvc.perform(get("/api/employees/{id}", id))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("rows the replica served are not put into the second level cache")
+    @Test
+    public void givenStaleReplicaRow_whenListedThenGetById_thenPrimaryRow() {
+        // given - precondition or setup
+        primary.update("insert into employees (id, first_name, last_name, email, version) values (900002, 'seoin', 'choi', 'seoin@naver.com', 1)");
+        replica.update("insert into employees (id, first_name, last_name, email, version) values (900002, 'stale', 'choi', 'stale@naver.com', 0)");
+        assertThat(employeeService.getAllEmployees()).extracting(Employee::getFirstName).contains("stale");
+
+        // when - action or the behavior that we are going to test
+        Employee employee = employeeService.getEmployeeById(900002).orElseThrow();
+
+        // then - verify the output
+        assertThat(employee.getFirstName()).isEqualTo("seoin");
+        assertThat(employee.getVersion()).isEqualTo(1);
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, 900002L)).isTrue();
+    }
+
+    // what replication would do for the heartbeat : the replica has the primary's beat from lagMillis ago
+    private void replicate(long lagMillis) {
+        replica.update("delete from employee_replica_heartbeat");
+        replica.update("insert into employee_replica_heartbeat (id, beat) values (1, ?)", System.currentTimeMillis() - lagMillis);
+        lagMonitor.refresh();
+    }
+}
@@ -24,6 +24,8 @@ public abstract class AbstractContainerBaseTest {
 		registry.add("spring.datasource.url", MY_SQL_CONTAINER::getJdbcUrl);
 		registry.add("spring.datasource.username", MY_SQL_CONTAINER::getUsername);
 		registry.add("spring.datasource.password", MY_SQL_CONTAINER::getPassword);
+		// the test config/application.properties sets the H2 dialect for every other test
+		registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MySQL8Dialect");
 	}
 	
 }
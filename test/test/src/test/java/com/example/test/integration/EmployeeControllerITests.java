@@ -214,7 +214,6 @@ public class EmployeeControllerITests extends AbstractContainerBaseTest {
     @Test
     public void givenEmployeeId_whenDeleteByEmployeeId_thenReturn200() throws Exception {
         // given - precondition or setup
-        long employeeId = 1L;
         Employee savedEmployee = Employee.builder()
                 .firstName("seoin")
                 .lastName("choi")
@@ -223,7 +222,7 @@ public class EmployeeControllerITests extends AbstractContainerBaseTest {
         employeeRepository.save(savedEmployee);
 
         // when - action or the behavior that we are going to test
-        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", savedEmployee.getId()));
 
         // then - verify the output
         response.andExpect(status().isOk())
@@ -0,0 +1,84 @@
+package com.example.test.metrics;
+
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.service.EmployeeService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeMetricsAspectTests {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    // meter filters see every registration, also of a timer that already exists
+    private final AtomicInteger registrations = new AtomicInteger();
+
+    private EmployeeMetricsAspect aspect;
+
+    @BeforeEach
+    public void setup() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                registrations.incrementAndGet();
+                return id;
+            }
+        });
+        aspect = new EmployeeMetricsAspect(meterRegistry);
+        given(joinPoint.getSignature()).willReturn(signature);
+        given(signature.getMethod()).willReturn(EmployeeService.class.getMethod("getAllEmployees"));
+    }
+
+    @DisplayName("a timer is registered once per method and outcome, later calls reuse it")
+    @Test
+    public void givenRepeatedCalls_whenTimed_thenTimerRegisteredOncePerOutcome() throws Throwable {
+        // given - precondition or setup
+        given(joinPoint.proceed())
+                .willReturn(List.of("seoin"))
+                .willReturn(List.of("seoin"))
+                .willReturn(List.of())
+                .willThrow(new DuplicateEmailException("already exists with given email : seoin@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        aspect.timeService(joinPoint);
+        aspect.timeService(joinPoint);
+        aspect.timeService(joinPoint);
+        assertThatThrownBy(() -> aspect.timeService(joinPoint)).isInstanceOf(DuplicateEmailException.class);
+
+        // then - verify the output
+        assertThat(registrations.get()).isEqualTo(3);
+        assertThat(count(EmployeeMetricsAspect.FOUND)).isEqualTo(2);
+        assertThat(count(EmployeeMetricsAspect.NOT_FOUND)).isEqualTo(1);
+        assertThat(count(EmployeeMetricsAspect.CONFLICT)).isEqualTo(1);
+    }
+
+    private long count(String outcome) {
+        return meterRegistry.get("employee.service")
+                .tag("method", "getAllEmployees")
+                .tag("outcome", outcome)
+                .timer().count();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.test.metrics;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class EmployeeMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+        employee = Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("metrics@naver.com")
+                .build();
+    }
+
+    @DisplayName("controller, service and repository timers are tagged by outcome")
+    @Test
+    public void givenRequests_whenTimed_thenTaggedByOutcome() throws Exception {
+        // given - precondition or setup
+        long controllerFound = count("employee.controller", "getEmployeeById", EmployeeMetricsAspect.SUCCESS);
+        long controllerNotFound = count("employee.controller", "getEmployeeById", EmployeeMetricsAspect.NOT_FOUND);
+        long saveSuccess = count("employee.service", "saveEmployee", EmployeeMetricsAspect.SUCCESS);
+        long saveConflict = count("employee.service", "saveEmployee", EmployeeMetricsAspect.CONFLICT);
+        long serviceFound = count("employee.service", "getEmployeeById", EmployeeMetricsAspect.FOUND);
+        long serviceNotFound = count("employee.service", "getEmployeeById", EmployeeMetricsAspect.NOT_FOUND);
+        long repositoryConflict = count("employee.repository", "saveAndFlush", EmployeeMetricsAspect.CONFLICT);
+        long finderFound = count("employee.repository", "findByJPQLNamedParams", EmployeeMetricsAspect.FOUND);
+        String body = objectMapper.writeValueAsString(employee);
+        String created = mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).path("id").asLong();
+
+        // when - action or the behavior that we are going to test
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/employees/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/employees/{id}", id + 1000)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/employees/search").param("firstName", "seoin").param("lastName", "choi"))
+                .andExpect(status().isOk());
+
+        // then - verify the output
+        assertThat(count("employee.controller", "getEmployeeById", EmployeeMetricsAspect.SUCCESS) - controllerFound).isEqualTo(1);
+        assertThat(count("employee.controller", "getEmployeeById", EmployeeMetricsAspect.NOT_FOUND) - controllerNotFound).isEqualTo(1);
+        assertThat(count("employee.service", "saveEmployee", EmployeeMetricsAspect.SUCCESS) - saveSuccess).isEqualTo(1);
+        assertThat(count("employee.service", "saveEmployee", EmployeeMetricsAspect.CONFLICT) - saveConflict).isEqualTo(1);
+        assertThat(count("employee.service", "getEmployeeById", EmployeeMetricsAspect.FOUND) - serviceFound).isEqualTo(1);
+        assertThat(count("employee.service", "getEmployeeById", EmployeeMetricsAspect.NOT_FOUND) - serviceNotFound).isEqualTo(1);
+        assertThat(count("employee.repository", "saveAndFlush", EmployeeMetricsAspect.CONFLICT) - repositoryConflict).isEqualTo(1);
+        assertThat(count("employee.repository", "findByJPQLNamedParams", EmployeeMetricsAspect.FOUND) - finderFound).isEqualTo(1);
+    }
+
+    @DisplayName("prometheus scrape exposes the histograms and the connection pool")
+    @Test
+    public void givenTimedRequest_whenScrape_thenHistogramsAndPoolMetricsExposed() throws Exception {
+        // given - precondition or setup
+        mockMvc.perform(get("/api/employees/{id}", 12345L)).andExpect(status().isNotFound());
+
+        // when - action or the behavior that we are going to test
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then - verify the output
+        assertThat(scrape).contains("employee_controller_seconds_bucket{method=\"getEmployeeById\",outcome=\"not_found\"");
+        assertThat(scrape).contains("employee_repository_seconds_bucket{method=\"findById\",outcome=\"not_found\"");
+        assertThat(scrape).contains("hikaricp_connections_acquire_seconds_bucket");
+        assertThat(scrape).contains("hikaricp_connections_usage_seconds_bucket");
+        assertThat(scrape).contains("hikaricp_connections_pending");
+        assertThat(scrape).contains("hikaricp_connections_active");
+    }
+
+    private long count(String name, String method, String outcome) {
+        Timer timer = meterRegistry.find(name).tag("method", method).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
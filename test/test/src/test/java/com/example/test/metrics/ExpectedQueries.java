@@ -0,0 +1,27 @@
+package com.example.test.metrics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// exact number of statements the test method may send, per kind. setup belongs in @BeforeEach,
+// everything run inside the test method itself is counted. -1 leaves a kind unchecked,
+// OTHER (sequence fetches) is unchecked by default because the pooled optimizer only fetches every 50 ids
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryCountExtension.class)
+public @interface ExpectedQueries {
+
+    int select() default 0;
+
+    int insert() default 0;
+
+    int update() default 0;
+
+    int delete() default 0;
+
+    int other() default -1;
+}
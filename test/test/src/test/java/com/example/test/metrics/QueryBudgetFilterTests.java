@@ -0,0 +1,88 @@
+package com.example.test.metrics;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// with a budget of one statement, a list request stays within it and a bulk create (lookup + insert) goes over
+@SpringBootTest(properties = "employee.query-budget.per-request=1")
+@AutoConfigureMockMvc
+public class QueryBudgetFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("a request within the budget is only recorded")
+    @Test
+    public void givenOneStatement_whenGetAllEmployees_thenNotOverBudget() throws Exception {
+        // given - precondition or setup
+        long recorded = summary("GET", "/api/employees").count();
+        double over = overBudget("GET", "/api/employees").count();
+
+        // when - action or the behavior that we are going to test
+        mockMvc.perform(get("/api/employees")).andExpect(status().isOk());
+
+        // then - verify the output
+        assertThat(summary("GET", "/api/employees").count()).isEqualTo(recorded + 1);
+        assertThat(overBudget("GET", "/api/employees").count()).isEqualTo(over);
+    }
+
+    @DisplayName("a request over the budget increments the warning counter")
+    @Test
+    public void givenTwoStatements_whenCreateEmployees_thenOverBudget() throws Exception {
+        // given - precondition or setup
+        double over = overBudget("POST", "/api/employees/batch").count();
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("seoin").lastName("choi").email("budget@naver.com").build());
+
+        // when - action or the behavior that we are going to test
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employees)))
+                .andExpect(status().isOk());
+
+        // then - verify the output
+        assertThat(overBudget("POST", "/api/employees/batch").count()).isEqualTo(over + 1);
+        assertThat(summary("POST", "/api/employees/batch").max()).isGreaterThanOrEqualTo(2);
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        return meterRegistry.summary("employee.request.queries", "method", method, "uri", uri);
+    }
+
+    private Counter overBudget(String method, String uri) {
+        return meterRegistry.counter("employee.request.queries.over.budget", "method", method, "uri", uri);
+    }
+}
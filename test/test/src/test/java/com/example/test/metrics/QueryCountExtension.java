@@ -0,0 +1,42 @@
+package com.example.test.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// opens a QueryCount around the test method (after @BeforeEach, before @AfterEach)
+// and fails the test when the statements differ from its @ExpectedQueries
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryCountExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), QueryCount.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCount count = context.getStore(NAMESPACE).remove(context.getUniqueId(), QueryCount.class);
+        count.close();
+        ExpectedQueries expected = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), ExpectedQueries.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), ExpectedQueries.class))
+                .orElseThrow();
+        check(count, QueryCount.Type.SELECT, expected.select());
+        check(count, QueryCount.Type.INSERT, expected.insert());
+        check(count, QueryCount.Type.UPDATE, expected.update());
+        check(count, QueryCount.Type.DELETE, expected.delete());
+        check(count, QueryCount.Type.OTHER, expected.other());
+    }
+
+    private static void check(QueryCount count, QueryCount.Type type, int expected) {
+        if (expected >= 0) {
+            assertThat(count.get(type))
+                    .as("%s statements (%s)", type, count)
+                    .isEqualTo(expected);
+        }
+    }
+}
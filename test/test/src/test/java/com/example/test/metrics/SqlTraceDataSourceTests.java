@@ -0,0 +1,112 @@
+package com.example.test.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlTraceDataSourceTests {
+
+    private List<SqlTrace> traces;
+
+    private SqlTraceLog traceLog;
+
+    private SqlTraceDataSource dataSource;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        traces = new CopyOnWriteArrayList<>();
+        traceLog = new SqlTraceLog(true, Duration.ofMinutes(1), 1.0, 64,
+                new SimpleMeterRegistry().counter("employee.sql.trace.dropped"), traces::add);
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqltrace;DB_CLOSE_DELAY=-1");
+        dataSource = new SqlTraceDataSource(h2, traceLog);
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists item");
+            statement.execute("create table item (id bigint primary key, name varchar(20))");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        traceLog.close();
+    }
+
+    @DisplayName("a batch reports the parameters of every row and the rows written")
+    @Test
+    public void givenBatch_whenExecuteBatch_thenBindsAndRowsTraced() throws Exception {
+        // when - action or the behavior that we are going to test
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("insert into item (id, name) values (?, ?)")) {
+            for (int i = 0; i < 3; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "item" + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        traceLog.close();
+
+        // then - verify the output
+        assertThat(traces).hasSize(1);
+        assertThat(traces.get(0).getSql()).startsWith("insert into item");
+        assertThat(traces.get(0).getBinds()).isEqualTo(6);
+        assertThat(traces.get(0).getRows()).isEqualTo(3);
+    }
+
+    @DisplayName("a query is traced when its result set is closed, with the rows read")
+    @Test
+    public void givenQuery_whenResultSetClosed_thenRowsTraced() throws Exception {
+        // given - precondition or setup
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("insert into item (id, name) values (1, 'a'), (2, 'b'), (3, 'c')");
+        }
+
+        // when - action or the behavior that we are going to test
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement("select name from item where id > ?")) {
+            select.setLong(1, 1);
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getString(1);
+                }
+            }
+        }
+        traceLog.close();
+
+        // then - verify the output
+        assertThat(traces).hasSize(2);
+        assertThat(traces.get(0).getRows()).isEqualTo(3);
+        assertThat(traces.get(1).getSql()).isEqualTo("select name from item where id > ?");
+        assertThat(traces.get(1).getBinds()).isEqualTo(1);
+        assertThat(traces.get(1).getRows()).isEqualTo(2);
+    }
+
+    @DisplayName("disabled tracing hands out the pool's own connections")
+    @Test
+    public void givenDisabled_whenGetConnection_thenNotTraced() throws Exception {
+        // given - precondition or setup
+        traceLog.setEnabled(false);
+
+        // when - action or the behavior that we are going to test
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("select 1").close();
+        }
+        traceLog.close();
+
+        // then - verify the output
+        assertThat(traces).isEmpty();
+    }
+}
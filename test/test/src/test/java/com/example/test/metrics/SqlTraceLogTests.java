@@ -0,0 +1,94 @@
+package com.example.test.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlTraceLogTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private List<SqlTrace> written;
+
+    private Counter dropped;
+
+    @BeforeEach
+    public void setup() {
+        written = new CopyOnWriteArrayList<>();
+        dropped = new SimpleMeterRegistry().counter("employee.sql.trace.dropped");
+    }
+
+    @DisplayName("only statements over the threshold are written when nothing is sampled")
+    @Test
+    public void givenNoSampling_whenRecord_thenOnlySlowStatementsWritten() throws Exception {
+        // given - precondition or setup
+        SqlTraceLog traceLog = new SqlTraceLog(true, Duration.ofMillis(100), 0, 16, dropped, written::add);
+
+        // when - action or the behavior that we are going to test
+        traceLog.record("select fast", 1, FAST, 1);
+        traceLog.record("select slow", 1, SLOW, 1);
+        traceLog.close();
+
+        // then - verify the output
+        assertThat(written).extracting(SqlTrace::getSql).containsExactly("select slow");
+        assertThat(written.get(0).isSlow()).isTrue();
+    }
+
+    @DisplayName("a sample rate of one writes every statement")
+    @Test
+    public void givenFullSampling_whenRecord_thenEveryStatementWritten() throws Exception {
+        // given - precondition or setup
+        SqlTraceLog traceLog = new SqlTraceLog(true, Duration.ofMillis(100), 1.0, 16, dropped, written::add);
+
+        // when - action or the behavior that we are going to test
+        for (int i = 0; i < 10; i++) {
+            traceLog.record("select " + i, 0, FAST, 0);
+        }
+        traceLog.close();
+
+        // then - verify the output
+        assertThat(written).hasSize(10);
+        assertThat(written).noneMatch(SqlTrace::isSlow);
+    }
+
+    @DisplayName("a full buffer drops traces instead of blocking the caller")
+    @Test
+    public void givenBlockedWriter_whenBufferFull_thenTracesDropped() throws Exception {
+        // given - precondition or setup
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SqlTraceLog traceLog = new SqlTraceLog(true, Duration.ZERO, 0, 2, dropped, trace -> {
+            taken.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(trace);
+        });
+        traceLog.record("select 0", 0, FAST, 0);
+        assertThat(taken.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - action or the behavior that we are going to test
+        for (int i = 1; i <= 5; i++) {
+            traceLog.record("select " + i, 0, FAST, 0);
+        }
+        release.countDown();
+        traceLog.close();
+
+        // then - verify the output : the one being written, two buffered, three dropped
+        assertThat(dropped.count()).isEqualTo(3);
+        assertThat(written).extracting(SqlTrace::getSql).containsExactly("select 0", "select 1", "select 2");
+    }
+}
@@ -152,10 +152,10 @@ public class EmployeeRepositoryIntegrationTest extends AbstractContainerBaseTest
         String lastName = "choi";
 
         // when - action or the behavior that we are going to test
-        Employee savedEmployee = employeeRepository.findByJPQL(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByJPQL(firstName, lastName);
 
         // then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
 
     }
 
@@ -169,10 +169,10 @@ public class EmployeeRepositoryIntegrationTest extends AbstractContainerBaseTest
         String lastName = "choi";
 
         // when - action or the behavior that we are going to test
-        Employee savedEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByJPQLNamedParams(firstName, lastName);
 
         // then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     // unit test for custom query using native SQL with index params
@@ -185,10 +185,10 @@ public class EmployeeRepositoryIntegrationTest extends AbstractContainerBaseTest
         String lastName = "choi";
 
         // when - action or the behavior that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQL(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQL(firstName, lastName);
 
         // then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     // unit test for custom query using native SQL with index params
@@ -201,9 +201,9 @@ public class EmployeeRepositoryIntegrationTest extends AbstractContainerBaseTest
         String lastName = "choi";
 
         // when - action or the behavior that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamed(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQLNamed(firstName, lastName);
 
         // then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 }
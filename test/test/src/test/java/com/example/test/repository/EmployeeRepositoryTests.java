@@ -1,5 +1,7 @@
 package com.example.test.repository;
 
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeeSummary;
 import com.example.test.model.Employee;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -9,9 +11,13 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @DataJpaTest
 public class EmployeeRepositoryTests {
@@ -19,6 +25,9 @@ public class EmployeeRepositoryTests {
     @Autowired
     public EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Employee employee;
 
     @BeforeEach
@@ -137,6 +146,23 @@ public class EmployeeRepositoryTests {
         assertThat((employeeOptional).isEmpty());
     }
 
+    // unit test for single statement delete
+    @DisplayName("Junit test for delete by id reporting the row count")
+    @Test
+    public void givenEmployeeObject_whenDeleteRowById_thenReturnAffectedRows() {
+        // given - precondition or setup
+        employeeRepository.save(employee);
+
+        // when - action or the behavior that we are going to test
+        int deleted = employeeRepository.deleteRowById(employee.getId());
+        int deletedAgain = employeeRepository.deleteRowById(employee.getId());
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(1);
+        assertThat(deletedAgain).isZero();
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+    }
+
     // unit test for custom query using JPQL with index params
     @DisplayName("Junit test for JPQL with index params")
     @Test
@@ -147,10 +173,10 @@ public class EmployeeRepositoryTests {
         String lastName = "choi";
 
         // when - action or the behavior that we are going to test
-        Employee savedEmployee = employeeRepository.findByJPQL(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByJPQL(firstName, lastName);
 
         // then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
 
     }
 
@@ -164,10 +190,10 @@ public class EmployeeRepositoryTests {
         String lastName = "choi";
 
         // when - action or the behavior that we are going to test
-        Employee savedEmployee = employeeRepository.findByJPQLNamedParams(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByJPQLNamedParams(firstName, lastName);
 
         // then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     // unit test for custom query using native SQL with index params
@@ -180,10 +206,10 @@ public class EmployeeRepositoryTests {
         String lastName = "choi";
 
         // when - action or the behavior that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQL(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQL(firstName, lastName);
 
         // then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
     }
 
     // unit test for custom query using native SQL with index params
@@ -196,9 +222,140 @@ public class EmployeeRepositoryTests {
         String lastName = "choi";
 
         // when - action or the behavior that we are going to test
-        Employee savedEmployee = employeeRepository.findByNativeSQLNamed(firstName, lastName);
+        List<Employee> savedEmployees = employeeRepository.findByNativeSQLNamed(firstName, lastName);
 
         // then - verify the output
-        assertThat(savedEmployee).isNotNull();
+        assertThat(savedEmployees).hasSize(1);
+    }
+
+    // unit test for keyset pagination
+    @DisplayName("Junit test for keyset page after id")
+    @Test
+    public void givenEmployeesList_whenFindPageAfter_thenReturnNextRowsInIdOrder() {
+        // given - precondition or setup
+        for (int i = 0; i < 5; i++) {
+            employeeRepository.save(Employee.builder()
+                    .firstName("seoin" + i)
+                    .lastName("choi")
+                    .email("seoin" + i + "@naver.com")
+                    .build());
+        }
+        List<Employee> all = employeeRepository.findAll();
+        long after = all.get(1).getId();
+
+        // when - action or the behavior that we are going to test
+        List<Employee> page = employeeRepository.findPageAfter(after, PageRequest.of(0, 2));
+
+        // then - verify the output
+        assertThat(page).hasSize(2);
+        assertThat(page.get(0).getId()).isEqualTo(all.get(2).getId());
+        assertThat(page.get(1).getId()).isEqualTo(all.get(3).getId());
+    }
+
+    // unit test for streaming the whole table
+    @DisplayName("Junit test for stream all employees")
+    @Test
+    public void givenEmployeesList_whenStreamAll_thenReturnEveryRowInIdOrder() {
+        // given - precondition or setup
+        Employee employee1 = employeeRepository.save(employee);
+        Employee employee2 = employeeRepository.save(Employee.builder()
+                .firstName("john")
+                .lastName("cena")
+                .email("cena@naver.com")
+                .build());
+
+        // when - action or the behavior that we are going to test
+        List<Long> ids;
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            ids = employees.map(Employee::getId).collect(Collectors.toList());
+        }
+
+        // then - verify the output
+        assertThat(ids).containsExactly(employee1.getId(), employee2.getId());
+    }
+
+    // unit test for set based email lookup
+    @DisplayName("Junit test for find existing emails")
+    @Test
+    public void givenSavedEmployee_whenFindExistingEmails_thenReturnOnlyTakenEmails() {
+        // given - precondition or setup
+        employeeRepository.save(employee);
+
+        // when - action or the behavior that we are going to test
+        List<String> existing = employeeRepository.findExistingEmails(List.of(employee.getEmail(), "new@naver.com"));
+
+        // then - verify the output
+        assertThat(existing).containsExactly(employee.getEmail());
+    }
+
+    // unit test for name finders with several matches
+    @DisplayName("Junit test for name finders returning every match")
+    @Test
+    public void givenEmployeesWithSameName_whenFindByName_thenReturnAllMatches() {
+        // given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("seoin2@naver.com")
+                .build());
+
+        // when - action or the behavior that we are going to test
+        List<Employee> byJPQL = employeeRepository.findByJPQL("seoin", "choi");
+        List<Employee> byNativeSQLNamed = employeeRepository.findByNativeSQLNamed("seoin", "choi");
+
+        // then - verify the output
+        assertThat(byJPQL).hasSize(2);
+        assertThat(byNativeSQLNamed).hasSize(2);
+    }
+
+    // unit test for the id + email projection
+    @DisplayName("Junit test for find all summaries")
+    @Test
+    public void givenEmployeesList_whenFindAllSummaries_thenIdAndEmailWithoutManagedEntities() {
+        // given - precondition or setup
+        Employee employee1 = employeeRepository.save(employee);
+        Employee employee2 = employeeRepository.save(Employee.builder()
+                .firstName("john")
+                .lastName("cena")
+                .email("cena@gmail.com")
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // when - action or the behavior that we are going to test
+        List<EmployeeSummary> summaries = employeeRepository.findAllSummaries();
+
+        // then - verify the output
+        assertThat(summaries).extracting(EmployeeSummary::getId).containsExactly(employee1.getId(), employee2.getId());
+        assertThat(summaries).extracting(EmployeeSummary::getEmail).containsExactly("seoin@naver.com", "cena@gmail.com");
+        assertThat(entityManager.getEntityManager().contains(employee1)).isFalse();
+        assertThat(entityManager.find(Employee.class, employee1.getId())).isNotSameAs(employee1);
+    }
+
+    // unit test for the sparse fieldset query
+    @DisplayName("Junit test for find all fields")
+    @Test
+    public void givenEmployeesList_whenFindAllFields_thenOnlyRequestedColumnsInIdOrder() {
+        // given - precondition or setup
+        Employee employee1 = employeeRepository.save(employee);
+        Employee employee2 = employeeRepository.save(Employee.builder()
+                .firstName("john")
+                .lastName("cena")
+                .email("cena@gmail.com")
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // when - action or the behavior that we are going to test
+        List<Object[]> emails = employeeRepository.findAllFields(EmployeeFields.parse("email"));
+        List<Object[]> ids = employeeRepository.findAllFields(EmployeeFields.parse("id"));
+
+        // then - verify the output
+        assertThat(emails).hasSize(2);
+        assertThat(emails.get(0)).containsExactly(employee1.getId(), "seoin@naver.com");
+        assertThat(emails.get(1)).containsExactly(employee2.getId(), "cena@gmail.com");
+        assertThat(ids).extracting(row -> row[0]).containsExactly(employee1.getId(), employee2.getId());
+        assertThat(entityManager.getEntityManager().contains(employee1)).isFalse();
     }
 }
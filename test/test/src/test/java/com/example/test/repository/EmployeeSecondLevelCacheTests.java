@@ -0,0 +1,169 @@
+package com.example.test.repository;
+
+import com.example.test.dto.EmployeePatch;
+import com.example.test.model.Employee;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// every repository call runs in its own transaction here, so only the second level / query cache
+// can avoid the SQL, the persistence context does not survive between calls
+@SpringBootTest
+public class EmployeeSecondLevelCacheTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("seoin@naver.com")
+                .build());
+        statistics.clear();
+    }
+
+    @DisplayName("repeated findById is served by the entity region")
+    @Test
+    public void givenCachedEmployee_whenFindByIdAgain_thenNoSql() {
+        // when - action or the behavior that we are going to test
+        employeeRepository.findById(employee.getId());
+        long statements = statistics.getPrepareStatementCount();
+        Employee reloaded = employeeRepository.findById(employee.getId()).get();
+
+        // then - verify the output
+        assertThat(reloaded.getEmail()).isEqualTo(employee.getEmail());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getDomainDataRegionStatistics(Employee.CACHE_REGION).getHitCount()).isGreaterThan(0);
+    }
+
+    @DisplayName("repeated findByEmail is served by the query cache")
+    @Test
+    public void givenCachedQuery_whenFindByEmailAgain_thenNoSql() {
+        // when - action or the behavior that we are going to test
+        employeeRepository.findByEmail(employee.getEmail());
+        long statements = statistics.getPrepareStatementCount();
+        Employee found = employeeRepository.findByEmail(employee.getEmail()).get();
+
+        // then - verify the output
+        assertThat(found.getId()).isEqualTo(employee.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @DisplayName("repeated name finders are served by the query cache")
+    @Test
+    public void givenCachedQueries_whenNameFindersRunAgain_thenNoSql() {
+        // given - precondition or setup
+        employeeRepository.findByJPQL("seoin", "choi");
+        employeeRepository.findByJPQLNamedParams("seoin", "choi");
+        employeeRepository.findByNativeSQL("seoin", "choi");
+        employeeRepository.findByNativeSQLNamed("seoin", "choi");
+        long statements = statistics.getPrepareStatementCount();
+
+        // when - action or the behavior that we are going to test
+        List<Employee> byJPQL = employeeRepository.findByJPQL("seoin", "choi");
+        List<Employee> byJPQLNamedParams = employeeRepository.findByJPQLNamedParams("seoin", "choi");
+        List<Employee> byNativeSQL = employeeRepository.findByNativeSQL("seoin", "choi");
+        List<Employee> byNativeSQLNamed = employeeRepository.findByNativeSQLNamed("seoin", "choi");
+
+        // then - verify the output
+        assertThat(byJPQL).hasSize(1);
+        assertThat(byJPQLNamedParams).hasSize(1);
+        assertThat(byNativeSQL).hasSize(1);
+        assertThat(byNativeSQLNamed).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @DisplayName("a write to employees invalidates cached query results")
+    @Test
+    public void givenCachedQuery_whenEmployeeSaved_thenQueryRunsAgain() {
+        // given - precondition or setup
+        employeeRepository.findByNativeSQLNamed("seoin", "choi");
+        employeeRepository.save(Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email("seoin2@naver.com")
+                .build());
+        long statements = statistics.getPrepareStatementCount();
+
+        // when - action or the behavior that we are going to test
+        List<Employee> found = employeeRepository.findByNativeSQLNamed("seoin", "choi");
+
+        // then - verify the output
+        assertThat(found).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(statements);
+    }
+
+    @DisplayName("a patch evicts only the patched employee and the cached queries over employees")
+    @Test
+    public void givenCachedEmployees_whenOnePatched_thenOthersStayCached() {
+        // given - precondition or setup
+        Employee other = employeeRepository.save(Employee.builder()
+                .firstName("jiwoo")
+                .lastName("kim")
+                .email("jiwoo@naver.com")
+                .build());
+        employeeRepository.findById(employee.getId());
+        employeeRepository.findById(other.getId());
+        employeeRepository.findByJPQLNamedParams("seoin", "choi");
+
+        // when - action or the behavior that we are going to test
+        transactionTemplate.executeWithoutResult(status ->
+                employeeRepository.patch(employee.getId(), EmployeePatch.of(Map.of("firstName", "seojun"))));
+
+        // then - verify the output
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, other.getId())).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, employee.getId())).isFalse();
+        assertThat(employeeRepository.findByJPQLNamedParams("seoin", "choi")).isEmpty();
+        assertThat(employeeRepository.findById(employee.getId()).get().getFirstName()).isEqualTo("seojun");
+    }
+
+    @DisplayName("a delete evicts only the deleted employee")
+    @Test
+    public void givenCachedEmployees_whenOneDeleted_thenOthersStayCached() {
+        // given - precondition or setup
+        Employee other = employeeRepository.save(Employee.builder()
+                .firstName("jiwoo")
+                .lastName("kim")
+                .email("jiwoo@naver.com")
+                .build());
+        employeeRepository.findById(employee.getId());
+        employeeRepository.findById(other.getId());
+        employeeRepository.findByJPQLNamedParams("seoin", "choi");
+
+        // when - action or the behavior that we are going to test
+        int deleted = employeeRepository.deleteRowById(employee.getId());
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(1);
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, other.getId())).isTrue();
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+        assertThat(employeeRepository.findByJPQLNamedParams("seoin", "choi")).isEmpty();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.test.service;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import com.example.test.service.support.EmployeeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// readers hammer getEmployeeById while one writer keeps updating the same employee :
+// once an update returned, no read that starts afterwards may see an older version
+@SpringBootTest
+public class EmployeeCacheConsistencyTests {
+
+    private static final int READERS = 8;
+    private static final int UPDATES = 100;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeCache employeeCache;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+        employeeCache.invalidateAll();
+    }
+
+    @DisplayName("an update is never followed by a stale read")
+    @Test
+    public void givenConcurrentReadersAndWriter_whenUpdateEmployee_thenNoStaleRead() throws Exception {
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("v0")
+                .lastName("choi")
+                .email("seoin@naver.com")
+                .build());
+        long id = employee.getId();
+
+        AtomicInteger committed = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger staleReads = new AtomicInteger();
+        AtomicInteger reads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(executor.submit(() -> {
+                    while (!done.get()) {
+                        int floor = committed.get();
+                        Employee read = employeeService.getEmployeeById(id).get();
+                        int version = Integer.parseInt(read.getFirstName().substring(1));
+                        if (version < floor) {
+                            staleReads.incrementAndGet();
+                        }
+                        reads.incrementAndGet();
+                        Thread.yield();
+                    }
+                    return null;
+                }));
+            }
+
+            for (int v = 1; v <= UPDATES; v++) {
+                Employee changed = employeeService.getEmployeeById(id).get();
+                changed.setFirstName("v" + v);
+                employeeService.updateEmployee(changed);
+                committed.set(v);
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(reads.get()).isGreaterThan(0);
+        assertThat(staleReads.get()).isZero();
+        assertThat(employeeService.getEmployeeById(id).get().getFirstName()).isEqualTo("v" + UPDATES);
+        assertThat(employeeCache.stats().hitCount()).isGreaterThan(0);
+    }
+}
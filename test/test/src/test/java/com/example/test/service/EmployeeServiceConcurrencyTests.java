@@ -0,0 +1,83 @@
+package com.example.test.service;
+
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.model.Employee;
+import com.example.test.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// saveEmployee against a real database : the unique email index must win every race
+@SpringBootTest
+public class EmployeeServiceConcurrencyTests {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("concurrent creates with the same email store exactly one employee")
+    @Test
+    public void givenConcurrentCreatesWithSameEmail_whenSaveEmployee_thenOnlyOneSucceeds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String email = "race" + round + "@naver.com";
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger created = new AtomicInteger();
+                AtomicInteger conflicts = new AtomicInteger();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    int thread = t;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            employeeService.saveEmployee(Employee.builder()
+                                    .firstName("seoin" + thread)
+                                    .lastName("choi")
+                                    .email(email)
+                                    .build());
+                            created.incrementAndGet();
+                        } catch (DuplicateEmailException e) {
+                            conflicts.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+
+                assertThat(created.get()).isEqualTo(1);
+                assertThat(conflicts.get()).isEqualTo(THREADS - 1);
+                assertThat(employeeRepository.findByEmail(email)).isPresent();
+            }
+            assertThat(employeeRepository.count()).isEqualTo(ROUNDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
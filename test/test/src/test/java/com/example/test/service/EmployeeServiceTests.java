@@ -1,9 +1,19 @@
 package com.example.test.service;
 
-import com.example.test.exception.ResourceNotFoundException;
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeDeleteResult;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeeSummary;
+import com.example.test.exception.InvalidCursorException;
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.exception.StaleEmployeeException;
 import com.example.test.model.Employee;
 import com.example.test.repository.EmployeeRepository;
 import com.example.test.service.impl.EmployeeServiceImpl;
+import com.example.test.service.support.EmployeeCache;
+import com.example.test.service.support.EmployeeCursor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -14,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
@@ -21,12 +32,23 @@ import static org.mockito.Mockito.*;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTests {
@@ -34,6 +56,15 @@ public class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private EmployeeCache employeeCache = new EmployeeCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -57,15 +88,14 @@ public class EmployeeServiceTests {
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
         // 레포지터리 관련된 것들에 stubbing 이 필요하다고 함 -> return 해줄 것
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.empty());
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         // when - action or the behavior that we are going to test
         Employee savedEmployee = employeeService.saveEmployee(employee);
 
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(anyString());
     }
 
     @DisplayName("Junit test for saveEmployee method throw exception")
@@ -73,16 +103,124 @@ public class EmployeeServiceTests {
     public void givenExistingEmail_whenSaveEmployee_thenThrowsException() {
         // 레포지터리 관련된 것들에 stubbing 이 필요하다고 함 -> return 해줄 것
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("duplicate",
+                        new ConstraintViolationException("duplicate", null, "PUBLIC.UX_EMPLOYEES_EMAIL_INDEX_1")));
+
+        // when - action or the behavior that we are going to test
+        Assertions.assertThrows(DuplicateEmailException.class, () -> {
+            employeeService.saveEmployee(employee);
+        });
+
+        // then - verify the output
+        verify(employeeRepository, never()).findByEmail(anyString());
+    }
+
+    @DisplayName("Junit test for saveEmployee method rethrows other constraint violations")
+    @Test
+    public void givenNullFirstName_whenSaveEmployee_thenRethrowsIntegrityViolation() {
+        // given - precondition or setup
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("not null",
+                        new ConstraintViolationException("not null", null, null)));
 
         // when - action or the behavior that we are going to test
-        Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
             employeeService.saveEmployee(employee);
         });
+    }
+
+    // unit test for saveEmployees method
+    @DisplayName("Junit test for saveEmployees method")
+    @Test
+    public void givenEmployeesWithDuplicates_whenSaveEmployees_thenReportCreatedAndConflict() {
+        // given - precondition or setup
+        Employee fresh = Employee.builder().firstName("inseo").lastName("choi").email("inseo@naver.com").build();
+        Employee sameEmail = Employee.builder().firstName("namu").lastName("choi").email("inseo@naver.com").build();
+        given(employeeRepository.findExistingEmails(List.of(employee.getEmail(), fresh.getEmail())))
+                .willReturn(List.of(employee.getEmail()));
+        given(employeeRepository.save(fresh)).willReturn(fresh);
+
+        // when - action or the behavior that we are going to test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee, fresh, sameEmail));
 
         // then - verify the output
-        verify(employeeRepository, never()).save(any(Employee.class));
+        assertThat(results).extracting(EmployeeBatchResult::getStatus).containsExactly(
+                EmployeeBatchResult.Status.CONFLICT,
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.CONFLICT);
+        verify(employeeRepository, times(1)).save(any(Employee.class));
+        verify(employeeRepository, never()).findByEmail(anyString());
+    }
+
+    // unit test for saveEmployees method - emails differing only in case
+    @DisplayName("Junit test for saveEmployees method compares emails case insensitively")
+    @Test
+    public void givenEmailsDifferingInCase_whenSaveEmployees_thenConflict() {
+        // given - precondition or setup
+        Employee upperCase = Employee.builder().firstName("seoin").lastName("choi").email(" Seoin@Naver.com").build();
+        Employee fresh = Employee.builder().firstName("inseo").lastName("choi").email("Inseo@naver.com").build();
+        Employee lowerCase = Employee.builder().firstName("namu").lastName("choi").email("inseo@naver.com").build();
+        given(employeeRepository.findExistingEmails(List.of("seoin@naver.com", "inseo@naver.com")))
+                .willReturn(List.of("SEOIN@naver.com"));
+        given(employeeRepository.save(fresh)).willReturn(fresh);
+
+        // when - action or the behavior that we are going to test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(upperCase, fresh, lowerCase));
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBatchResult::getStatus).containsExactly(
+                EmployeeBatchResult.Status.CONFLICT,
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.CONFLICT);
+    }
+
+    // unit test for saveEmployees method - an email created concurrently after the lookup
+    @DisplayName("Junit test for saveEmployees method retries after a concurrent create of the same email")
+    @Test
+    public void givenConcurrentCreate_whenSaveEmployees_thenRetriedAndConflict() {
+        // given - precondition or setup
+        Employee fresh = Employee.builder().firstName("inseo").lastName("choi").email("inseo@naver.com").build();
+        List<String> emails = List.of(employee.getEmail(), fresh.getEmail());
+        given(employeeRepository.findExistingEmails(emails))
+                .willReturn(List.of())
+                .willReturn(List.of(fresh.getEmail()));
+        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.save(fresh)).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, Employee.EMAIL_INDEX)));
+
+        // when - action or the behavior that we are going to test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee, fresh));
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBatchResult::getStatus).containsExactly(
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.CONFLICT);
+        verify(employeeRepository, times(2)).save(employee);
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    // unit test for saveEmployees method - collisions on every attempt
+    @DisplayName("Junit test for saveEmployees method falls back to one insert per employee")
+    @Test
+    public void givenCollisionOnEveryAttempt_whenSaveEmployees_thenOneByOne() {
+        // given - precondition or setup
+        Employee fresh = Employee.builder().firstName("inseo").lastName("choi").email("inseo@naver.com").build();
+        DataIntegrityViolationException duplicate = new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, Employee.EMAIL_INDEX));
+        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.save(fresh)).willThrow(duplicate);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(fresh)).willThrow(duplicate);
+
+        // when - action or the behavior that we are going to test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee, fresh));
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBatchResult::getStatus).containsExactly(
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.CONFLICT);
+        verify(employeeRepository, times(EmployeeServiceImpl.BATCH_ATTEMPTS)).save(fresh);
     }
 
     // unit test for get all employees - positive scenario
@@ -124,6 +262,102 @@ public class EmployeeServiceTests {
         assertThat(employeeList.size()).isEqualTo(0);
     }
 
+    // unit test for the summary listing
+    @DisplayName("Junit test for get employee summaries method")
+    @Test
+    public void givenEmployeesList_whenGetEmployeeSummaries_thenReturnProjection() {
+        // given - precondition or setup
+        given(employeeRepository.findAllSummaries())
+                .willReturn(List.of(new EmployeeSummary(1L, "seoin@naver.com")));
+
+        // when - action or the behavior that we are going to test
+        List<EmployeeSummary> summaries = employeeService.getEmployeeSummaries();
+
+        // then - verify the output
+        assertThat(summaries).extracting(EmployeeSummary::getEmail).containsExactly("seoin@naver.com");
+        verify(employeeRepository, never()).findAll();
+    }
+
+    // unit test for the sparse fieldset listing
+    @DisplayName("Junit test for get employees with fields method")
+    @Test
+    public void givenFields_whenGetEmployees_thenReturnRequestedFieldsOnly() {
+        // given - precondition or setup
+        EmployeeFields fields = EmployeeFields.parse("lastName,email");
+        given(employeeRepository.findAllFields(fields))
+                .willReturn(List.<Object[]>of(new Object[]{1L, "choi", "seoin@naver.com"}));
+
+        // when - action or the behavior that we are going to test
+        List<Map<String, Object>> views = employeeService.getEmployees(fields);
+
+        // then - verify the output
+        assertThat(views).containsExactly(Map.of("lastName", "choi", "email", "seoin@naver.com"));
+        assertThat(EmployeeFields.parse("lastName,email")).isSameAs(fields);
+        verify(employeeRepository, never()).findAll();
+    }
+
+    // unit test for keyset page - more rows than the page size
+    @DisplayName("Junit test for get employee page method - has next")
+    @Test
+    public void givenMoreRowsThanPageSize_whenGetEmployeePage_thenReturnNextCursor() {
+        // given - precondition or setup
+        Employee employee1 = Employee.builder().id(2L).firstName("inseo").lastName("choi").email("inseo@naver.com").build();
+        Employee employee2 = Employee.builder().id(3L).firstName("namu").lastName("choi").email("namu@naver.com").build();
+        given(employeeRepository.findPageAfter(0L, PageRequest.of(0, 3)))
+                .willReturn(List.of(employee, employee1, employee2));
+
+        // when - action or the behavior that we are going to test
+        EmployeePage page = employeeService.getEmployeePage(null, 2);
+
+        // then - verify the output
+        assertThat(page.getContent()).containsExactly(employee, employee1);
+        assertThat(EmployeeCursor.decode(page.getNextCursor())).isEqualTo(2L);
+    }
+
+    // unit test for keyset page - last page, oversized request is clamped
+    @DisplayName("Junit test for get employee page method - last page")
+    @Test
+    public void givenOversizedPageSize_whenGetEmployeePage_thenClampAndReturnNoCursor() {
+        // given - precondition or setup
+        given(employeeRepository.findPageAfter(eq(1L), eq(PageRequest.of(0, EmployeeServiceImpl.MAX_PAGE_SIZE + 1))))
+                .willReturn(Collections.emptyList());
+
+        // when - action or the behavior that we are going to test
+        EmployeePage page = employeeService.getEmployeePage(EmployeeCursor.encode(1L), 100_000);
+
+        // then - verify the output
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @DisplayName("Junit test for get employee page method throw exception")
+    @Test
+    public void givenMalformedCursor_whenGetEmployeePage_thenThrowsException() {
+        Assertions.assertThrows(InvalidCursorException.class, () -> {
+            employeeService.getEmployeePage("not-a-cursor", 10);
+        });
+
+        verify(employeeRepository, never()).findPageAfter(anyLong(), any());
+    }
+
+    // unit test for export method
+    @DisplayName("Junit test for export employees method")
+    @Test
+    public void givenEmployeesStream_whenExportEmployees_thenConsumeAndDetachEachRow() {
+        // given - precondition or setup
+        Employee employee1 = Employee.builder().id(2L).firstName("inseo").lastName("choi").email("inseo@naver.com").build();
+        given(employeeRepository.streamAll()).willReturn(Stream.of(employee, employee1));
+        List<Employee> exported = new ArrayList<>();
+
+        // when - action or the behavior that we are going to test
+        employeeService.exportEmployees(exported::add);
+
+        // then - verify the output
+        assertThat(exported).containsExactly(employee, employee1);
+        verify(entityManager).detach(employee);
+        verify(entityManager).detach(employee1);
+    }
+
     // unit test for get employee by id
     @DisplayName("Junit test for get employee by id method")
     @Test
@@ -139,6 +373,145 @@ public class EmployeeServiceTests {
         assertThat(foundEmployee).isNotNull();
     }
 
+    // unit test for get employee by id - second read is served by the cache
+    @DisplayName("Junit test for get employee by id method - cached")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenRepositoryIsHitOnce() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L))
+                .willReturn(Optional.of(employee));
+
+        // when - action or the behavior that we are going to test
+        Employee first = employeeService.getEmployeeById(1L).get();
+        Employee second = employeeService.getEmployeeById(1L).get();
+
+        // then - verify the output
+        assertThat(second.getEmail()).isEqualTo(first.getEmail());
+        verify(employeeRepository, times(1)).findById(1L);
+        assertThat(employeeCache.stats().hitCount()).isEqualTo(1);
+        assertThat(employeeCache.stats().missCount()).isEqualTo(1);
+    }
+
+    // unit test for get employee by id - missing ids are cached until a write touches them
+    @DisplayName("Junit test for get employee by id method - negative cache")
+    @Test
+    public void givenMissingEmployee_whenGetEmployeeByIdTwiceAndSave_thenMissIsCachedUntilSave() {
+        // given - precondition or setup
+        given(employeeRepository.findById(1L))
+                .willReturn(Optional.empty(), Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+
+        // when - action or the behavior that we are going to test
+        Optional<Employee> missing = employeeService.getEmployeeById(1L);
+        Optional<Employee> stillMissing = employeeService.getEmployeeById(1L);
+        employeeService.saveEmployee(employee);
+        Optional<Employee> found = employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(missing).isEmpty();
+        assertThat(stillMissing).isEmpty();
+        assertThat(found).isPresent();
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    // unit test for update method - the cached copy is dropped
+    @DisplayName("Junit test for update method - invalidates cache")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenNextReadReloads() {
+        // given - precondition or setup
+        Employee updated = employee.toBuilder().firstName("namu").build();
+        given(employeeRepository.findById(1L))
+                .willReturn(Optional.of(employee), Optional.of(updated));
+        given(employeeRepository.save(updated)).willReturn(updated);
+        employeeService.getEmployeeById(1L);
+
+        // when - action or the behavior that we are going to test
+        employeeService.updateEmployee(updated);
+        Employee reloaded = employeeService.getEmployeeById(1L).get();
+
+        // then - verify the output
+        assertThat(reloaded.getFirstName()).isEqualTo("namu");
+        verify(employeeCache).invalidate(1L);
+    }
+
+    // unit test for update method - negative scenario
+    @DisplayName("Junit test for update method with a stale version")
+    @Test
+    public void givenStaleVersion_whenUpdateEmployee_thenThrowsException() {
+        // given - precondition or setup
+        given(employeeRepository.save(employee))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L));
+
+        // when - action or the behavior that we are going to test
+        Assertions.assertThrows(StaleEmployeeException.class, () -> employeeService.updateEmployee(employee));
+
+        // then - verify the output
+        verify(employeeCache).invalidate(1L);
+    }
+
+    // unit test for update method - negative scenario
+    @DisplayName("Junit test for update method with an email another employee has")
+    @Test
+    public void givenTakenEmail_whenUpdateEmployee_thenThrowsException() {
+        // given - precondition or setup
+        given(employeeRepository.save(employee)).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, Employee.EMAIL_INDEX)));
+
+        // when - action or the behavior that we are going to test
+        Assertions.assertThrows(DuplicateEmailException.class, () -> employeeService.updateEmployee(employee));
+
+        // then - verify the output
+        verify(employeeCache, never()).invalidate(anyLong());
+    }
+
+    // unit test for patch method
+    @DisplayName("Junit test for patch method")
+    @Test
+    public void givenMergePatch_whenPatchEmployee_thenSingleUpdateAndCacheInvalidated() {
+        // given - precondition or setup
+        EmployeePatch patch = EmployeePatch.of(Collections.singletonMap("firstName", "namu"));
+        given(employeeRepository.patch(1L, patch)).willReturn(1);
+
+        // when - action or the behavior that we are going to test
+        boolean patched = employeeService.patchEmployee(1L, patch);
+
+        // then - verify the output
+        assertThat(patched).isTrue();
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(employeeCache).invalidate(1L);
+    }
+
+    // unit test for patch method - negative scenario
+    @DisplayName("Junit test for patch method which throws exception")
+    @Test
+    public void givenDuplicateEmailPatch_whenPatchEmployee_thenThrowsException() {
+        // given - precondition or setup
+        EmployeePatch patch = EmployeePatch.of(Collections.singletonMap("email", "taken@naver.com"));
+        given(employeeRepository.patch(1L, patch)).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, Employee.EMAIL_INDEX)));
+
+        // when - action or the behavior that we are going to test
+        Assertions.assertThrows(DuplicateEmailException.class, () -> employeeService.patchEmployee(1L, patch));
+
+        // then - verify the output
+        verify(employeeCache, never()).invalidate(1L);
+    }
+
+    // unit test for find by name method
+    @DisplayName("Junit test for find employees by name method")
+    @Test
+    public void givenName_whenFindEmployeesByName_thenReturnEmployeesList() {
+        // given - precondition or setup
+        given(employeeRepository.findByJPQLNamedParams("seoin", "choi"))
+                .willReturn(List.of(employee));
+
+        // when - action or the behavior that we are going to test
+        List<Employee> employeeList = employeeService.findEmployeesByName("seoin", "choi");
+
+        // then - verify the output
+        assertThat(employeeList).containsExactly(employee);
+    }
+
     // unit test for update method
     @DisplayName("Junit test for update method")
     @Test
@@ -162,12 +535,74 @@ public class EmployeeServiceTests {
     @Test
     public void givenId_whenDeleteById_thenReturnNothing() {
         // given - precondition or setup
-        willDoNothing().given(employeeRepository).deleteById(1L);
+        given(employeeRepository.deleteRowById(1L)).willReturn(1);
         long employeeId = 1L;
         // when - action or the behavior that we are going to test
-        employeeService.deleteEmployee(employeeId);
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+
+        // then - verify the output
+        assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteRowById(employeeId);
+        verify(employeeRepository, never()).deleteById(anyLong());
+        verify(employeeCache).invalidate(employeeId);
+    }
+
+    // unit test for delete method - negative scenario
+    @DisplayName("Junit test for delete method with missing id")
+    @Test
+    public void givenMissingId_whenDeleteById_thenReturnFalse() {
+        // given - precondition or setup
+        given(employeeRepository.deleteRowById(1L)).willReturn(0);
+
+        // when - action or the behavior that we are going to test
+        boolean deleted = employeeService.deleteEmployee(1L);
+
+        // then - verify the output
+        assertThat(deleted).isFalse();
+    }
+
+    // unit test for bulk delete method
+    @DisplayName("Junit test for bulk delete by ids in chunks")
+    @Test
+    public void givenIds_whenDeleteEmployees_thenOneDeletePerChunk() {
+        // given - precondition or setup
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= EmployeeServiceImpl.DELETE_CHUNK * 2 + 1; id++) {
+            ids.add(id);
+        }
+        ids.add(1L);
+        given(employeeRepository.deleteRowsByIds(any())).willAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+        // when - action or the behavior that we are going to test
+        EmployeeDeleteResult result = employeeService.deleteEmployees(ids);
+
+        // then - verify the output
+        assertThat(result.getDeleted()).isEqualTo(EmployeeServiceImpl.DELETE_CHUNK * 2 + 1);
+        verify(employeeRepository, times(3)).deleteRowsByIds(any());
+    }
+
+    // unit test for bulk delete method
+    @DisplayName("Junit test for bulk delete by name in chunks")
+    @Test
+    public void givenName_whenDeleteEmployeesByName_thenWalkIdsUntilShortChunk() {
+        // given - precondition or setup
+        List<Long> fullChunk = new ArrayList<>();
+        for (long id = 1; id <= EmployeeServiceImpl.DELETE_CHUNK; id++) {
+            fullChunk.add(id);
+        }
+        given(employeeRepository.findIdsByNameAfter(0L, "choi", null, PageRequest.of(0, EmployeeServiceImpl.DELETE_CHUNK)))
+                .willReturn(fullChunk);
+        given(employeeRepository.findIdsByNameAfter((long) EmployeeServiceImpl.DELETE_CHUNK, "choi", null,
+                PageRequest.of(0, EmployeeServiceImpl.DELETE_CHUNK)))
+                .willReturn(List.of(1000L));
+        given(employeeRepository.deleteRowsByIds(any())).willAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+
+        // when - action or the behavior that we are going to test
+        EmployeeDeleteResult result = employeeService.deleteEmployeesByName("choi", null);
 
         // then - verify the output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        assertThat(result.getDeleted()).isEqualTo(EmployeeServiceImpl.DELETE_CHUNK + 1);
+        verify(employeeRepository, times(2)).deleteRowsByIds(any());
+        verify(employeeCache).invalidate(1000L);
     }
 }
@@ -0,0 +1,93 @@
+package com.example.test.service;
+
+import com.example.test.model.Employee;
+import com.example.test.repository.ReactiveEmployeeRepository;
+import com.example.test.service.support.EmployeeWriteBehind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the servlet only features are switched on as well, the reactive profile must start without them
+@SpringBootTest(properties = {"spring.main.web-application-type=reactive", "employee.write-behind.enabled=true"})
+@ActiveProfiles("reactive")
+public class ReactiveEmployeeServiceTests {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ReactiveEmployeeService employeeService;
+
+    @Autowired
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.deleteAll().block();
+    }
+
+    @DisplayName("ids stay unique across sequence blocks")
+    @Test
+    public void givenMoreThanOneBlock_whenSaveEmployees_thenIdsUnique() {
+        // when - action or the behavior that we are going to test
+        List<Employee> saved = Flux.range(0, Employee.ID_ALLOCATION * 2 + 5)
+                .flatMap(i -> employeeService.saveEmployee(Employee.builder()
+                        .firstName("seoin")
+                        .lastName("choi")
+                        .email("seoin" + i + "@naver.com")
+                        .build()), 8)
+                .collectList()
+                .block();
+
+        // then - verify the output
+        Set<Long> ids = saved.stream().map(Employee::getId).collect(Collectors.toSet());
+        assertThat(ids).hasSize(Employee.ID_ALLOCATION * 2 + 5);
+        assertThat(employeeRepository.count().block()).isEqualTo(Employee.ID_ALLOCATION * 2 + 5);
+    }
+
+    @DisplayName("the listing only emits as many rows as the subscriber asked for")
+    @Test
+    public void givenEmployees_whenGetAllEmployeesWithSmallDemand_thenBackpressure() {
+        // given - precondition or setup
+        Flux.range(0, 10)
+                .concatMap(i -> employeeService.saveEmployee(Employee.builder()
+                        .firstName("seoin")
+                        .lastName("choi")
+                        .email("seoin" + i + "@naver.com")
+                        .build()))
+                .blockLast();
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        StepVerifier.create(employeeService.getAllEmployees(), 2)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .thenCancel()
+                .verify();
+    }
+
+    @DisplayName("write-behind stays off in the reactive profile, it needs the blocking EmployeeService")
+    @Test
+    public void givenWriteBehindEnabled_whenReactiveProfile_thenNoWriteBehind() {
+        // when - action or the behavior that we are going to test
+        String[] writeBehind = applicationContext.getBeanNamesForType(EmployeeWriteBehind.class);
+
+        // then - verify the output
+        assertThat(writeBehind).isEmpty();
+    }
+}
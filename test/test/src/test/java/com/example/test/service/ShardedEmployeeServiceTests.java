@@ -0,0 +1,273 @@
+package com.example.test.service;
+
+import com.example.test.datasource.EmailDirectory;
+import com.example.test.datasource.EmployeeShards;
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeFields;
+import com.example.test.dto.EmployeePage;
+import com.example.test.dto.EmployeePatch;
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.exception.StaleEmployeeException;
+import com.example.test.model.Employee;
+import com.example.test.service.impl.ShardedEmployeeServiceImpl;
+import com.example.test.service.support.EmployeeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// three in-memory H2 shards and a directory database, see employee.shards.* in the test config/application.properties
+@SpringBootTest(properties = "employee.shards.enabled=true")
+public class ShardedEmployeeServiceTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeShards shards;
+
+    @Autowired
+    private EmailDirectory emailDirectory;
+
+    @Autowired
+    private EmployeeCache employeeCache;
+
+    @BeforeEach
+    public void setup() {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            shards.jdbc(shard).update("DELETE FROM employees");
+        }
+        new JdbcTemplate(emailDirectory.getDataSource()).update("DELETE FROM employee_email_directory");
+        employeeCache.invalidateAll();
+    }
+
+    @DisplayName("the sharded implementation replaces EmployeeServiceImpl")
+    @Test
+    public void givenShardsEnabled_whenInjected_thenShardedService() {
+        // then - verify the output
+        assertThat(employeeService).isInstanceOf(ShardedEmployeeServiceImpl.class);
+        assertThat(shards.count()).isEqualTo(3);
+    }
+
+    @DisplayName("an id carries the shard its row was written to")
+    @Test
+    public void givenEmployees_whenSaveEmployee_thenIdEncodesShard() {
+        // when - action or the behavior that we are going to test
+        List<Employee> saved = IntStream.range(0, 30)
+                .mapToObj(i -> employeeService.saveEmployee(employee("seoin" + i + "@naver.com")))
+                .collect(Collectors.toList());
+
+        // then - verify the output
+        for (Employee employee : saved) {
+            int shard = shards.shardOf(employee.getId());
+            assertThat(shard).isEqualTo(shards.shardFor(employee.getEmail()));
+            assertThat(shards.jdbc(shard).queryForObject("SELECT email FROM employees WHERE id = ?", String.class, employee.getId()))
+                    .isEqualTo(employee.getEmail());
+            assertThat(employeeService.getEmployeeById(employee.getId())).get()
+                    .extracting(Employee::getEmail)
+                    .isEqualTo(employee.getEmail());
+        }
+        // thirty emails do not all hash to one of three shards
+        assertThat(saved.stream().map(employee -> shards.shardOf(employee.getId())).collect(Collectors.toSet())).hasSize(3);
+        assertThat(employeeService.getEmployeeById(123L << EmployeeShards.SHARD_BITS | 7)).isEmpty();
+    }
+
+    @DisplayName("an email is unique across all shards, whatever its case")
+    @Test
+    public void givenSavedEmployee_whenSaveSameEmailOtherCase_thenDuplicateEmailException() {
+        // given - precondition or setup
+        employeeService.saveEmployee(employee("Seoin@Naver.com"));
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        assertThatThrownBy(() -> employeeService.saveEmployee(employee("seoin@naver.com")))
+                .isInstanceOf(DuplicateEmailException.class);
+        assertThat(employeeService.getAllEmployees()).hasSize(1);
+    }
+
+    @DisplayName("a batch creates new emails on their shards and reports taken and repeated ones as conflicts")
+    @Test
+    public void givenBatchWithConflicts_whenSaveEmployees_thenCreatedAndConflicts() {
+        // given - precondition or setup
+        employeeService.saveEmployee(employee("taken@naver.com"));
+        List<Employee> batch = new ArrayList<>();
+        IntStream.range(0, 20).forEach(i -> batch.add(employee("batch" + i + "@naver.com")));
+        batch.add(employee("TAKEN@naver.com"));
+        batch.add(employee("batch0@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(batch);
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBatchResult::getIndex)
+                .containsExactlyElementsOf(IntStream.range(0, 22).boxed().collect(Collectors.toList()));
+        assertThat(results.subList(0, 20)).allMatch(result -> result.getStatus() == EmployeeBatchResult.Status.CREATED);
+        assertThat(results.subList(20, 22)).allMatch(result -> result.getStatus() == EmployeeBatchResult.Status.CONFLICT);
+        assertThat(employeeService.getAllEmployees()).hasSize(21);
+        for (EmployeeBatchResult result : results.subList(0, 20)) {
+            assertThat(shards.shardOf(result.getEmployee().getId())).isEqualTo(shards.shardFor(result.getEmployee().getEmail()));
+        }
+    }
+
+    @DisplayName("a shard that fails reports its rows as FAILED, the rows other shards committed stay CREATED")
+    @Test
+    public void givenFailingShard_whenSaveEmployees_thenFailedOnlyForThatShard() {
+        // given - precondition or setup
+        List<Employee> batch = IntStream.range(0, 20)
+                .mapToObj(i -> employee("batch" + i + "@naver.com"))
+                .collect(Collectors.toList());
+        // a row the directory does not know about : the unique index of its shard rejects that shard's batch
+        int failing = shards.shardFor("batch0@naver.com");
+        shards.jdbc(failing).update("INSERT INTO employees (id, first_name, last_name, email, version) VALUES (?, 'stray', 'choi', ?, 0)",
+                shards.nextId(failing), "batch0@naver.com");
+
+        // when - action or the behavior that we are going to test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(batch);
+
+        // then - verify the output
+        for (EmployeeBatchResult result : results) {
+            boolean onFailing = shards.shardFor(result.getEmployee().getEmail()) == failing;
+            assertThat(result.getStatus())
+                    .isEqualTo(onFailing ? EmployeeBatchResult.Status.FAILED : EmployeeBatchResult.Status.CREATED);
+        }
+        long created = results.stream().filter(result -> result.getStatus() == EmployeeBatchResult.Status.CREATED).count();
+        assertThat(created).isBetween(1L, 19L);
+        assertThat(employeeService.getAllEmployees()).hasSize((int) created + 1);
+        // the failed rows gave their emails back, only the stray row is in the way of a retry
+        Employee retried = results.stream()
+                .filter(result -> result.getStatus() == EmployeeBatchResult.Status.FAILED)
+                .map(EmployeeBatchResult::getEmployee)
+                .filter(employee -> !employee.getEmail().equals("batch0@naver.com"))
+                .findFirst().orElseThrow();
+        assertThat(employeeService.saveEmployee(retried).getId()).isNotNull();
+    }
+
+    @DisplayName("the listing and the name finder merge every shard in id order")
+    @Test
+    public void givenEmployeesOnAllShards_whenGetAllAndFindByName_thenMergedById() {
+        // given - precondition or setup
+        IntStream.range(0, 30).forEach(i -> employeeService.saveEmployee(Employee.builder()
+                .firstName(i % 2 == 0 ? "seoin" : "minsu")
+                .lastName("choi")
+                .email("seoin" + i + "@naver.com")
+                .build()));
+
+        // when - action or the behavior that we are going to test
+        List<Employee> all = employeeService.getAllEmployees();
+        List<Employee> found = employeeService.findEmployeesByName("seoin", "choi");
+
+        // then - verify the output
+        assertThat(all).hasSize(30).isSortedAccordingTo((a, b) -> Long.compare(a.getId(), b.getId()));
+        assertThat(found).hasSize(15)
+                .allMatch(employee -> employee.getFirstName().equals("seoin"))
+                .isSortedAccordingTo((a, b) -> Long.compare(a.getId(), b.getId()));
+        assertThat(found.stream().map(employee -> shards.shardOf(employee.getId())).collect(Collectors.toSet())).hasSizeGreaterThan(1);
+    }
+
+    @DisplayName("a sparse fieldset merges only the requested columns of every shard in id order")
+    @Test
+    public void givenEmployeesOnAllShards_whenGetEmployeesWithFields_thenRequestedFieldsById() {
+        // given - precondition or setup
+        IntStream.range(0, 20).forEach(i -> employeeService.saveEmployee(employee("seoin" + i + "@naver.com")));
+
+        // when - action or the behavior that we are going to test
+        List<Map<String, Object>> views = employeeService.getEmployees(EmployeeFields.parse("email"));
+
+        // then - verify the output
+        assertThat(views).extracting(view -> view.get("email"))
+                .containsExactlyElementsOf(employeeService.getAllEmployees().stream().map(Employee::getEmail).collect(Collectors.toList()));
+        assertThat(views).allMatch(view -> view.keySet().equals(Set.of("email")));
+    }
+
+    @DisplayName("keyset pages walk every shard once, in id order")
+    @Test
+    public void givenEmployeesOnAllShards_whenPaging_thenEveryRowOnce() {
+        // given - precondition or setup
+        IntStream.range(0, 25).forEach(i -> employeeService.saveEmployee(employee("seoin" + i + "@naver.com")));
+
+        // when - action or the behavior that we are going to test
+        List<Employee> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            EmployeePage page = employeeService.getEmployeePage(cursor, 10);
+            walked.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // then - verify the output
+        assertThat(pages).isEqualTo(3);
+        assertThat(walked).extracting(Employee::getId)
+                .containsExactlyElementsOf(employeeService.getAllEmployees().stream().map(Employee::getId).collect(Collectors.toList()));
+    }
+
+    @DisplayName("changing an email moves its directory entry, a stale version is rejected")
+    @Test
+    public void givenEmployee_whenUpdateEmail_thenOldEmailFreeAndStaleRejected() {
+        // given - precondition or setup
+        Employee saved = employeeService.saveEmployee(employee("seoin@naver.com"));
+        employeeService.saveEmployee(employee("other@naver.com"));
+        Employee changed = saved.toBuilder().email("seoin@gmail.com").build();
+
+        // when - action or the behavior that we are going to test
+        Employee updated = employeeService.updateEmployee(changed);
+
+        // then - verify the output
+        assertThat(updated.getVersion()).isEqualTo(1);
+        assertThat(emailDirectory.findTaken(Set.of("seoin@naver.com", "seoin@gmail.com"))).containsExactly("seoin@gmail.com");
+        assertThat(employeeService.saveEmployee(employee("seoin@naver.com")).getId()).isNotEqualTo(saved.getId());
+        assertThatThrownBy(() -> employeeService.updateEmployee(changed.toBuilder().email("seoin@daum.net").build()))
+                .isInstanceOf(StaleEmployeeException.class);
+        assertThatThrownBy(() -> employeeService.patchEmployee(saved.getId(), EmployeePatch.of(Map.of("email", "OTHER@naver.com"))))
+                .isInstanceOf(DuplicateEmailException.class);
+        assertThat(emailDirectory.findTaken(Set.of("seoin@daum.net"))).isEmpty();
+    }
+
+    @DisplayName("deletes on any shard give the email back")
+    @Test
+    public void givenEmployees_whenDelete_thenEmailsReleased() {
+        // given - precondition or setup
+        List<Employee> saved = IntStream.range(0, 12)
+                .mapToObj(i -> employeeService.saveEmployee(Employee.builder()
+                        .firstName("seoin")
+                        .lastName(i < 6 ? "choi" : "kim")
+                        .email("seoin" + i + "@naver.com")
+                        .build()))
+                .collect(Collectors.toList());
+
+        // when - action or the behavior that we are going to test
+        boolean deleted = employeeService.deleteEmployee(saved.get(0).getId());
+        long deletedByIds = employeeService.deleteEmployees(List.of(saved.get(1).getId(), saved.get(2).getId(), 999L)).getDeleted();
+        long deletedByName = employeeService.deleteEmployeesByName("choi", null).getDeleted();
+
+        // then - verify the output
+        assertThat(deleted).isTrue();
+        assertThat(deletedByIds).isEqualTo(2);
+        assertThat(deletedByName).isEqualTo(3);
+        assertThat(employeeService.getAllEmployees()).hasSize(6).allMatch(employee -> employee.getLastName().equals("kim"));
+        assertThat(new JdbcTemplate(emailDirectory.getDataSource())
+                .queryForObject("SELECT COUNT(*) FROM employee_email_directory", Long.class)).isEqualTo(6);
+        assertThat(employeeService.saveEmployee(employee("seoin0@naver.com"))).isNotNull();
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email(email)
+                .build();
+    }
+}
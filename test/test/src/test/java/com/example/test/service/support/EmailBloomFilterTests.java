@@ -0,0 +1,70 @@
+package com.example.test.service.support;
+
+import com.example.test.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailBloomFilterTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailBloomFilter emailFilter;
+
+    @BeforeEach
+    public void setup() {
+        emailFilter = new EmailBloomFilter(employeeRepository, transactionManager, 10_000, 0.01);
+    }
+
+    @DisplayName("Junit test for bloom filter before it is loaded")
+    @Test
+    public void givenNotLoadedFilter_whenMightContain_thenAlwaysTrue() {
+        assertThat(emailFilter.isReady()).isFalse();
+        assertThat(emailFilter.mightContain("new@naver.com")).isTrue();
+    }
+
+    @DisplayName("Junit test for bloom filter load and lookup")
+    @Test
+    public void givenStoredEmails_whenLoad_thenNoFalseNegativesAndFewFalsePositives() {
+        // given - precondition or setup
+        given(employeeRepository.streamAllEmails())
+                .willReturn(IntStream.range(0, 10_000).mapToObj(i -> "user" + i + "@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        emailFilter.load();
+        emailFilter.put("Seoin@Naver.com");
+
+        // then - verify the output
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> emailFilter.mightContain("user" + i + "@naver.com"))).isTrue();
+        assertThat(emailFilter.mightContain("seoin@naver.com")).isTrue();
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> emailFilter.mightContain("other" + i + "@naver.com"))
+                .count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @DisplayName("Junit test for bloom filter on empty table")
+    @Test
+    public void givenEmptyTable_whenLoad_thenEverythingIsNew() {
+        given(employeeRepository.streamAllEmails()).willReturn(Stream.empty());
+
+        emailFilter.load();
+
+        assertThat(emailFilter.mightContain("seoin@naver.com")).isFalse();
+    }
+}
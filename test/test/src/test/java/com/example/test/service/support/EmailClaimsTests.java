@@ -0,0 +1,50 @@
+package com.example.test.service.support;
+
+import com.example.test.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailClaimsTests {
+
+    @DisplayName("each distinct email is looked up once, normalized and in chunks")
+    @Test
+    public void givenRepeatedSpellings_whenLookups_thenDistinctChunks() {
+        // given - precondition or setup
+        List<Employee> employees = IntStream.range(0, EmailClaims.LOOKUP_CHUNK + 1)
+                .mapToObj(i -> employee("user" + i + "@naver.com"))
+                .collect(Collectors.toList());
+        employees.add(employee(" USER0@Naver.com "));
+
+        // when - action or the behavior that we are going to test
+        List<List<String>> lookups = EmailClaims.lookups(employees, email -> true);
+
+        // then - verify the output
+        assertThat(lookups).hasSize(2);
+        assertThat(lookups.get(0)).hasSize(EmailClaims.LOOKUP_CHUNK).startsWith("user0@naver.com");
+        assertThat(lookups.get(1)).containsExactly("user" + EmailClaims.LOOKUP_CHUNK + "@naver.com");
+        assertThat(EmailClaims.lookups(employees, email -> false)).isEmpty();
+    }
+
+    @DisplayName("a stored email and the second spelling of an email in the batch can not be claimed")
+    @Test
+    public void givenTakenEmail_whenClaim_thenOnlyNewEmailsOnce() {
+        // given - precondition or setup
+        EmailClaims claims = EmailClaims.taken(List.of("Seoin@Naver.com"));
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        assertThat(claims.claim(employee("seoin@naver.com"))).isFalse();
+        assertThat(claims.claim(employee("jiwoo@naver.com"))).isTrue();
+        assertThat(claims.claim(employee("JIWOO@naver.com "))).isFalse();
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder().firstName("seoin").lastName("choi").email(email).build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.test.service.support;
+
+import com.example.test.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class EmployeeBulkheadTests {
+
+    private EmployeeBulkhead bulkhead;
+
+    @BeforeEach
+    public void setup() {
+        bulkhead = new EmployeeBulkhead(1, Duration.ofMillis(50), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @DisplayName("a caller waits at most max-wait for a permit and then gets DatabaseBusyException")
+    @Test
+    public void givenPermitTaken_whenLimit_thenRejectedAfterMaxWait() throws Throwable {
+        // given - precondition or setup
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ProceedingJoinPoint blocking = joinPoint(() -> {
+            inside.countDown();
+            release.await();
+            return "done";
+        });
+        CompletableFuture<Object> holder = CompletableFuture.supplyAsync(() -> limit(blocking));
+        assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - action or the behavior that we are going to test
+        long start = System.nanoTime();
+        Throwable rejected = catchThrowable(joinPoint(() -> "never"));
+
+        // then - verify the output
+        assertThat(rejected).isInstanceOf(DatabaseBusyException.class);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(bulkhead.availablePermits()).isEqualTo(1);
+    }
+
+    @DisplayName("nested service and repository calls reuse the permit of the outer call")
+    @Test
+    public void givenOuterCall_whenNestedCall_thenPermitReused() throws Throwable {
+        // given - precondition or setup
+        ProceedingJoinPoint inner = joinPoint(() -> "inner");
+        ProceedingJoinPoint outer = joinPoint(() -> bulkhead.limit(inner));
+
+        // when - action or the behavior that we are going to test
+        Object result = bulkhead.limit(outer);
+
+        // then - verify the output
+        assertThat(result).isEqualTo("inner");
+        assertThat(bulkhead.availablePermits()).isEqualTo(1);
+    }
+
+    @DisplayName("inside an http request the permit is kept until the request completes")
+    @Test
+    public void givenRequest_whenCallReturns_thenPermitHeldUntilRequestCompleted() throws Throwable {
+        // given - precondition or setup
+        ServletRequestAttributes request = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(request);
+
+        // when - action or the behavior that we are going to test
+        bulkhead.limit(joinPoint(() -> "first"));
+        bulkhead.limit(joinPoint(() -> "second"));
+
+        // then - verify the output
+        assertThat(bulkhead.availablePermits()).isZero();
+        request.requestCompleted();
+        assertThat(bulkhead.availablePermits()).isEqualTo(1);
+    }
+
+    private interface Body {
+        Object run() throws Throwable;
+    }
+
+    private static ProceedingJoinPoint joinPoint(Body body) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        given(joinPoint.proceed()).willAnswer(invocation -> body.run());
+        return joinPoint;
+    }
+
+    private Object limit(ProceedingJoinPoint joinPoint) {
+        try {
+            return bulkhead.limit(joinPoint);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Throwable catchThrowable(ProceedingJoinPoint joinPoint) {
+        try {
+            bulkhead.limit(joinPoint);
+            return null;
+        } catch (Throwable e) {
+            return e;
+        }
+    }
+}
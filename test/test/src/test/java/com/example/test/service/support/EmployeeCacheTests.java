@@ -0,0 +1,127 @@
+package com.example.test.service.support;
+
+import com.example.test.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeCacheTests {
+
+    private EmployeeCache employeeCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setup() {
+        employeeCache = new EmployeeCache(2, Duration.ofMinutes(5), Duration.ofMillis(50));
+        loads = new AtomicInteger();
+    }
+
+    private Optional<Employee> load(long id) {
+        loads.incrementAndGet();
+        return Optional.of(Employee.builder()
+                .id(id)
+                .firstName("seoin")
+                .lastName("choi")
+                .email("seoin" + id + "@naver.com")
+                .build());
+    }
+
+    @DisplayName("Junit test for cache returning copies")
+    @Test
+    public void givenCachedEmployee_whenCallerMutatesResult_thenCacheIsUnchanged() {
+        // given - precondition or setup
+        employeeCache.get(1L, this::load).get().setFirstName("namu");
+
+        // when - action or the behavior that we are going to test
+        Employee cached = employeeCache.get(1L, this::load).get();
+
+        // then - verify the output
+        assertThat(cached.getFirstName()).isEqualTo("seoin");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for cache size bound")
+    @Test
+    public void givenMoreIdsThanMaximumSize_whenGet_thenEvicts() {
+        // when - action or the behavior that we are going to test
+        for (long id = 1; id <= 10; id++) {
+            employeeCache.get(id, this::load);
+        }
+
+        // then - verify the output
+        assertThat(employeeCache.size()).isLessThanOrEqualTo(2);
+        assertThat(employeeCache.stats().evictionCount()).isGreaterThanOrEqualTo(8);
+    }
+
+    @DisplayName("Junit test for negative cache ttl")
+    @Test
+    public void givenCachedMiss_whenNegativeTtlPasses_thenReload() throws Exception {
+        // given - precondition or setup
+        employeeCache.get(1L, id -> Optional.empty());
+
+        // when - action or the behavior that we are going to test
+        Optional<Employee> stillMissing = employeeCache.get(1L, this::load);
+        Thread.sleep(100);
+        Optional<Employee> found = employeeCache.get(1L, this::load);
+
+        // then - verify the output
+        assertThat(stillMissing).isEmpty();
+        assertThat(found).isPresent();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for cache invalidate")
+    @Test
+    public void givenCachedEmployee_whenInvalidate_thenReload() {
+        // given - precondition or setup
+        employeeCache.get(1L, this::load);
+
+        // when - action or the behavior that we are going to test
+        employeeCache.invalidate(1L);
+        employeeCache.get(1L, this::load);
+
+        // then - verify the output
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(employeeCache.stats().hitCount()).isEqualTo(0);
+        assertThat(employeeCache.stats().missCount()).isEqualTo(2);
+    }
+
+    @DisplayName("Junit test for invalidate while a load is in flight")
+    @Test
+    public void givenLoadInFlight_whenInvalidate_thenNotBlockedAndStaleValueDropped() throws Exception {
+        // given - precondition or setup
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<Employee>> slowReader = CompletableFuture.supplyAsync(() ->
+                employeeCache.get(1L, id -> {
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return load(id);
+                }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - action or the behavior that we are going to test
+        CompletableFuture<Void> invalidate = CompletableFuture.runAsync(() -> employeeCache.invalidate(1L));
+        invalidate.get(5, TimeUnit.SECONDS);
+        release.countDown();
+        slowReader.get(5, TimeUnit.SECONDS);
+        employeeCache.get(1L, this::load);
+
+        // then - verify the output
+        assertThat(loads.get()).isEqualTo(2);
+    }
+}
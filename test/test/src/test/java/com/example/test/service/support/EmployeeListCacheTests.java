@@ -0,0 +1,271 @@
+package com.example.test.service.support;
+
+import com.example.test.exception.DatabaseBusyException;
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeListCacheTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ObjectProvider<EmployeeService> employeeServiceProvider;
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmployeeListCache listCache;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        listCache = listCache(Duration.ofSeconds(5), Duration.ofMinutes(1));
+        given(employeeServiceProvider.getObject()).willReturn(employeeService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        listCache.close();
+    }
+
+    @DisplayName("the list is encoded once, later requests get the same bytes with a json and a gzip ETag")
+    @Test
+    public void givenBuiltSnapshot_whenGetAgain_thenSameBytes() throws IOException {
+        // given - precondition or setup
+        given(employeeService.getAllEmployees()).willReturn(generation(3));
+
+        // when - action or the behavior that we are going to test
+        EmployeeListCache.Snapshot first = listCache.get();
+        EmployeeListCache.Snapshot second = listCache.get();
+
+        // then - verify the output
+        assertThat(second).isSameAs(first);
+        assertConsistent(first);
+        assertThat(first.getSize()).isEqualTo(3);
+        assertThat(first.getGzipETag()).isNotEqualTo(first.getETag());
+        assertThat(meterRegistry.get("employee.list.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("employee.list.cache.requests").tag("result", "wait").counter().count()).isEqualTo(1);
+    }
+
+    @DisplayName("a write inside a transaction keeps the old snapshot until it commits")
+    @Test
+    public void givenActiveTransaction_whenInvalidate_thenDroppedAfterCommit() throws IOException {
+        // given - precondition or setup
+        given(employeeService.getAllEmployees()).willReturn(generation(1), generation(2));
+        EmployeeListCache.Snapshot before = listCache.get();
+
+        // when - action or the behavior that we are going to test
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listCache.invalidate();
+            assertThat(listCache.get()).isSameAs(before);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then - verify the output
+        assertThat(generationOf(listCache.get())).isEqualTo(2);
+    }
+
+    @DisplayName("a failed rebuild fails the requests waiting for it and is retried by the next one")
+    @Test
+    public void givenFailingRebuild_whenGetAgain_thenRetried() throws IOException {
+        // given - precondition or setup
+        given(employeeService.getAllEmployees())
+                .willThrow(new IllegalStateException("database down"))
+                .willReturn(generation(2));
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        assertThatThrownBy(() -> listCache.get()).isInstanceOf(IllegalStateException.class);
+        assertThat(generationOf(listCache.get())).isEqualTo(2);
+    }
+
+    @DisplayName("an expired snapshot is still served while a single rebuild replaces it")
+    @Test
+    public void givenExpiredSnapshot_whenGet_thenServedWhileRebuilt() throws Exception {
+        // given - precondition or setup
+        listCache.close();
+        listCache = listCache(Duration.ofSeconds(5), Duration.ofMillis(50));
+        AtomicReference<List<Employee>> table = new AtomicReference<>(generation(1));
+        given(employeeService.getAllEmployees()).willAnswer(invocation -> table.get());
+        EmployeeListCache.Snapshot first = listCache.get();
+        table.set(generation(2));
+        Thread.sleep(60);
+
+        // when - action or the behavior that we are going to test
+        EmployeeListCache.Snapshot expired = listCache.get();
+
+        // then - verify the output
+        assertThat(expired).isSameAs(first);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (generationOf(listCache.get()) != 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(generationOf(listCache.get())).isEqualTo(2);
+    }
+
+    @DisplayName("a rebuild slower than max-wait answers the previous snapshot, or busy when there is none")
+    @Test
+    public void givenSlowRebuild_whenGet_thenPreviousAfterMaxWait() throws Exception {
+        // given - precondition or setup
+        listCache.close();
+        listCache = listCache(Duration.ofMillis(100), Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean slow = new AtomicBoolean(true);
+        given(employeeService.getAllEmployees()).willAnswer(invocation -> {
+            if (slow.get()) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return generation(1);
+        });
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        assertThatThrownBy(() -> listCache.get()).isInstanceOf(DatabaseBusyException.class);
+        slow.set(false);
+        release.countDown();
+        EmployeeListCache.Snapshot before = listCache.get();
+
+        CountDownLatch releaseAgain = new CountDownLatch(1);
+        given(employeeService.getAllEmployees()).willAnswer(invocation -> {
+            releaseAgain.await(5, TimeUnit.SECONDS);
+            return generation(2);
+        });
+        listCache.invalidate();
+        assertThat(listCache.get()).isSameAs(before);
+        assertThat(meterRegistry.get("employee.list.cache.requests").tag("result", "stale").counter().count()).isEqualTo(1);
+        releaseAgain.countDown();
+    }
+
+    // readers poll while a writer keeps replacing the list : every snapshot is one whole list (old or new, never a mix
+    // of two), its gzip and ETag belong to the same bytes, a reader never goes back to an older list and the first
+    // request after the last write sees it
+    @DisplayName("concurrent readers see whole snapshots that only move forward while the list is rewritten")
+    @Test
+    public void givenConcurrentWrites_whenRead_thenOldOrNewSnapshotNeverPartial() throws Exception {
+        // given - precondition or setup
+        int writes = 200;
+        int readers = 4;
+        AtomicReference<List<Employee>> table = new AtomicReference<>(generation(1));
+        given(employeeService.getAllEmployees()).willAnswer(invocation -> table.get());
+        listCache.warmUp();
+
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(readers);
+        ConcurrentLinkedQueue<EmployeeListCache.Snapshot> seen = new ConcurrentLinkedQueue<>();
+        List<Future<Void>> results = new ArrayList<>();
+
+        // when - action or the behavior that we are going to test
+        for (int r = 0; r < readers; r++) {
+            results.add(executor.submit(() -> {
+                started.countDown();
+                long last = 0;
+                while (writing.get()) {
+                    EmployeeListCache.Snapshot snapshot = listCache.get();
+                    long current = generationOf(snapshot);
+                    assertThat(current).isGreaterThanOrEqualTo(last);
+                    last = current;
+                    seen.add(snapshot);
+                }
+                return null;
+            }));
+        }
+        started.await();
+        for (int i = 2; i <= writes; i++) {
+            table.set(generation(i));
+            listCache.invalidate();
+            if (i % 20 == 0) {
+                Thread.sleep(1);
+            }
+        }
+        EmployeeListCache.Snapshot afterLastWrite = listCache.get();
+        writing.set(false);
+        for (Future<Void> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then - verify the output
+        assertThat(generationOf(afterLastWrite)).isEqualTo(writes);
+        assertThat(seen).isNotEmpty();
+        for (EmployeeListCache.Snapshot snapshot : seen.stream().distinct().collect(Collectors.toList())) {
+            assertConsistent(snapshot);
+        }
+    }
+
+    private EmployeeListCache listCache(Duration maxWait, Duration maxAge) {
+        return new EmployeeListCache(employeeServiceProvider, objectMapper,
+                TransactionOperations.withoutTransaction(), meterRegistry, maxWait, maxAge);
+    }
+
+    // generation n : n employees all tagged with n, a list mixing two generations would show two tags
+    private static List<Employee> generation(int n) {
+        return IntStream.rangeClosed(1, n)
+                .mapToObj(i -> Employee.builder()
+                        .id(i)
+                        .firstName("seoin" + i)
+                        .lastName("v" + n)
+                        .email("seoin" + i + "@naver.com")
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private long generationOf(EmployeeListCache.Snapshot snapshot) throws IOException {
+        List<Employee> employees = objectMapper.readValue(snapshot.getJson(), new TypeReference<List<Employee>>() {});
+        assertThat(employees).hasSize(snapshot.getSize());
+        assertThat(employees).extracting(Employee::getLastName).containsOnly("v" + employees.size());
+        return employees.size();
+    }
+
+    private void assertConsistent(EmployeeListCache.Snapshot snapshot) throws IOException {
+        generationOf(snapshot);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(snapshot.getJson());
+        }
+        String hash = DigestUtils.md5DigestAsHex(snapshot.getJson());
+        assertThat(snapshot.getETag()).isEqualTo("\"" + hash + "\"");
+        assertThat(snapshot.getGzipETag()).isEqualTo("\"" + hash + "-gzip\"");
+    }
+}
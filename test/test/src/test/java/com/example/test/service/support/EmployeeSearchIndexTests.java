@@ -0,0 +1,157 @@
+package com.example.test.service.support;
+
+import com.example.test.dto.EmployeePatch;
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSearchIndexTests {
+
+    @Mock
+    private ObjectProvider<EmployeeService> employeeServiceProvider;
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup() {
+        searchIndex = new EmployeeSearchIndex(employeeServiceProvider, new SimpleMeterRegistry());
+    }
+
+    @DisplayName("the load reads every employee, a prefix of any name or email word finds them")
+    @Test
+    public void givenStoredEmployees_whenLoadAndSearchPrefix_thenFound() {
+        // given - precondition or setup
+        given(employeeServiceProvider.getObject()).willReturn(employeeService);
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee(1, "Seoin", "Choi", "seoin.choi@naver.com"));
+            consumer.accept(employee(2, "Minsu", "Kim", "mkim@naver.com"));
+            consumer.accept(employee(3, "Seojun", "Park", "sj@daum.net"));
+            return null;
+        }).given(employeeService).exportEmployees(any());
+
+        // when - action or the behavior that we are going to test
+        searchIndex.load();
+
+        // then - verify the output
+        assertThat(searchIndex.size()).isEqualTo(3);
+        assertThat(ids(searchIndex.search("seo", 0))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids(searchIndex.search("KI", 0))).containsExactly(2L);
+        assertThat(ids(searchIndex.search("cho", 0))).containsExactly(1L);
+        assertThat(ids(searchIndex.search("mkim@nav", 0))).containsExactly(2L);
+        assertThat(searchIndex.search("xyz", 0)).isEmpty();
+        assertThat(searchIndex.search("   ", 0)).isEmpty();
+    }
+
+    @DisplayName("every word of the query has to match, better matches rank first")
+    @Test
+    public void givenEmployees_whenSearchWords_thenAllWordsMatchAndRanked() {
+        // given - precondition or setup
+        searchIndex.put(employee(1, "Seoin", "Choi", "seoin@naver.com"));
+        searchIndex.put(employee(2, "Seoinho", "Choi", "other@naver.com"));
+        searchIndex.put(employee(3, "Minsu", "Choi", "seoin.minsu@naver.com"));
+        searchIndex.put(employee(4, "Seoin", "Kim", "kim@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        List<Employee> found = searchIndex.search("seoin choi", 0);
+
+        // then - verify the output
+        // exact first name, then first name prefix, then email word
+        assertThat(ids(found)).containsExactly(1L, 2L, 3L);
+    }
+
+    @DisplayName("the limit caps the result, the best matches are kept")
+    @Test
+    public void givenManyMatches_whenSearchWithLimit_thenBestLimit() {
+        // given - precondition or setup
+        IntStream.rangeClosed(1, 50).forEach(i -> searchIndex.put(employee(i, "seoin" + i, "choi", "user" + i + "@naver.com")));
+        searchIndex.put(employee(100, "seoin", "choi", "exact@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        List<Employee> found = searchIndex.search("seoin", 5);
+
+        // then - verify the output
+        assertThat(found).hasSize(5);
+        assertThat(found.get(0).getId()).isEqualTo(100L);
+        assertThat(searchIndex.search("seoin", 1000)).hasSize(51);
+    }
+
+    @DisplayName("updates, patches and deletes are reflected right away")
+    @Test
+    public void givenIndexedEmployee_whenUpdatePatchDelete_thenIndexFollows() {
+        // given - precondition or setup
+        searchIndex.put(employee(1, "seoin", "choi", "seoin@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        searchIndex.put(employee(1, "inseo", "choi", "seoin@naver.com"));
+        // then - verify the output
+        assertThat(searchIndex.search("seoin", 0)).extracting(Employee::getFirstName).containsExactly("inseo");
+        assertThat(ids(searchIndex.search("inse", 0))).containsExactly(1L);
+
+        // when - action or the behavior that we are going to test
+        searchIndex.patch(1, EmployeePatch.of(Map.of("email", "inseo@gmail.com")));
+        // then - verify the output
+        assertThat(searchIndex.search("seoin", 0)).isEmpty();
+        assertThat(searchIndex.search("inseo@g", 0)).extracting(Employee::getVersion).containsExactly(1L);
+
+        // when - action or the behavior that we are going to test
+        searchIndex.delete(1);
+        // then - verify the output
+        assertThat(searchIndex.search("inseo", 0)).isEmpty();
+        assertThat(searchIndex.size()).isZero();
+        assertThat(searchIndex.termCount()).isZero();
+    }
+
+    @DisplayName("a delete during the load is not brought back by the load")
+    @Test
+    public void givenDeleteDuringLoad_whenLoad_thenStaysDeleted() {
+        // given - precondition or setup
+        given(employeeServiceProvider.getObject()).willReturn(employeeService);
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            // deleted after the load started, before its row was read
+            searchIndex.delete(1);
+            // created after the load started, the load reads an older version
+            searchIndex.put(employee(2, "new", "choi", "new@naver.com"));
+            consumer.accept(employee(1, "gone", "choi", "gone@naver.com"));
+            consumer.accept(employee(2, "old", "choi", "old@naver.com"));
+            return null;
+        }).given(employeeService).exportEmployees(any());
+
+        // when - action or the behavior that we are going to test
+        searchIndex.load();
+
+        // then - verify the output
+        assertThat(searchIndex.search("choi", 0)).extracting(Employee::getFirstName).containsExactly("new");
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String email) {
+        return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).build();
+    }
+}
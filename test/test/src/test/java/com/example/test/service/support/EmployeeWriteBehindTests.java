@@ -0,0 +1,183 @@
+package com.example.test.service.support;
+
+import com.example.test.dto.EmployeeBatchResult;
+import com.example.test.dto.EmployeeIngestion;
+import com.example.test.exception.DuplicateEmailException;
+import com.example.test.exception.IngestionQueueFullException;
+import com.example.test.exception.InvalidEmployeeException;
+import com.example.test.model.Employee;
+import com.example.test.service.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+// the writer thread is only started by start(), so creates submitted before it are all in its first batch
+public class EmployeeWriteBehindTests {
+
+    private EmployeeService employeeService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmployeeWriteBehind writeBehind;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    public void setup() {
+        employeeService = mock(EmployeeService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = new EmployeeWriteBehind(employeeService, meterRegistry, 2_000, 500, Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    @DisplayName("creates queued together are committed by one saveEmployees call, duplicates end as CONFLICT")
+    @Test
+    public void givenQueuedCreates_whenWriterRuns_thenOneGroupCommit() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            return List.of(
+                    EmployeeBatchResult.created(0, withId(employees.get(0))),
+                    EmployeeBatchResult.created(1, withId(employees.get(1))),
+                    EmployeeBatchResult.conflict(2, employees.get(2)));
+        });
+        EmployeeIngestion first = writeBehind.submit(employee("seoin@naver.com"));
+        EmployeeIngestion second = writeBehind.submit(employee("namu@naver.com"));
+        EmployeeIngestion duplicate = writeBehind.submit(employee("seoin@naver.com"));
+        assertThat(writeBehind.status(first.getTrackingId()).get().getStatus()).isEqualTo(EmployeeIngestion.Status.PENDING);
+
+        // when - action or the behavior that we are going to test
+        writeBehind.start();
+        writeBehind.close();
+
+        // then - verify the output
+        then(employeeService).should(times(1)).saveEmployees(anyList());
+        assertThat(writeBehind.status(first.getTrackingId()).get().getStatus()).isEqualTo(EmployeeIngestion.Status.CREATED);
+        assertThat(writeBehind.status(second.getTrackingId()).get().getEmployeeId()).isNotNull();
+        assertThat(writeBehind.status(duplicate.getTrackingId()).get().getStatus()).isEqualTo(EmployeeIngestion.Status.CONFLICT);
+        assertThat(meterRegistry.get("employee.write.behind.batch").summary().totalAmount()).isEqualTo(3);
+    }
+
+    @DisplayName("a full queue rejects the create with IngestionQueueFullException instead of waiting")
+    @Test
+    public void givenFullQueue_whenSubmit_thenRejected() {
+        // given - precondition or setup
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = new EmployeeWriteBehind(employeeService, meterRegistry, 2, 500, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        writeBehind.submit(employee("one@naver.com"));
+        writeBehind.submit(employee("two@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        assertThatThrownBy(() -> writeBehind.submit(employee("three@naver.com")))
+                .isInstanceOf(IngestionQueueFullException.class);
+        assertThat(meterRegistry.get("employee.write.behind.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("employee.write.behind.queue").gauge().value()).isEqualTo(2);
+    }
+
+    @DisplayName("a failed batch is written again one by one so only the duplicate fails")
+    @Test
+    public void givenBatchFails_whenWriterRuns_thenRetriedOneByOne() throws Exception {
+        // given - precondition or setup
+        willThrow(new DataIntegrityViolationException("ux_employees_email")).given(employeeService).saveEmployees(anyList());
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getEmail().equals("taken@naver.com")) {
+                throw new DuplicateEmailException("already exists with given email : taken@naver.com");
+            }
+            return withId(employee);
+        });
+        EmployeeIngestion created = writeBehind.submit(employee("seoin@naver.com"));
+        EmployeeIngestion conflict = writeBehind.submit(employee("taken@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        writeBehind.start();
+        writeBehind.close();
+
+        // then - verify the output
+        then(employeeService).should(times(2)).saveEmployee(any(Employee.class));
+        assertThat(writeBehind.status(created.getTrackingId()).get().getStatus()).isEqualTo(EmployeeIngestion.Status.CREATED);
+        assertThat(writeBehind.status(conflict.getTrackingId()).get().getStatus()).isEqualTo(EmployeeIngestion.Status.CONFLICT);
+    }
+
+    @DisplayName("only the FAILED items of a batch are written again, committed ones are not retried")
+    @Test
+    public void givenPartlyFailedBatch_whenWriterRuns_thenOnlyFailedRetried() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            return List.of(
+                    EmployeeBatchResult.created(0, withId(employees.get(0))),
+                    EmployeeBatchResult.failed(1, employees.get(1), "shard 1 failed"));
+        });
+        given(employeeService.saveEmployee(any(Employee.class))).willAnswer(invocation -> withId(invocation.getArgument(0)));
+        EmployeeIngestion committed = writeBehind.submit(employee("seoin@naver.com"));
+        EmployeeIngestion failed = writeBehind.submit(employee("namu@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        writeBehind.start();
+        writeBehind.close();
+
+        // then - verify the output
+        then(employeeService).should(times(1)).saveEmployee(any(Employee.class));
+        assertThat(writeBehind.status(committed.getTrackingId()).get().getStatus()).isEqualTo(EmployeeIngestion.Status.CREATED);
+        assertThat(writeBehind.status(failed.getTrackingId()).get().getStatus()).isEqualTo(EmployeeIngestion.Status.CREATED);
+    }
+
+    @DisplayName("close writes what is still queued and takes no new creates")
+    @Test
+    public void givenQueuedCreate_whenClose_thenDrainedAndNewCreatesRejected() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            return List.of(EmployeeBatchResult.created(0, withId(employees.get(0))));
+        });
+        EmployeeIngestion queued = writeBehind.submit(employee("seoin@naver.com"));
+
+        // when - action or the behavior that we are going to test
+        writeBehind.close();
+
+        // then - verify the output
+        assertThat(writeBehind.status(queued.getTrackingId()).get().getStatus()).isEqualTo(EmployeeIngestion.Status.CREATED);
+        assertThatThrownBy(() -> writeBehind.submit(employee("late@naver.com")))
+                .isInstanceOf(IngestionQueueFullException.class);
+    }
+
+    @DisplayName("a create without the required fields is rejected before it is queued")
+    @Test
+    public void givenMissingEmail_whenSubmit_thenInvalid() {
+        // when - action or the behavior that we are going to test
+        // then - verify the output
+        assertThatThrownBy(() -> writeBehind.submit(Employee.builder().firstName("seoin").lastName("choi").build()))
+                .isInstanceOf(InvalidEmployeeException.class);
+        assertThat(meterRegistry.get("employee.write.behind.queue").gauge().value()).isZero();
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .firstName("seoin")
+                .lastName("choi")
+                .email(email)
+                .build();
+    }
+
+    private Employee withId(Employee employee) {
+        employee.setId(ids.incrementAndGet());
+        return employee;
+    }
+}
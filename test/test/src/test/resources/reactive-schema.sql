@@ -0,0 +1,13 @@
+create sequence if not exists employee_seq start with 1 increment by 50;
+
+create table if not exists employees (
+    id bigint not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    version bigint not null,
+    primary key (id)
+);
+
+create unique index if not exists ux_employees_email on employees (email);
+create index if not exists ix_employees_last_first on employees (last_name, first_name);
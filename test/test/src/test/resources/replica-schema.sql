@@ -0,0 +1,14 @@
+-- what replication would have created on the replica : the employees table and the heartbeat of ReplicaLagMonitor
+create table if not exists employees (
+    id bigint not null,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    version bigint not null,
+    primary key (id)
+);
+
+create unique index if not exists ux_employees_email on employees (email);
+create index if not exists ix_employees_last_first on employees (last_name, first_name);
+
+create table if not exists employee_replica_heartbeat (id int not null primary key, beat bigint not null);